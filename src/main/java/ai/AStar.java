@@ -7,8 +7,6 @@ package main.java.ai;
 import java.util.ArrayList;
 import java.util.PriorityQueue;
 
-import main.java.constants.CellState;
-import main.java.gamelogic.domain.Cell;
 import main.java.gamelogic.domain.Map;
 import main.java.gamelogic.domain.Position;
 
@@ -49,7 +47,6 @@ public class AStar {
 	public AStar(final Map map) {
 
 		mapSize = map.getMapSize();
-		final Cell[][] cells = map.getCells();
 		final ArrayList<Position> blocked = new ArrayList<Position>();
 		grid = new AStarCell[mapSize][mapSize];
 		closed = new boolean[mapSize][mapSize];
@@ -58,8 +55,8 @@ public class AStar {
 		for (int i = 0; i < mapSize; i++) {
 			for (int j = 0; j < mapSize; j++) {
 				grid[i][j] = new AStarCell(i, j);
-				if (cells[i][j].getState() == CellState.OBSTACLE) {
-					blocked.add(new Position(i, j));
+				if (map.isObstacle(i, j)) {
+					blocked.add(Position.of(i, j));
 				}
 			}
 		}
@@ -106,7 +103,7 @@ public class AStar {
 		 * @return the position
 		 */
 		public Position getPos() {
-			return new Position(i, j);
+			return Position.of(i, j);
 		}
 
 		@Override
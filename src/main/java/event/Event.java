@@ -1,11 +1,24 @@
 package main.java.event;
 
-import java.util.HashSet;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 /**
  * Represents an event that can be listened to and triggered.
- * 
+ *
+ * The listeners are kept in immutable arrays which are replaced atomically
+ * whenever a listener is added or removed, so firing the event takes no locks
+ * and allocates nothing, and listeners may safely be added or removed while
+ * the event is being fired (even by the listeners themselves) on any thread.
+ * A listener added or removed while the event is being fired may or may not be
+ * triggered by that firing.
+ *
+ * The firing of events and the time taken by their listeners can be measured
+ * with the {@link EventProfiler}.
+ *
  * @author Tom Galvin
  *
  * @param <TListener>
@@ -14,10 +27,12 @@ import java.util.function.BiConsumer;
  *            The type of argument which will be passed to the event listener.
  */
 public class Event<TListener, TEventArgs> {
-	private HashSet<TListener> listeners;
-	private HashSet<TListener> oneTimeListeners;
-	private BiConsumer<TListener, TEventArgs> trigger;
-	private Object fireLock;
+	private static final Object[] NONE = new Object[0];
+	private static final Listeners EMPTY = new Listeners(NONE, NONE);
+
+	private final AtomicReference<Listeners> listeners;
+	private final BiConsumer<TListener, TEventArgs> trigger;
+	private String name;
 
 	/**
 	 * Creates a new event with the given trigger function.
@@ -27,10 +42,23 @@ public class Event<TListener, TEventArgs> {
 	 *            on a listener, passing the event arguments to it.
 	 */
 	public Event(final BiConsumer<TListener, TEventArgs> trigger) {
-		this.fireLock = new Object();
-		this.listeners = new HashSet<>();
-		this.oneTimeListeners = new HashSet<>();
+		this(null, trigger);
+	}
+
+	/**
+	 * Creates a new event with the given name and trigger function.
+	 *
+	 * @param name
+	 *            The name of the event, used to identify it when profiling,
+	 *            or {@code null} to name it after the method which fires it.
+	 * @param trigger
+	 *            A consumer function which calls the event listening function
+	 *            on a listener, passing the event arguments to it.
+	 */
+	public Event(final String name, final BiConsumer<TListener, TEventArgs> trigger) {
+		this.listeners = new AtomicReference<>(EMPTY);
 		this.trigger = trigger;
+		this.name = name;
 	}
 
 	/**
@@ -44,13 +72,17 @@ public class Event<TListener, TEventArgs> {
 	 *             this event as a normal listener.
 	 */
 	public void addListener(final TListener listener) {
-		if (!isListenedToBy(listener)) {
-			if (oneTimeListeners.contains(listener)) {
-				oneTimeListeners.remove(listener);
+		Listeners current, next;
+		do {
+			current = listeners.get();
+			if (indexOf(current.normal, listener) >= 0) {
+				throw new IllegalArgumentException("Listener already added to event.");
 			}
-			listeners.add(listener);
-		} else {
-			throw new IllegalArgumentException("Listener already added to event.");
+			next = new Listeners(append(current.normal, listener), remove(current.oneTime, listener));
+		} while (!listeners.compareAndSet(current, next));
+
+		if (ListenerLeakDetector.isTracking()) {
+			ListenerLeakDetector.getInstance().recordAdd(this, listener);
 		}
 	}
 
@@ -58,7 +90,7 @@ public class Event<TListener, TEventArgs> {
 	 * Adds a listener to an event. This listener will only be fired once -
 	 * after that, you will need to re-add the listener to the event in order
 	 * for the listener to receive the message again.
-	 * 
+	 *
 	 * @param listener
 	 *            The listener to add to the event.
 	 * @throws IllegalArgumentException
@@ -66,10 +98,17 @@ public class Event<TListener, TEventArgs> {
 	 *             this event, either as a normal or a one-time listener.
 	 */
 	public void addOneTimeListener(final TListener listener) {
-		if (isListenedToBy(listener) || oneTimeListeners.contains(listener)) {
-			throw new IllegalArgumentException("One-time listener already added to event.");
-		} else {
-			oneTimeListeners.add(listener);
+		Listeners current, next;
+		do {
+			current = listeners.get();
+			if (indexOf(current.normal, listener) >= 0 || indexOf(current.oneTime, listener) >= 0) {
+				throw new IllegalArgumentException("One-time listener already added to event.");
+			}
+			next = new Listeners(current.normal, append(current.oneTime, listener));
+		} while (!listeners.compareAndSet(current, next));
+
+		if (ListenerLeakDetector.isTracking()) {
+			ListenerLeakDetector.getInstance().recordAdd(this, listener);
 		}
 	}
 
@@ -78,23 +117,23 @@ public class Event<TListener, TEventArgs> {
 	 *
 	 * @param listener
 	 *            The listener to remove (ie. stop listening).
-	 * @throws IllegalArgumentException
-	 *             Thrown when the given listener is not listening to this
-	 *             event, and so it can't stop listening (be removed).
 	 */
 	public void removeListener(final TListener listener) {
-		if (isListenedToBy(listener)) {
-			listeners.remove(listener);
-		} else if (oneTimeListeners.contains(listener)) {
-			oneTimeListeners.remove(listener);
-		}
+		Listeners current, next;
+		do {
+			current = listeners.get();
+			next = new Listeners(remove(current.normal, listener), remove(current.oneTime, listener));
+			if (next.normal == current.normal && next.oneTime == current.oneTime) {
+				return;
+			}
+		} while (!listeners.compareAndSet(current, next));
 	}
 
 	/**
 	 * Removes all listeners from this event.
 	 */
 	public void clearListeners() {
-		listeners.clear();
+		listeners.set(EMPTY);
 	}
 
 	/**
@@ -106,7 +145,40 @@ public class Event<TListener, TEventArgs> {
 	 *         event; {@code false} otherwise.
 	 */
 	public boolean isListenedToBy(final TListener listener) {
-		return listeners.contains(listener);
+		return indexOf(listeners.get().normal, listener) >= 0;
+	}
+
+	/**
+	 * Determines whether any listeners, normal or one-time, are listening to
+	 * this event. This can be used to avoid preparing event arguments which
+	 * nobody will receive.
+	 *
+	 * @return Returns {@code true} if this event has at least one listener;
+	 *         {@code false} otherwise.
+	 */
+	public boolean hasListeners() {
+		final Listeners current = listeners.get();
+		return current.normal.length > 0 || current.oneTime.length > 0;
+	}
+
+	/**
+	 * Gets all of the listeners, normal and one-time, currently listening to
+	 * this event.
+	 */
+	Object[] getListeners() {
+		final Listeners current = listeners.get();
+		final Object[] all = Arrays.copyOf(current.normal, current.normal.length + current.oneTime.length);
+		System.arraycopy(current.oneTime, 0, all, current.normal.length, current.oneTime.length);
+		return all;
+	}
+
+	/**
+	 * Gets the name this event was given, or was named by the profiler.
+	 *
+	 * @return The name, or {@code null} if the event has no name yet.
+	 */
+	String getNameIfKnown() {
+		return name;
 	}
 
 	/**
@@ -115,24 +187,127 @@ public class Event<TListener, TEventArgs> {
 	 * finished running, and the order in which the event listeners are
 	 * triggered is unspecified.
 	 *
+	 * An exception thrown by one listener is reported along with the names of
+	 * the event and the listener, and does not stop the other listeners from
+	 * being triggered. Each one-time listener is triggered by exactly one
+	 * firing, even if the event is fired on many threads at once.
+	 *
 	 * @param args
 	 *            The arguments to pass to the event listeners.
 	 */
 	public void fire(final TEventArgs args) {
+		Listeners current = listeners.get();
+
+		if (EventProfiler.isProfiling()) {
+			EventProfiler.getInstance().recordFire(getName(), current.normal.length + current.oneTime.length);
+		}
+
+		for (final Object listener : current.normal) {
+			triggerListener(listener, args);
+		}
+
+		if (current.oneTime.length > 0) {
+			// take the one-time listeners off the event before triggering them
+			// so that no other firing can trigger them too
+			while (!listeners.compareAndSet(current, current.withoutOneTime())) {
+				current = listeners.get();
+			}
+
+			for (final Object listener : current.oneTime) {
+				triggerListener(listener, args);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void triggerListener(final Object listener, final TEventArgs args) {
+		final boolean profiling = EventProfiler.isProfiling();
+		final long start = profiling ? System.nanoTime() : 0;
 		try {
-		synchronized (fireLock) {
-			for (final TListener listener : listeners) {
-				trigger.accept(listener, args);
+			trigger.accept((TListener) listener, args);
+		} catch (final RuntimeException e) {
+			reportFailure(listener, e);
+		} finally {
+			if (profiling) {
+				EventProfiler.getInstance().recordListener(getName(), listener, System.nanoTime() - start);
 			}
+		}
+	}
 
-			for (final TListener listener : oneTimeListeners) {
-				trigger.accept(listener, args);
+	/**
+	 * Reports an exception thrown by a listener, naming the event and the
+	 * listener so that the failure can be traced back to where it happened.
+	 * The report is written to standard error in one piece, so that reports
+	 * from several threads are not interleaved.
+	 */
+	private void reportFailure(final Object listener, final RuntimeException e) {
+		final StringWriter report = new StringWriter();
+		final PrintWriter writer = new PrintWriter(report);
+		writer.printf("Listener %s of event '%s' threw an exception:%n", EventProfiler.getListenerName(listener),
+				getName());
+		e.printStackTrace(writer);
+		writer.flush();
+		System.err.print(report);
+	}
+
+	/**
+	 * Gets the name of this event, naming it after the method firing it if it
+	 * was not given a name.
+	 */
+	private String getName() {
+		if (name == null) {
+			name = "fired by " + EventProfiler.getCallerName();
+		}
+		return name;
+	}
+
+	private static int indexOf(final Object[] array, final Object element) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i].equals(element)) {
+				return i;
 			}
+		}
+		return -1;
+	}
 
-			oneTimeListeners.clear();
+	private static Object[] append(final Object[] array, final Object element) {
+		final Object[] result = Arrays.copyOf(array, array.length + 1);
+		result[array.length] = element;
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the array without the given element, or the array
+	 * itself if it does not contain the element.
+	 */
+	private static Object[] remove(final Object[] array, final Object element) {
+		final int index = indexOf(array, element);
+		if (index < 0) {
+			return array;
+		} else if (array.length == 1) {
+			return NONE;
 		}
-		} catch(Exception e) {
-			e.printStackTrace();
+
+		final Object[] result = new Object[array.length - 1];
+		System.arraycopy(array, 0, result, 0, index);
+		System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+		return result;
+	}
+
+	/**
+	 * An immutable snapshot of the listeners of an event.
+	 */
+	private static final class Listeners {
+		private final Object[] normal;
+		private final Object[] oneTime;
+
+		public Listeners(final Object[] normal, final Object[] oneTime) {
+			this.normal = normal;
+			this.oneTime = oneTime;
+		}
+
+		public Listeners withoutOneTime() {
+			return normal.length == 0 ? EMPTY : new Listeners(normal, NONE);
 		}
 	}
 }
@@ -0,0 +1,71 @@
+package main.java.event;
+
+import java.util.function.Supplier;
+
+/**
+ * Hands out reusable event argument objects for events which are fired very
+ * often, so that firing them does not create garbage. Each thread gets its
+ * own instance; if an event is fired again while the instance is still in use
+ * (ie. a listener fires the same kind of event), a new instance is created
+ * for the inner firing instead.
+ *
+ * Arguments obtained from a pool are only valid until the event has finished
+ * firing. A listener which needs to keep them for longer (eg. to use them in
+ * a {@code Platform.runLater} closure) must copy them first.
+ *
+ * @param <TEventArgs>
+ *            The type of event arguments in the pool.
+ */
+public class EventArgsPool<TEventArgs> {
+	private final Supplier<TEventArgs> factory;
+	private final ThreadLocal<Slot<TEventArgs>> slots;
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param factory
+	 *            A function which creates new, blank event arguments.
+	 */
+	public EventArgsPool(final Supplier<TEventArgs> factory) {
+		this.factory = factory;
+		this.slots = ThreadLocal.withInitial(() -> new Slot<>(factory.get()));
+	}
+
+	/**
+	 * Takes event arguments from the pool. These must be returned with
+	 * {@link #release(Object)} once the event has been fired.
+	 *
+	 * @return Event arguments, to be filled in by the caller.
+	 */
+	public TEventArgs acquire() {
+		final Slot<TEventArgs> slot = slots.get();
+		if (slot.inUse) {
+			return factory.get();
+		}
+		slot.inUse = true;
+		return slot.args;
+	}
+
+	/**
+	 * Returns event arguments to the pool.
+	 *
+	 * @param args
+	 *            The event arguments, as returned by {@link #acquire()}.
+	 */
+	public void release(final TEventArgs args) {
+		final Slot<TEventArgs> slot = slots.get();
+		if (slot.args == args) {
+			slot.inUse = false;
+		}
+	}
+
+	private static final class Slot<TEventArgs> {
+		private final TEventArgs args;
+		private boolean inUse;
+
+		public Slot(final TEventArgs args) {
+			this.args = args;
+			this.inUse = false;
+		}
+	}
+}
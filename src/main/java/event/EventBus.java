@@ -0,0 +1,186 @@
+package main.java.event;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carries the events of many objects of the same kind (eg. all of the cells of
+ * a map) on one {@link EventChannel} per type of event, rather than each
+ * object owning an {@link Event} of its own. Each event is fired with the ID
+ * of the object it came from, and listeners can subscribe either to a whole
+ * channel or to the events of a single source ID on it.
+ *
+ * Nothing is allocated for a channel or a source ID until something subscribes
+ * to it, so objects which are never listened to cost nothing.
+ */
+public class EventBus {
+	private final ConcurrentHashMap<EventChannel<?, ?>, ChannelEvents<?, ?>> channels;
+
+	/**
+	 * Creates a new event bus with no listeners.
+	 */
+	public EventBus() {
+		channels = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the event which is fired for every event on the given channel,
+	 * whichever source it came from.
+	 *
+	 * @param channel
+	 *            The channel to get the event for.
+	 * @return The event for the whole channel.
+	 */
+	public <TListener, TEventArgs> Event<TListener, TEventArgs> getEvent(
+			final EventChannel<TListener, TEventArgs> channel) {
+		return getChannelEvents(channel).all;
+	}
+
+	/**
+	 * Gets the event which is fired for the events on the given channel which
+	 * came from one source. The same event object is returned every time for
+	 * the same channel and source, so listeners added through it can later be
+	 * removed through it.
+	 *
+	 * @param channel
+	 *            The channel to get the event for.
+	 * @param sourceID
+	 *            The ID of the source to get the event for.
+	 * @return The event for the source on the channel.
+	 */
+	public <TListener, TEventArgs> Event<TListener, TEventArgs> getEvent(
+			final EventChannel<TListener, TEventArgs> channel, final int sourceID) {
+		return getChannelEvents(channel).bySource.computeIfAbsent(sourceID, id -> channel.createEvent());
+	}
+
+	/**
+	 * Subscribes a listener to every event on the given channel.
+	 *
+	 * @param channel
+	 *            The channel to subscribe to.
+	 * @param listener
+	 *            The listener to add.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the listener is already subscribed to the
+	 *             channel.
+	 */
+	public <TListener, TEventArgs> void subscribe(final EventChannel<TListener, TEventArgs> channel,
+			final TListener listener) {
+		getEvent(channel).addListener(listener);
+	}
+
+	/**
+	 * Subscribes a listener to the events on the given channel which come from
+	 * one source.
+	 *
+	 * @param channel
+	 *            The channel to subscribe to.
+	 * @param sourceID
+	 *            The ID of the source to receive events from.
+	 * @param listener
+	 *            The listener to add.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the listener is already subscribed to the source
+	 *             on the channel.
+	 */
+	public <TListener, TEventArgs> void subscribe(final EventChannel<TListener, TEventArgs> channel,
+			final int sourceID, final TListener listener) {
+		getEvent(channel, sourceID).addListener(listener);
+	}
+
+	/**
+	 * Unsubscribes a listener from the given channel, both from the whole
+	 * channel and from any single source it was subscribed to.
+	 *
+	 * @param channel
+	 *            The channel to unsubscribe from.
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	public <TListener, TEventArgs> void unsubscribe(final EventChannel<TListener, TEventArgs> channel,
+			final TListener listener) {
+		final ChannelEvents<TListener, TEventArgs> events = findChannelEvents(channel);
+		if (events != null) {
+			events.all.removeListener(listener);
+			for (final Event<TListener, TEventArgs> event : events.bySource.values()) {
+				event.removeListener(listener);
+			}
+		}
+	}
+
+	/**
+	 * Determines whether an event fired on the given channel by the given
+	 * source would reach any listeners. This can be used to avoid preparing
+	 * event arguments which nobody will receive.
+	 *
+	 * @param channel
+	 *            The channel to check.
+	 * @param sourceID
+	 *            The ID of the source which would fire the event.
+	 * @return Returns {@code true} if the event has at least one listener;
+	 *         {@code false} otherwise.
+	 */
+	public boolean hasListeners(final EventChannel<?, ?> channel, final int sourceID) {
+		final ChannelEvents<?, ?> events = findChannelEvents(channel);
+		if (events == null) {
+			return false;
+		} else if (events.all.hasListeners()) {
+			return true;
+		} else if (events.bySource.isEmpty()) {
+			return false;
+		}
+
+		final Event<?, ?> event = events.bySource.get(sourceID);
+		return event != null && event.hasListeners();
+	}
+
+	/**
+	 * Fires an event on the given channel, triggering the listeners of the
+	 * whole channel and then the listeners of the source.
+	 *
+	 * @param channel
+	 *            The channel to fire the event on.
+	 * @param sourceID
+	 *            The ID of the source which the event came from.
+	 * @param args
+	 *            The arguments to pass to the event listeners.
+	 */
+	public <TListener, TEventArgs> void fire(final EventChannel<TListener, TEventArgs> channel, final int sourceID,
+			final TEventArgs args) {
+		final ChannelEvents<TListener, TEventArgs> events = findChannelEvents(channel);
+		if (events != null) {
+			events.all.fire(args);
+			if (!events.bySource.isEmpty()) {
+				final Event<TListener, TEventArgs> event = events.bySource.get(sourceID);
+				if (event != null) {
+					event.fire(args);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <TListener, TEventArgs> ChannelEvents<TListener, TEventArgs> findChannelEvents(
+			final EventChannel<TListener, TEventArgs> channel) {
+		return (ChannelEvents<TListener, TEventArgs>) channels.get(channel);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <TListener, TEventArgs> ChannelEvents<TListener, TEventArgs> getChannelEvents(
+			final EventChannel<TListener, TEventArgs> channel) {
+		return (ChannelEvents<TListener, TEventArgs>) channels.computeIfAbsent(channel,
+				c -> new ChannelEvents<>(channel));
+	}
+
+	/**
+	 * The events of one channel of the bus.
+	 */
+	private static final class ChannelEvents<TListener, TEventArgs> {
+		private final Event<TListener, TEventArgs> all;
+		private final ConcurrentHashMap<Integer, Event<TListener, TEventArgs>> bySource;
+
+		public ChannelEvents(final EventChannel<TListener, TEventArgs> channel) {
+			all = channel.createEvent();
+			bySource = new ConcurrentHashMap<>();
+		}
+	}
+}
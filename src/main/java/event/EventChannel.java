@@ -0,0 +1,57 @@
+package main.java.event;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Identifies one type of event which can be fired through an {@link EventBus}.
+ * A channel is normally declared once, as a constant of the class which fires
+ * the event (eg. {@link main.java.gamelogic.domain.Cell#STATE_CHANGED}), and
+ * the same channel is then used with every bus.
+ *
+ * @param <TListener>
+ *            The interface which will listen to events on this channel.
+ * @param <TEventArgs>
+ *            The type of argument which will be passed to the event listener.
+ */
+public final class EventChannel<TListener, TEventArgs> {
+	private final String name;
+	private final BiConsumer<TListener, TEventArgs> trigger;
+
+	/**
+	 * Creates a new event channel.
+	 *
+	 * @param name
+	 *            The name of the channel, for diagnostics.
+	 * @param trigger
+	 *            A consumer function which calls the event listening function
+	 *            on a listener, passing the event arguments to it.
+	 */
+	public EventChannel(final String name, final BiConsumer<TListener, TEventArgs> trigger) {
+		this.name = name;
+		this.trigger = trigger;
+	}
+
+	/**
+	 * Gets the name of this channel.
+	 *
+	 * @return The name of the channel.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Creates a new event which triggers listeners in the same way as this
+	 * channel.
+	 *
+	 * @return A new event with no listeners.
+	 */
+	public Event<TListener, TEventArgs> createEvent() {
+		return new Event<>(name, trigger);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
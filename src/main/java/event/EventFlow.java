@@ -0,0 +1,93 @@
+package main.java.event;
+
+/**
+ * The interfaces of a reactive stream, through which events can be consumed
+ * asynchronously with backpressure - see {@link EventPublisher}.
+ *
+ * These are the same as the interfaces in {@code java.util.concurrent.Flow},
+ * which are not available in Java 8; on a newer Java version they can be
+ * replaced by those, or adapted to them one-to-one.
+ */
+public final class EventFlow {
+	private EventFlow() {
+	}
+
+	/**
+	 * A producer of items which are received by subscribers.
+	 *
+	 * @param <T>
+	 *            The type of item published.
+	 */
+	public static interface Publisher<T> {
+		/**
+		 * Adds a subscriber. The subscriber's
+		 * {@link Subscriber#onSubscribe(Subscription)} is called before it
+		 * receives anything else.
+		 *
+		 * @param subscriber
+		 *            The subscriber to add.
+		 */
+		public void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * A receiver of items from a publisher. The methods of a subscriber are
+	 * never called concurrently.
+	 *
+	 * @param <T>
+	 *            The type of item received.
+	 */
+	public static interface Subscriber<T> {
+		/**
+		 * Called before any other method, with the subscription through which
+		 * items are requested.
+		 *
+		 * @param subscription
+		 *            The new subscription.
+		 */
+		public void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called with the next item. Items are only delivered once they have
+		 * been requested.
+		 *
+		 * @param item
+		 *            The item.
+		 */
+		public void onNext(T item);
+
+		/**
+		 * Called when the subscription fails. Nothing else is delivered after
+		 * this.
+		 *
+		 * @param throwable
+		 *            The reason for the failure.
+		 */
+		public void onError(Throwable throwable);
+
+		/**
+		 * Called when no more items will be published. Nothing else is
+		 * delivered after this.
+		 */
+		public void onComplete();
+	}
+
+	/**
+	 * The link between a publisher and one of its subscribers.
+	 */
+	public static interface Subscription {
+		/**
+		 * Requests more items.
+		 *
+		 * @param n
+		 *            The number of extra items the subscriber is ready to
+		 *            receive. Must be positive.
+		 */
+		public void request(long n);
+
+		/**
+		 * Stops receiving items.
+		 */
+		public void cancel();
+	}
+}
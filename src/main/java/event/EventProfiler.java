@@ -0,0 +1,317 @@
+package main.java.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Records how often each {@link Event} is fired and how long each of its
+ * listeners takes to run. Profiling is off by default, in which case the only
+ * cost to firing an event is reading one volatile field; it can be turned on
+ * at runtime, either in code, through JMX (see {@link #registerMBean()}), or
+ * by setting the {@value #REPORT_INTERVAL_PROPERTY} system property.
+ *
+ * Events are identified by their name if they were given one, and otherwise
+ * by the method which first fired them while profiling was on. Listeners are
+ * identified by their class.
+ */
+public final class EventProfiler implements EventProfilerMXBean {
+	/**
+	 * The system property which, when set to a number of seconds, turns
+	 * profiling on and prints a report at that interval.
+	 */
+	public static final String REPORT_INTERVAL_PROPERTY = "pacman.event.profile";
+
+	/**
+	 * The name under which the profiler is registered with JMX.
+	 */
+	public static final String MBEAN_NAME = "main.java.event:type=EventProfiler";
+
+	private static final int SLOWEST_LISTENER_COUNT = 10;
+	private static final EventProfiler INSTANCE = new EventProfiler();
+	private static volatile boolean enabled = false;
+
+	private final Map<String, EventStats> events;
+	private final Map<String, ListenerStats> listeners;
+	private final ThreadLocal<Map<String, long[]>> intervals;
+	private volatile long resetTime;
+	private Timer reportTimer;
+
+	private EventProfiler() {
+		events = new ConcurrentHashMap<>();
+		listeners = new ConcurrentHashMap<>();
+		intervals = new ThreadLocal<>();
+		resetTime = System.nanoTime();
+	}
+
+	/**
+	 * Gets the profiler.
+	 *
+	 * @return The profiler.
+	 */
+	public static EventProfiler getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Determines whether events are currently being profiled. This is checked
+	 * by {@link Event} every time it is fired, so it is kept as cheap as
+	 * possible.
+	 *
+	 * @return Returns {@code true} if profiling is on; {@code false}
+	 *         otherwise.
+	 */
+	static boolean isProfiling() {
+		return enabled;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(final boolean enabled) {
+		if (enabled && !EventProfiler.enabled) {
+			reset();
+		}
+		EventProfiler.enabled = enabled;
+	}
+
+	@Override
+	public void reset() {
+		events.clear();
+		listeners.clear();
+		resetTime = System.nanoTime();
+	}
+
+	/**
+	 * Records that an event was fired.
+	 *
+	 * @param eventName
+	 *            The name of the event.
+	 * @param listenerCount
+	 *            The number of listeners the event was fired to.
+	 */
+	void recordFire(final String eventName, final int listenerCount) {
+		final EventStats stats = events.computeIfAbsent(eventName, n -> new EventStats());
+		synchronized (stats) {
+			stats.fires++;
+			stats.listenerCount = listenerCount;
+		}
+	}
+
+	/**
+	 * Records the time taken by one listener to handle an event.
+	 *
+	 * @param eventName
+	 *            The name of the event.
+	 * @param listener
+	 *            The listener.
+	 * @param nanos
+	 *            The time taken by the listener, in nanoseconds.
+	 */
+	void recordListener(final String eventName, final Object listener, final long nanos) {
+		final String listenerName = getListenerName(listener);
+		final ListenerStats stats = listeners.computeIfAbsent(eventName + " -> " + listenerName,
+				n -> new ListenerStats(eventName, listenerName));
+		synchronized (stats) {
+			stats.calls++;
+			stats.totalNanos += nanos;
+			stats.maxNanos = Math.max(stats.maxNanos, nanos);
+		}
+
+		final Map<String, long[]> interval = intervals.get();
+		if (interval != null) {
+			interval.computeIfAbsent(listenerName, n -> new long[1])[0] += nanos;
+		}
+	}
+
+	/**
+	 * Starts recording, for the current thread only, the time spent in each
+	 * listener class until {@link #endInterval()} is called. This can be used
+	 * to find out where the time went in one game step. Does nothing if
+	 * profiling is off.
+	 */
+	public void beginInterval() {
+		if (enabled) {
+			intervals.set(new HashMap<>());
+		}
+	}
+
+	/**
+	 * Stops recording the time spent in each listener class on the current
+	 * thread.
+	 *
+	 * @return The time spent in each listener class since
+	 *         {@link #beginInterval()}, in nanoseconds, with the slowest first.
+	 *         This is empty if profiling was off.
+	 */
+	public List<Map.Entry<String, Long>> endInterval() {
+		final Map<String, long[]> interval = intervals.get();
+		if (interval == null) {
+			return Collections.emptyList();
+		}
+		intervals.remove();
+
+		final List<Map.Entry<String, Long>> times = new ArrayList<>();
+		for (final Map.Entry<String, long[]> entry : interval.entrySet()) {
+			times.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()[0]));
+		}
+		times.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+		return times;
+	}
+
+	@Override
+	public String getReport() {
+		final double seconds = Math.max(1e-9, (System.nanoTime() - resetTime) / 1e9);
+		final StringBuilder report = new StringBuilder();
+
+		final List<String> eventNames = new ArrayList<>(events.keySet());
+		eventNames.sort(null);
+		report.append(String.format("%-48s %10s %10s %10s%n", "event", "fires", "fires/s", "listeners"));
+		for (final String name : eventNames) {
+			final EventStats stats = events.get(name);
+			synchronized (stats) {
+				report.append(String.format("%-48s %10d %10.1f %10d%n", name, stats.fires, stats.fires / seconds,
+						stats.listenerCount));
+			}
+		}
+
+		final List<ListenerStats> slowest = new ArrayList<>(listeners.values());
+		slowest.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+		report.append(String.format("%-48s %-28s %10s %10s %10s%n", "event", "listener", "calls", "avg us",
+				"max us"));
+		for (final ListenerStats stats : slowest.subList(0, Math.min(SLOWEST_LISTENER_COUNT, slowest.size()))) {
+			synchronized (stats) {
+				report.append(String.format("%-48s %-28s %10d %10.1f %10.1f%n", stats.eventName, stats.listenerName,
+						stats.calls, stats.totalNanos / 1e3 / stats.calls, stats.maxNanos / 1e3));
+			}
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Turns profiling on, and starts printing a report periodically.
+	 *
+	 * @param periodMillis
+	 *            The time between reports, in milliseconds.
+	 */
+	public synchronized void startReporting(final long periodMillis) {
+		stopReporting();
+		setEnabled(true);
+		reportTimer = new Timer("event-profile-report", true);
+		reportTimer.scheduleAtFixedRate(new TimerTask() {
+			@Override
+			public void run() {
+				System.out.println("Event profile:");
+				System.out.print(getReport());
+			}
+		}, periodMillis, periodMillis);
+	}
+
+	/**
+	 * Turns profiling on and starts printing reports if the
+	 * {@value #REPORT_INTERVAL_PROPERTY} system property is set to a positive
+	 * number of seconds.
+	 */
+	public void startReportingIfEnabled() {
+		final long seconds = Long.getLong(REPORT_INTERVAL_PROPERTY, 0);
+		if (seconds > 0) {
+			startReporting(TimeUnit.SECONDS.toMillis(seconds));
+		}
+	}
+
+	/**
+	 * Stops printing reports, if started. Profiling is left on.
+	 */
+	public synchronized void stopReporting() {
+		if (reportTimer != null) {
+			reportTimer.cancel();
+			reportTimer = null;
+		}
+	}
+
+	/**
+	 * Registers the profiler with the platform MBean server under
+	 * {@value #MBEAN_NAME}, so that it can be controlled through JMX. Does
+	 * nothing if it is already registered.
+	 */
+	public void registerMBean() {
+		try {
+			final ObjectName name = new ObjectName(MBEAN_NAME);
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			}
+		} catch (final JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets a readable name for a listener - its class name, without the
+	 * generated part of the name if it is a lambda.
+	 */
+	static String getListenerName(final Object listener) {
+		final String name = listener.getClass().getName();
+		final int lambda = name.indexOf("$$Lambda");
+		return lambda >= 0 ? name.substring(name.lastIndexOf('.', lambda) + 1, lambda) + " (lambda)"
+				: name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	/**
+	 * Gets the name of the method outside of the event package which called
+	 * into it, eg. the method which fired an event or added a listener.
+	 */
+	static String getCallerName() {
+		final StackTraceElement frame = getCallerFrame();
+		return frame == null ? "unknown" : getSimpleClassName(frame) + "." + frame.getMethodName();
+	}
+
+	static StackTraceElement getCallerFrame() {
+		final String eventPackage = Event.class.getName().substring(0, Event.class.getName().lastIndexOf('.') + 1);
+		for (final StackTraceElement frame : new Throwable().getStackTrace()) {
+			if (!frame.getClassName().startsWith(eventPackage)) {
+				return frame;
+			}
+		}
+		return null;
+	}
+
+	static String getSimpleClassName(final StackTraceElement frame) {
+		return frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1);
+	}
+
+	private static final class EventStats {
+		private long fires;
+		private int listenerCount;
+	}
+
+	private static final class ListenerStats {
+		private final String eventName;
+		private final String listenerName;
+		private long calls;
+		private long totalNanos;
+		private long maxNanos;
+
+		public ListenerStats(final String eventName, final String listenerName) {
+			this.eventName = eventName;
+			this.listenerName = listenerName;
+		}
+
+		public synchronized long getTotalNanos() {
+			return totalNanos;
+		}
+	}
+}
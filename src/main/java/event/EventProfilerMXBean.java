@@ -0,0 +1,37 @@
+package main.java.event;
+
+/**
+ * The management interface of the {@link EventProfiler}, so that profiling can
+ * be turned on and its results read through JMX (eg. with JConsole) while the
+ * game is running.
+ */
+public interface EventProfilerMXBean {
+	/**
+	 * Determines whether events are currently being profiled.
+	 *
+	 * @return Returns {@code true} if profiling is on; {@code false}
+	 *         otherwise.
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Turns profiling on or off.
+	 *
+	 * @param enabled
+	 *            Whether events should be profiled.
+	 */
+	public void setEnabled(boolean enabled);
+
+	/**
+	 * Gets a report of the events fired and the time taken by their listeners
+	 * since profiling was last reset.
+	 *
+	 * @return The report, as human-readable text.
+	 */
+	public String getReport();
+
+	/**
+	 * Discards everything recorded so far.
+	 */
+	public void reset();
+}
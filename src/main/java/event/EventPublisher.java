@@ -0,0 +1,298 @@
+package main.java.event;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes events to asynchronous subscribers, so that slow consumers (eg.
+ * statistics collectors, bots or recorders) do not run on the thread which
+ * fires the event. The publisher is normally added as a listener to an event,
+ * eg. {@code world.getOnEntityAddedEvent().addListener(publisher::submit)}.
+ *
+ * Every subscriber has its own bounded buffer, and receives items on the
+ * executor of the publisher as it requests them. Submitting an item never
+ * blocks: if a subscriber's buffer is full, the {@link OverflowPolicy} of the
+ * publisher decides what happens to that subscriber's items.
+ *
+ * Event arguments which are reused between firings (see
+ * {@link EventArgsPool}) must be copied before they are submitted.
+ *
+ * @param <T>
+ *            The type of item published.
+ */
+public class EventPublisher<T> implements EventFlow.Publisher<T> {
+	/**
+	 * What to do when an item is submitted while a subscriber's buffer is
+	 * full.
+	 */
+	public static enum OverflowPolicy {
+		/**
+		 * Discard the oldest buffered item to make room for the new one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Replace the newest buffered item with the new one, so that the
+		 * subscriber still receives the latest state.
+		 */
+		CONFLATE,
+
+		/**
+		 * Cancel the subscription and signal an error to the subscriber.
+		 */
+		FAIL
+	}
+
+	public static final int DEFAULT_BUFFER_SIZE = 256;
+
+	private final Executor executor;
+	private final int bufferSize;
+	private final OverflowPolicy overflowPolicy;
+	private final List<BufferedSubscription> subscriptions;
+	private volatile boolean closed;
+	private Throwable closedError;
+
+	/**
+	 * Creates a new publisher which delivers items on the common fork-join
+	 * pool, with buffers of {@value #DEFAULT_BUFFER_SIZE} items which drop
+	 * their oldest item when full.
+	 */
+	public EventPublisher() {
+		this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+	}
+
+	/**
+	 * Creates a new publisher.
+	 *
+	 * @param executor
+	 *            The executor to deliver items to subscribers on.
+	 * @param bufferSize
+	 *            The maximum number of items buffered for each subscriber.
+	 * @param overflowPolicy
+	 *            What to do when a subscriber's buffer is full.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the buffer size is not positive.
+	 */
+	public EventPublisher(final Executor executor, final int bufferSize, final OverflowPolicy overflowPolicy) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive.");
+		}
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+		this.overflowPolicy = overflowPolicy;
+		this.subscriptions = new CopyOnWriteArrayList<>();
+		this.closed = false;
+	}
+
+	@Override
+	public void subscribe(final EventFlow.Subscriber<? super T> subscriber) {
+		final BufferedSubscription subscription = new BufferedSubscription(subscriber);
+		synchronized (this) {
+			if (!closed) {
+				subscriptions.add(subscription);
+			}
+		}
+		subscriber.onSubscribe(subscription);
+		if (closed) {
+			subscription.close(closedError);
+		}
+	}
+
+	/**
+	 * Publishes an item to every subscriber. This never blocks.
+	 *
+	 * @param item
+	 *            The item to publish.
+	 * @throws IllegalStateException
+	 *             Thrown when the publisher has been closed.
+	 */
+	public void submit(final T item) {
+		if (closed) {
+			throw new IllegalStateException("Cannot submit items to a closed publisher.");
+		}
+		for (final BufferedSubscription subscription : subscriptions) {
+			subscription.offer(item);
+		}
+	}
+
+	/**
+	 * Gets the number of current subscribers.
+	 *
+	 * @return The number of subscribers.
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Closes the publisher. Each subscriber is sent
+	 * {@link EventFlow.Subscriber#onComplete()} once it has received the items
+	 * already buffered for it.
+	 */
+	public void close() {
+		closeExceptionally(null);
+	}
+
+	/**
+	 * Closes the publisher with an error, which each subscriber receives
+	 * after the items already buffered for it.
+	 *
+	 * @param error
+	 *            The error, or {@code null} to complete normally.
+	 */
+	public synchronized void closeExceptionally(final Throwable error) {
+		if (!closed) {
+			closedError = error;
+			closed = true;
+			for (final BufferedSubscription subscription : subscriptions) {
+				subscription.close(error);
+			}
+		}
+	}
+
+	/**
+	 * The buffer and demand of one subscriber. Items are delivered by a drain
+	 * task run on the executor, of which at most one is scheduled at a time,
+	 * so the subscriber is never called concurrently.
+	 */
+	private class BufferedSubscription implements EventFlow.Subscription, Runnable {
+		private final EventFlow.Subscriber<? super T> subscriber;
+		private final ArrayDeque<T> buffer;
+		private final AtomicBoolean scheduled;
+		private long demand;
+		private boolean cancelled;
+		private boolean closing;
+		private Throwable error;
+
+		public BufferedSubscription(final EventFlow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+			this.buffer = new ArrayDeque<>();
+			this.scheduled = new AtomicBoolean(false);
+		}
+
+		public void offer(final T item) {
+			synchronized (this) {
+				if (cancelled || closing) {
+					return;
+				}
+				if (buffer.size() >= bufferSize) {
+					switch (overflowPolicy) {
+					case DROP_OLDEST:
+						buffer.pollFirst();
+						break;
+					case CONFLATE:
+						buffer.pollLast();
+						break;
+					case FAIL:
+						error = new IllegalStateException("Subscriber buffer of " + bufferSize + " items overflowed.");
+						closing = true;
+						buffer.clear();
+						subscriptions.remove(this);
+						schedule();
+						return;
+					}
+				}
+				buffer.addLast(item);
+			}
+			schedule();
+		}
+
+		public void close(final Throwable error) {
+			synchronized (this) {
+				if (closing) {
+					return;
+				}
+				this.error = error;
+				closing = true;
+			}
+			schedule();
+		}
+
+		@Override
+		public void request(final long n) {
+			synchronized (this) {
+				if (n <= 0) {
+					error = new IllegalArgumentException("Requested item count must be positive.");
+					closing = true;
+					buffer.clear();
+					subscriptions.remove(this);
+				} else {
+					demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+				}
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			synchronized (this) {
+				cancelled = true;
+				buffer.clear();
+			}
+			subscriptions.remove(this);
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				executor.execute(this);
+			}
+		}
+
+		private synchronized boolean hasWork() {
+			return !cancelled && ((demand > 0 && !buffer.isEmpty()) || (closing && buffer.isEmpty()));
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					T item = null;
+					boolean terminate = false;
+					Throwable terminalError = null;
+
+					synchronized (this) {
+						if (cancelled) {
+							return;
+						} else if (demand > 0 && !buffer.isEmpty()) {
+							item = buffer.pollFirst();
+							demand--;
+						} else if (closing && buffer.isEmpty()) {
+							terminate = true;
+							terminalError = error;
+							cancelled = true;
+						} else {
+							return;
+						}
+					}
+
+					if (terminate) {
+						subscriptions.remove(this);
+						if (terminalError != null) {
+							subscriber.onError(terminalError);
+						} else {
+							subscriber.onComplete();
+						}
+						return;
+					}
+
+					try {
+						subscriber.onNext(item);
+					} catch (final RuntimeException e) {
+						cancel();
+						subscriber.onError(e);
+						return;
+					}
+				}
+			} finally {
+				scheduled.set(false);
+				if (hasWork()) {
+					schedule();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package main.java.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Finds events whose listener lists keep growing from one game to the next,
+ * which usually means that something adds a listener for every game (or every
+ * player) and never removes it. Over a long-running server these leaked
+ * listeners slowly use up memory and make every firing of the event slower.
+ *
+ * While tracking is on, every {@link Event} which has a listener added to it
+ * is remembered (weakly, so that events which are no longer used can still be
+ * garbage collected), along with the code which added each listener. At each
+ * {@link #checkpoint(String)}, normally when a new game is created, the number
+ * of listeners of each event is recorded, and any event whose listener count
+ * has grown at each of the last {@value #GROWTH_CHECKPOINTS} checkpoints is
+ * reported as a leak, listing where its listeners were added from.
+ *
+ * Tracking is off unless the {@value #ENABLED_PROPERTY} system property is set
+ * to {@code true}, or it is turned on with {@link #setTracking(boolean)}.
+ */
+public final class ListenerLeakDetector {
+	/**
+	 * The system property which turns tracking on when set to {@code true}.
+	 */
+	public static final String ENABLED_PROPERTY = "pacman.listeners.leakcheck";
+
+	/**
+	 * The number of consecutive checkpoints at which an event's listener count
+	 * must have grown for it to be reported as a leak.
+	 */
+	public static final int GROWTH_CHECKPOINTS = 3;
+
+	private static final int HISTORY_LENGTH = 8;
+	private static final ListenerLeakDetector INSTANCE = new ListenerLeakDetector();
+	private static volatile boolean tracking = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private final Map<Event<?, ?>, EventRecord> events;
+
+	private ListenerLeakDetector() {
+		events = new WeakHashMap<>();
+	}
+
+	/**
+	 * Gets the leak detector.
+	 *
+	 * @return The leak detector.
+	 */
+	public static ListenerLeakDetector getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Determines whether listeners are currently being tracked.
+	 *
+	 * @return Returns {@code true} if tracking is on; {@code false} otherwise.
+	 */
+	public static boolean isTracking() {
+		return tracking;
+	}
+
+	/**
+	 * Turns tracking on or off. Turning tracking off forgets everything which
+	 * has been tracked so far.
+	 *
+	 * @param tracking
+	 *            Whether listeners should be tracked.
+	 */
+	public void setTracking(final boolean tracking) {
+		ListenerLeakDetector.tracking = tracking;
+		if (!tracking) {
+			synchronized (this) {
+				events.clear();
+			}
+		}
+	}
+
+	/**
+	 * Records that a listener has been added to an event.
+	 *
+	 * @param event
+	 *            The event.
+	 * @param listener
+	 *            The listener which was added.
+	 */
+	synchronized void recordAdd(final Event<?, ?> event, final Object listener) {
+		final StackTraceElement frame = EventProfiler.getCallerFrame();
+		final String site = frame == null ? "unknown"
+				: EventProfiler.getSimpleClassName(frame) + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+
+		EventRecord record = events.get(event);
+		if (record == null) {
+			record = new EventRecord(site);
+			events.put(event, record);
+		}
+		record.sites.put(listener, site);
+	}
+
+	/**
+	 * Records the number of listeners of every tracked event, and finds the
+	 * events whose listener counts have kept growing. Does nothing if
+	 * tracking is off.
+	 *
+	 * @param label
+	 *            A label for the checkpoint (eg. "game 3"), to print with any
+	 *            leaks found.
+	 * @return The leaking events.
+	 */
+	public List<Leak> checkpoint(final String label) {
+		if (!tracking) {
+			return Collections.emptyList();
+		}
+
+		final List<Leak> leaks = new ArrayList<>();
+		synchronized (this) {
+			for (final Map.Entry<Event<?, ?>, EventRecord> entry : events.entrySet()) {
+				final Event<?, ?> event = entry.getKey();
+				final EventRecord record = entry.getValue();
+				final Object[] listeners = event.getListeners();
+
+				record.history.add(listeners.length);
+				if (record.history.size() > HISTORY_LENGTH) {
+					record.history.remove(0);
+				}
+
+				if (isGrowing(record.history)) {
+					final Map<String, Integer> sites = new TreeMap<>();
+					for (final Object listener : listeners) {
+						final String site = record.sites.get(listener);
+						sites.merge(site == null ? "unknown" : site, 1, Integer::sum);
+					}
+
+					final String name = event.getNameIfKnown() != null ? event.getNameIfKnown()
+							: "event first listened to by " + record.firstSite;
+					leaks.add(new Leak(name, new ArrayList<>(record.history), sites));
+				}
+			}
+		}
+
+		if (!leaks.isEmpty()) {
+			System.out.println("Possible listener leaks at " + label + ":");
+			for (final Leak leak : leaks) {
+				System.out.print(leak);
+			}
+		}
+		return leaks;
+	}
+
+	private static boolean isGrowing(final List<Integer> history) {
+		if (history.size() <= GROWTH_CHECKPOINTS) {
+			return false;
+		}
+		for (int i = history.size() - GROWTH_CHECKPOINTS; i < history.size(); i++) {
+			if (history.get(i) <= history.get(i - 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * An event whose listener count has kept growing.
+	 */
+	public static class Leak {
+		private final String eventName;
+		private final List<Integer> listenerCounts;
+		private final Map<String, Integer> sites;
+
+		public Leak(final String eventName, final List<Integer> listenerCounts, final Map<String, Integer> sites) {
+			this.eventName = eventName;
+			this.listenerCounts = listenerCounts;
+			this.sites = sites;
+		}
+
+		/**
+		 * Gets the name of the leaking event.
+		 *
+		 * @return The event name.
+		 */
+		public String getEventName() {
+			return eventName;
+		}
+
+		/**
+		 * Gets the listener counts of the event at the most recent
+		 * checkpoints, oldest first.
+		 *
+		 * @return The listener counts.
+		 */
+		public List<Integer> getListenerCounts() {
+			return listenerCounts;
+		}
+
+		/**
+		 * Gets the places the event's current listeners were added from, with
+		 * the number of listeners added from each.
+		 *
+		 * @return The number of listeners added at each site, by site.
+		 */
+		public Map<String, Integer> getSites() {
+			return sites;
+		}
+
+		@Override
+		public String toString() {
+			final StringBuilder s = new StringBuilder();
+			s.append(String.format("  %s: listeners %s%n", eventName, listenerCounts));
+			for (final Map.Entry<String, Integer> site : sites.entrySet()) {
+				s.append(String.format("    %6d added by %s%n", site.getValue(), site.getKey()));
+			}
+			return s.toString();
+		}
+	}
+
+	/**
+	 * What is known about one tracked event.
+	 */
+	private static final class EventRecord {
+		private final String firstSite;
+		private final Map<Object, String> sites;
+		private final List<Integer> history;
+
+		public EventRecord(final String firstSite) {
+			this.firstSite = firstSite;
+			this.sites = new WeakHashMap<>();
+			this.history = new ArrayList<>();
+		}
+	}
+}
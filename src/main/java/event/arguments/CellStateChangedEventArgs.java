@@ -41,4 +41,31 @@ public class CellStateChangedEventArgs {
 	public CellState getState() {
 		return state;
 	}
+
+	/**
+	 *
+	 * Reuse these arguments for another change. Arguments which are reused are
+	 * only valid while the event is being fired - see
+	 * {@link main.java.event.EventArgsPool}.
+	 *
+	 * @param changeCell
+	 * @param state
+	 * @return these arguments
+	 */
+	public CellStateChangedEventArgs set(final Cell changeCell, final CellState state) {
+		this.changeCell = changeCell;
+		this.state = state;
+		return this;
+	}
+
+	/**
+	 *
+	 * Copy these arguments, so that they can be kept after the event has been
+	 * fired
+	 *
+	 * @return a copy of these arguments
+	 */
+	public CellStateChangedEventArgs copy() {
+		return new CellStateChangedEventArgs(changeCell, state);
+	}
 }
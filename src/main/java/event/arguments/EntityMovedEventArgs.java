@@ -24,4 +24,28 @@ public class EntityMovedEventArgs {
 	public Entity getEntity() {
 		return entity;
 	}
+
+	/**
+	 * Reuses these arguments for another movement. Arguments which are
+	 * reused are only valid while the event is being fired - see
+	 * {@link main.java.event.EventArgsPool}.
+	 *
+	 * @return these arguments
+	 */
+	public EntityMovedEventArgs set(final int row, final int col, final Entity entity) {
+		this.row = row;
+		this.col = col;
+		this.entity = entity;
+		return this;
+	}
+
+	/**
+	 * Copies these arguments, so that they can be kept after the event has
+	 * been fired.
+	 *
+	 * @return a copy of these arguments
+	 */
+	public EntityMovedEventArgs copy() {
+		return new EntityMovedEventArgs(row, col, entity);
+	}
 }
@@ -27,4 +27,28 @@ public class PlayerCooldownChangedEventArgs {
     public Player getPlayer() {
         return player;
     }
+
+    /**
+     * Reuses these arguments for another change. Arguments which are reused
+     * are only valid while the event is being fired - see
+     * {@link main.java.event.EventArgsPool}.
+     *
+     * @return these arguments
+     */
+    public PlayerCooldownChangedEventArgs set(Player player, int cooldownLevel, char slot) {
+        this.player = player;
+        this.cooldownLevel = cooldownLevel;
+        this.slot = slot;
+        return this;
+    }
+
+    /**
+     * Copies these arguments, so that they can be kept after the event has
+     * been fired.
+     *
+     * @return a copy of these arguments
+     */
+    public PlayerCooldownChangedEventArgs copy() {
+        return new PlayerCooldownChangedEventArgs(player, cooldownLevel, slot);
+    }
 }
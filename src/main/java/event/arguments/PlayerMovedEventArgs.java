@@ -13,4 +13,22 @@ public class PlayerMovedEventArgs extends EntityMovedEventArgs {
 	public double getAngle() {
 		return angle;
 	}
+
+	/**
+	 * Reuses these arguments for another movement. Arguments which are
+	 * reused are only valid while the event is being fired - see
+	 * {@link main.java.event.EventArgsPool}.
+	 *
+	 * @return these arguments
+	 */
+	public PlayerMovedEventArgs set(final int row, final int col, final double angle, final Player player) {
+		set(row, col, player);
+		this.angle = angle;
+		return this;
+	}
+
+	@Override
+	public PlayerMovedEventArgs copy() {
+		return new PlayerMovedEventArgs(getRow(), getCol(), angle, (Player) getEntity());
+	}
 }
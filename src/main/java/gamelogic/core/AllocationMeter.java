@@ -0,0 +1,132 @@
+package main.java.gamelogic.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the number of bytes allocated on the heap by the current thread
+ * during each game step, so that a change which makes the game step allocate
+ * again is noticed. Once the game has warmed up, a game step should allocate
+ * nothing but the snapshot of the world it publishes, which only copies what
+ * changed during the step.
+ *
+ * Measuring relies on the HotSpot extension of the thread management bean;
+ * where it is not available, nothing is measured and every step is recorded
+ * as allocating nothing.
+ */
+public class AllocationMeter {
+	private static final com.sun.management.ThreadMXBean THREADS = getThreadBean();
+
+	private long start;
+	private long lastBytes;
+	private long maxBytes;
+	private long totalBytes;
+	private long steps;
+
+	/**
+	 * Creates a new meter with no steps measured.
+	 */
+	public AllocationMeter() {
+		reset();
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+			try {
+				if (hotSpotBean.isThreadAllocatedMemorySupported()) {
+					hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+					return hotSpotBean;
+				}
+			} catch (final UnsupportedOperationException e) {
+				// fall through to not measuring
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determines whether allocations can be measured on this JVM.
+	 *
+	 * @return Returns {@code true} if allocations are measured;
+	 *         {@code false} if every step is recorded as allocating nothing.
+	 */
+	public static boolean isSupported() {
+		return THREADS != null;
+	}
+
+	/**
+	 * Gets the total number of bytes allocated by the current thread so far.
+	 */
+	private static long allocatedBytes() {
+		return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Starts measuring a game step. The step must end on the same thread.
+	 */
+	public void begin() {
+		start = allocatedBytes();
+	}
+
+	/**
+	 * Finishes measuring a game step.
+	 *
+	 * @return The number of bytes allocated since {@link #begin()} was called.
+	 */
+	public synchronized long end() {
+		final long bytes = Math.max(0, allocatedBytes() - start);
+		lastBytes = bytes;
+		maxBytes = Math.max(maxBytes, bytes);
+		totalBytes += bytes;
+		steps++;
+		return bytes;
+	}
+
+	/**
+	 * Forgets all of the steps measured so far.
+	 */
+	public synchronized void reset() {
+		lastBytes = 0;
+		maxBytes = 0;
+		totalBytes = 0;
+		steps = 0;
+	}
+
+	/**
+	 * Gets the number of game steps measured.
+	 *
+	 * @return The number of steps.
+	 */
+	public synchronized long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the most recent game step.
+	 *
+	 * @return The number of bytes, or {@code 0} if no step was measured.
+	 */
+	public synchronized long getLastBytes() {
+		return lastBytes;
+	}
+
+	/**
+	 * Gets the largest number of bytes allocated by a single game step.
+	 *
+	 * @return The number of bytes, or {@code 0} if no step was measured.
+	 */
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Gets the average number of bytes allocated by a game step.
+	 *
+	 * @return The number of bytes, or {@code 0} if no step was measured.
+	 */
+	public synchronized double getAverageBytes() {
+		return steps == 0 ? 0 : (double) totalBytes / steps;
+	}
+}
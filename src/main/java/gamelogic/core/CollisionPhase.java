@@ -0,0 +1,217 @@
+package main.java.gamelogic.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import main.java.gamelogic.domain.Entity;
+import main.java.gamelogic.domain.EntityStore;
+import main.java.gamelogic.domain.Player;
+import main.java.gamelogic.domain.World;
+
+/**
+ * Finds the collisions of a game step once all of the entities have moved, in
+ * a single pass over the ghosts and the world's occupancy index, rather than
+ * after every entity moves.
+ *
+ * A player is eaten by a ghost if the two begin or end the step in the same
+ * cell, or if they swapped cells during the step and so passed through each
+ * other. An entity is killed by a laser if a laser hit it at any point in the
+ * step. Each entity is reported at most once for each cause, and players eaten
+ * by ghosts are reported before entities killed by lasers.
+ *
+ * {@link #begin(World)} must be called before the entities move, to record
+ * where each one started the step.
+ */
+class CollisionPhase {
+	private final List<Collision> collisions;
+	private final List<Player> found;
+	private final List<Player> eatenAtStart;
+	private Entity[] startEntities;
+	private int[] startRows;
+	private int[] startColumns;
+	private int startCount;
+	private int[] eatenMarks;
+	private int mark;
+
+	/**
+	 * Creates a new collision phase.
+	 */
+	public CollisionPhase() {
+		this.collisions = new ArrayList<>();
+		this.found = new ArrayList<>();
+		this.eatenAtStart = new ArrayList<>();
+		this.startEntities = new Entity[0];
+		this.startRows = new int[0];
+		this.startColumns = new int[0];
+		this.startCount = 0;
+		this.eatenMarks = new int[0];
+		this.mark = 0;
+	}
+
+	/**
+	 * Records where each entity in the world is before the entities move.
+	 *
+	 * @param world
+	 *            The world whose entities are about to move.
+	 */
+	public void begin(final World world) {
+		// entities may be moved, added or removed by the network threads
+		synchronized (world.getEntityLock()) {
+			final EntityStore store = world.getEntityStore();
+			startCount = store.size();
+			if (startEntities.length < startCount) {
+				final int capacity = Math.max(startCount, startEntities.length * 2);
+				startEntities = new Entity[capacity];
+				startRows = new int[capacity];
+				startColumns = new int[capacity];
+			}
+
+			for (int slot = 0; slot < startCount; slot++) {
+				if (store.hasFlag(slot, EntityStore.FLAG_POSITIONED)) {
+					startEntities[slot] = store.getEntity(slot);
+					startRows[slot] = store.getRow(slot);
+					startColumns[slot] = store.getColumn(slot);
+				} else {
+					startEntities[slot] = null;
+				}
+			}
+			Arrays.fill(startEntities, startCount, startEntities.length, null);
+
+			// players which are already in the same cell as a ghost, such as
+			// players which spawned under a ghost, are eaten even if one of them
+			// moves away
+			eatenAtStart.clear();
+			for (int slot = 0; slot < startCount; slot++) {
+				if (startEntities[slot] != null && store.getKind(slot) == EntityStore.KIND_GHOST) {
+					world.collectEntitiesAt(startRows[slot], startColumns[slot], Player.class, eatenAtStart);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the collisions which happened since {@link #begin(World)} was
+	 * called.
+	 *
+	 * @param world
+	 *            The world whose entities have moved.
+	 * @return The collisions, in the order in which they should be handled.
+	 *         The list is reused by the next call.
+	 */
+	public List<Collision> detect(final World world) {
+		// entities may be moved, added or removed by the network threads
+		synchronized (world.getEntityLock()) {
+			final EntityStore store = world.getEntityStore();
+			collisions.clear();
+			if (eatenMarks.length < store.size()) {
+				eatenMarks = new int[Math.max(store.size(), eatenMarks.length * 2)];
+			}
+			mark++;
+
+			for (int i = 0; i < eatenAtStart.size(); i++) {
+				addEaten(eatenAtStart.get(i));
+			}
+			eatenAtStart.clear();
+
+			for (int slot = 0; slot < store.size(); slot++) {
+				if (store.getKind(slot) != EntityStore.KIND_GHOST || !store.hasFlag(slot, EntityStore.FLAG_POSITIONED)) {
+					continue;
+				}
+				final Entity ghost = store.getEntity(slot);
+				final int row = store.getRow(slot), column = store.getColumn(slot);
+
+				// players in the same cell as the ghost
+				found.clear();
+				world.collectEntitiesAt(row, column, Player.class, found);
+				for (int i = 0; i < found.size(); i++) {
+					addEaten(found.get(i));
+				}
+
+				// players which moved from the ghost's cell into the cell the
+				// ghost came from
+				if (startedAt(ghost, slot) && (startRows[slot] != row || startColumns[slot] != column)) {
+					found.clear();
+					world.collectEntitiesAt(startRows[slot], startColumns[slot], Player.class, found);
+					for (int i = 0; i < found.size(); i++) {
+						final Player player = found.get(i);
+						final int playerSlot = player.getSlot();
+						if (startedAt(player, playerSlot) && startRows[playerSlot] == row
+								&& startColumns[playerSlot] == column) {
+							addEaten(player);
+						}
+					}
+				}
+			}
+			found.clear();
+
+			for (int slot = 0; slot < store.size(); slot++) {
+				if (store.hasFlag(slot, EntityStore.FLAG_KILLED)) {
+					collisions.add(new Collision(store.getEntity(slot), Collision.Cause.LASER));
+				}
+			}
+			return collisions;
+		}
+	}
+
+	/**
+	 * Determines whether the given entity was positioned in the given slot
+	 * when the step began.
+	 */
+	private boolean startedAt(final Entity entity, final int slot) {
+		return slot < startCount && startEntities[slot] == entity;
+	}
+
+	private void addEaten(final Player player) {
+		final int slot = player.getSlot();
+		if (slot >= 0 && slot < eatenMarks.length && eatenMarks[slot] != mark) {
+			eatenMarks[slot] = mark;
+			collisions.add(new Collision(player, Collision.Cause.EATEN));
+		}
+	}
+
+	/**
+	 * A collision which happened during a game step.
+	 */
+	public static final class Collision {
+		/**
+		 * The cause of a collision.
+		 */
+		public enum Cause {
+			/**
+			 * A player was eaten by a ghost.
+			 */
+			EATEN,
+			/**
+			 * An entity was hit by a laser.
+			 */
+			LASER
+		}
+
+		private final Entity entity;
+		private final Cause cause;
+
+		public Collision(final Entity entity, final Cause cause) {
+			this.entity = entity;
+			this.cause = cause;
+		}
+
+		/**
+		 * Gets the entity which was eaten or killed.
+		 *
+		 * @return The entity.
+		 */
+		public Entity getEntity() {
+			return entity;
+		}
+
+		/**
+		 * Gets the cause of the collision.
+		 *
+		 * @return The cause.
+		 */
+		public Cause getCause() {
+			return cause;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package main.java.gamelogic.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import main.java.gamelogic.domain.Cell;
+
+/**
+ * A summary of what has changed in a game since its display was last
+ * redrawn, so that the display only needs to redraw those parts.
+ */
+public class DisplayChanges {
+	private final Set<Integer> entityIDs;
+	private final Set<Cell> cells;
+
+	public DisplayChanges() {
+		entityIDs = new HashSet<>();
+		cells = new HashSet<>();
+	}
+
+	/**
+	 * Records that an entity has moved or turned.
+	 *
+	 * @param entityID
+	 *            The ID of the entity.
+	 */
+	void addEntity(final int entityID) {
+		entityIDs.add(entityID);
+	}
+
+	/**
+	 * Records that the state of a cell has changed.
+	 *
+	 * @param cell
+	 *            The cell which changed.
+	 */
+	void addCell(final Cell cell) {
+		cells.add(cell);
+	}
+
+	void clear() {
+		entityIDs.clear();
+		cells.clear();
+	}
+
+	/**
+	 * Determines whether an entity has moved or turned.
+	 *
+	 * @param entityID
+	 *            The ID of the entity.
+	 * @return Returns {@code true} if the entity has changed; {@code false}
+	 *         otherwise.
+	 */
+	public boolean hasEntityChanged(final int entityID) {
+		return entityIDs.contains(entityID);
+	}
+
+	/**
+	 * Gets the IDs of the entities which have moved or turned.
+	 *
+	 * @return The entity IDs.
+	 */
+	public Set<Integer> getEntityIDs() {
+		return Collections.unmodifiableSet(entityIDs);
+	}
+
+	/**
+	 * Gets the cells whose state has changed.
+	 *
+	 * @return The changed cells.
+	 */
+	public Set<Cell> getCells() {
+		return Collections.unmodifiableSet(cells);
+	}
+}
@@ -76,6 +76,9 @@ public class GameCommandService implements SingleplayerGameStartingListener, Mul
 
 		// Create new game and store it
 		final World world = new World(new RuleChecker(), map, multiplayer);
+		if (settings.isSeeded() && !multiplayer) {
+			world.setSeed(settings.getSeed());
+		}
 
 		final Game game = new Game(world, settings, 
 				multiplayer ? GameType.MULTIPLAYER_CLIENT : GameType.SINGLEPLAYER);
@@ -91,6 +94,9 @@ public class GameCommandService implements SingleplayerGameStartingListener, Mul
 		// Create new game and store it
 		Map map = mapService.getMap(settings.getMapName());
 		final World world = new World(new RuleChecker(), map, false);
+		if (settings.isSeeded()) {
+			world.setSeed(settings.getSeed());
+		}
 
 		final Game game = new Game(world, settings, GameType.MULTIPLAYER_SERVER);
 
@@ -0,0 +1,132 @@
+package main.java.gamelogic.core;
+
+import java.util.concurrent.Executor;
+
+import main.java.event.EventPublisher;
+import main.java.event.EventPublisher.OverflowPolicy;
+import main.java.event.arguments.CellStateChangedEventArgs;
+import main.java.event.arguments.EntityChangedEventArgs;
+import main.java.event.arguments.EntityMovedEventArgs;
+import main.java.event.arguments.GameEndedEventArgs;
+import main.java.event.arguments.ReadyToStartEventArgs;
+import main.java.event.listener.CellStateChangedEventListener;
+import main.java.event.listener.EntityAddedListener;
+import main.java.event.listener.EntityMovedListener;
+import main.java.event.listener.EntityRemovingListener;
+import main.java.event.listener.GameEndedListener;
+import main.java.event.listener.ReadyToStartListener;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Entity;
+import main.java.gamelogic.domain.Game;
+import main.java.gamelogic.domain.World;
+
+/**
+ * Publishes the events of a game to asynchronous subscribers, for consumers
+ * such as statistics collectors, bots, spectator feeds and recorders which
+ * must not hold up the game logic. See {@link EventPublisher}.
+ */
+public class GameEventFeed {
+	private final World world;
+	private final GameLogic logic;
+
+	private final EventPublisher<EntityChangedEventArgs> entityAdded;
+	private final EventPublisher<EntityChangedEventArgs> entityRemoving;
+	private final EventPublisher<EntityMovedEventArgs> entityMoved;
+	private final EventPublisher<CellStateChangedEventArgs> cellStateChanged;
+	private final EventPublisher<ReadyToStartEventArgs> readyToStart;
+	private final EventPublisher<GameEndedEventArgs> gameEnded;
+
+	private final EntityAddedListener entityAddedListener;
+	private final EntityRemovingListener entityRemovingListener;
+	private final EntityMovedListener entityMovedListener;
+	private final CellStateChangedEventListener cellStateChangedListener;
+	private final ReadyToStartListener readyToStartListener;
+	private final GameEndedListener gameEndedListener;
+
+	/**
+	 * Creates a feed of the events of a game, and starts publishing them.
+	 *
+	 * @param game
+	 *            The game to publish the events of.
+	 * @param logic
+	 *            The logic running the game.
+	 * @param executor
+	 *            The executor to deliver events to subscribers on.
+	 * @param bufferSize
+	 *            The maximum number of events buffered for each subscriber.
+	 * @param overflowPolicy
+	 *            What to do when a subscriber's buffer is full.
+	 */
+	public GameEventFeed(final Game game, final GameLogic logic, final Executor executor, final int bufferSize,
+			final OverflowPolicy overflowPolicy) {
+		this.world = game.getWorld();
+		this.logic = logic;
+
+		entityAdded = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+		entityRemoving = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+		entityMoved = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+		cellStateChanged = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+		readyToStart = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+		gameEnded = new EventPublisher<>(executor, bufferSize, overflowPolicy);
+
+		entityAddedListener = entityAdded::submit;
+		entityRemovingListener = entityRemoving::submit;
+		// movement and cell arguments are reused, so must be copied
+		entityMovedListener = a -> entityMoved.submit(a.copy());
+		cellStateChangedListener = a -> cellStateChanged.submit(a.copy());
+		readyToStartListener = readyToStart::submit;
+		gameEndedListener = gameEnded::submit;
+
+		world.getOnEntityAddedEvent().addListener(entityAddedListener);
+		world.getOnEntityRemovingEvent().addListener(entityRemovingListener);
+		world.getEventBus().subscribe(Entity.MOVED, entityMovedListener);
+		world.getEventBus().subscribe(Cell.STATE_CHANGED, cellStateChangedListener);
+		logic.getOnReadyToStart().addListener(readyToStartListener);
+		logic.getOnGameEnded().addListener(gameEndedListener);
+	}
+
+	/**
+	 * Stops publishing the events of the game, and completes every
+	 * subscription once the subscriber has received the events already
+	 * buffered for it.
+	 */
+	public void close() {
+		world.getOnEntityAddedEvent().removeListener(entityAddedListener);
+		world.getOnEntityRemovingEvent().removeListener(entityRemovingListener);
+		world.getEventBus().unsubscribe(Entity.MOVED, entityMovedListener);
+		world.getEventBus().unsubscribe(Cell.STATE_CHANGED, cellStateChangedListener);
+		logic.getOnReadyToStart().removeListener(readyToStartListener);
+		logic.getOnGameEnded().removeListener(gameEndedListener);
+
+		entityAdded.close();
+		entityRemoving.close();
+		entityMoved.close();
+		cellStateChanged.close();
+		readyToStart.close();
+		gameEnded.close();
+	}
+
+	public EventPublisher<EntityChangedEventArgs> getEntityAdded() {
+		return entityAdded;
+	}
+
+	public EventPublisher<EntityChangedEventArgs> getEntityRemoving() {
+		return entityRemoving;
+	}
+
+	public EventPublisher<EntityMovedEventArgs> getEntityMoved() {
+		return entityMoved;
+	}
+
+	public EventPublisher<CellStateChangedEventArgs> getCellStateChanged() {
+		return cellStateChanged;
+	}
+
+	public EventPublisher<ReadyToStartEventArgs> getReadyToStart() {
+		return readyToStart;
+	}
+
+	public EventPublisher<GameEndedEventArgs> getGameEnded() {
+		return gameEnded;
+	}
+}
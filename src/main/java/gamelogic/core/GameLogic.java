@@ -6,12 +6,16 @@ import main.java.event.arguments.GameEndedEventArgs;
 import main.java.event.arguments.LocalPlayerDespawnEventArgs;
 import main.java.event.arguments.LocalPlayerSpawnEventArgs;
 import main.java.event.arguments.ReadyToStartEventArgs;
+import main.java.event.listener.CellStateChangedEventListener;
 import main.java.event.listener.DotsEatenChangedListener;
+import main.java.event.listener.EntityMovedListener;
 import main.java.event.listener.GameDisplayInvalidatedListener;
 import main.java.event.listener.GameEndedListener;
 import main.java.event.listener.LocalPlayerDespawnListener;
 import main.java.event.listener.LocalPlayerSpawnListener;
 import main.java.event.listener.ReadyToStartListener;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Entity;
 import main.java.gamelogic.domain.Game;
 
 public abstract class GameLogic {
@@ -23,6 +27,13 @@ public abstract class GameLogic {
 	private Event<LocalPlayerDespawnListener, LocalPlayerDespawnEventArgs> onLocalPlayerDespawn;
 	private Event<ReadyToStartListener, ReadyToStartEventArgs> onReadyToStart;
 	private Event<DotsEatenChangedListener, Integer> onDotsEatenChanged;
+	private final GameDisplayInvalidatedEventArgs displayInvalidatedArgs;
+	private final Object displayChangesSync = new Object();
+	private DisplayChanges pendingDisplayChanges, takenDisplayChanges;
+	private boolean displayInvalidated;
+	private final EntityMovedListener displayEntityListener = a -> invalidateDisplay(a.getEntity().getID(), null);
+	private final CellStateChangedEventListener displayCellListener = a -> invalidateDisplay(-1, a.getChangeCell());
+	private final AllocationMeter allocationMeter = new AllocationMeter();
 	
 	public abstract void gameStep(int delay);
 
@@ -45,18 +56,97 @@ public abstract class GameLogic {
 	public Event<ReadyToStartListener, ReadyToStartEventArgs> getOnReadyToStart() {
 		return onReadyToStart;
 	}
+
+	/**
+	 * Gets the meter which measures the bytes allocated by each game step run
+	 * by a {@link GameLogicTimer}.
+	 *
+	 * @return The allocation meter.
+	 */
+	public AllocationMeter getAllocationMeter() {
+		return allocationMeter;
+	}
 	
+	/**
+	 * Marks the display as needing to be redrawn. Entity movements and cell
+	 * changes are recorded automatically; this is for other changes, such as
+	 * spawner timers.
+	 *
+	 * The display invalidated event is only fired if the display has taken
+	 * the changes since it was last fired, so there is never more than one
+	 * redraw waiting, however many changes are made before it happens.
+	 */
+	protected void invalidateDisplay() {
+		invalidateDisplay(-1, null);
+	}
+
+	private void invalidateDisplay(final int entityID, final Cell cell) {
+		if (!onGameDisplayInvalidated.hasListeners()) {
+			return;
+		}
+
+		boolean fire = false;
+		synchronized (displayChangesSync) {
+			if (entityID >= 0) {
+				pendingDisplayChanges.addEntity(entityID);
+			}
+			if (cell != null) {
+				pendingDisplayChanges.addCell(cell);
+			}
+			if (!displayInvalidated) {
+				displayInvalidated = true;
+				fire = true;
+			}
+		}
+
+		// the same arguments are used every time, as they never change
+		if (fire) {
+			onGameDisplayInvalidated.fire(displayInvalidatedArgs);
+		}
+	}
+
+	/**
+	 * Takes the changes made to the game since the changes were last taken,
+	 * and allows the display invalidated event to be fired again. This should
+	 * be called by the display when it redraws the game.
+	 *
+	 * The returned changes are only valid until this is next called, so this
+	 * should only be called by one display.
+	 *
+	 * @return The changes to redraw.
+	 */
+	public DisplayChanges takeDisplayChanges() {
+		synchronized (displayChangesSync) {
+			final DisplayChanges changes = pendingDisplayChanges;
+			takenDisplayChanges.clear();
+			pendingDisplayChanges = takenDisplayChanges;
+			takenDisplayChanges = changes;
+			displayInvalidated = false;
+			return changes;
+		}
+	}
+
 	public void readyToStart() {
 		getOnReadyToStart().fire(new ReadyToStartEventArgs(game, this));
 	}
 	
 	public GameLogic(final Game game) {
 		this.game = game;
+		displayInvalidatedArgs = new GameDisplayInvalidatedEventArgs(this);
+		pendingDisplayChanges = new DisplayChanges();
+		takenDisplayChanges = new DisplayChanges();
+		displayInvalidated = false;
 		
 		onReadyToStart = new Event<>((l, a) -> l.onReadyToStart(a));
 		onGameDisplayInvalidated = new Event<>((l, a) -> l.onGameDisplayInvalidated(a));
 		onGameEnded = new Event<>((l, a) -> l.onGameEnded(a));
 		onLocalPlayerSpawn = new Event<>((l, a) -> l.onLocalPlayerSpawn(a));
 		onLocalPlayerDespawn = new Event<>((l, a) -> l.onLocalPlayerDespawn(a));
+
+		// record what changes, so that the display only redraws that
+		if (game.getWorld() != null) {
+			game.getWorld().getEventBus().subscribe(Entity.MOVED, displayEntityListener);
+			game.getWorld().getMap().getOnCellStateChanged().addListener(displayCellListener);
+		}
 	}
 }
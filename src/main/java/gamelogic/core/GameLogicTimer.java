@@ -1,12 +1,17 @@
 package main.java.gamelogic.core;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
+import main.java.event.EventProfiler;
 import main.java.event.arguments.GameEndedEventArgs;
 import main.java.event.listener.GameEndedListener;
 
 public class GameLogicTimer {
+	private static final int WARM_UP_STEPS = 20;
 	private GameLogic gameLogic;
 	private Timer timer;
 
@@ -33,7 +38,44 @@ public class GameLogicTimer {
 
 		@Override
 		public void run() {
+			final EventProfiler profiler = EventProfiler.getInstance();
+			final AllocationMeter allocations = gameLogic.getAllocationMeter();
+			final long previousMaxBytes = allocations.getMaxBytes();
+			profiler.beginInterval();
+			allocations.begin();
+			final long start = System.nanoTime();
+
 			gameLogic.gameStep(delay);
+
+			final long elapsed = System.nanoTime() - start;
+			final long allocated = allocations.end();
+			final List<Map.Entry<String, Long>> listenerTimes = profiler.endInterval();
+			if (profiler.isEnabled()) {
+				if (elapsed > TimeUnit.MILLISECONDS.toNanos(delay)) {
+					reportOverrun(elapsed, allocated, listenerTimes);
+				}
+				// the first steps load classes and fill caches, so only the
+				// steps after that are expected not to allocate
+				if (allocated > previousMaxBytes && allocations.getSteps() > WARM_UP_STEPS) {
+					System.out.println(String.format("Game step %d allocated %d bytes, more than any step before it.",
+							allocations.getSteps(), allocated));
+				}
+			}
+		}
+
+		/**
+		 * Prints where the time went in a game step which took longer than the
+		 * interval between game steps.
+		 */
+		private void reportOverrun(final long elapsedNanos, final long allocatedBytes,
+				final List<Map.Entry<String, Long>> listenerTimes) {
+			final StringBuilder s = new StringBuilder(String.format(
+					"Game step took %.1f ms (interval %d ms) and allocated %d bytes. Time in listeners:",
+					elapsedNanos / 1e6, delay, allocatedBytes));
+			for (final Map.Entry<String, Long> time : listenerTimes) {
+				s.append(String.format("%n  %-28s %8.1f ms", time.getKey(), time.getValue() / 1e6));
+			}
+			System.out.println(s);
 		}
 
 		@Override
@@ -2,36 +2,32 @@ package main.java.gamelogic.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import main.java.constants.CellState;
 import main.java.constants.GameOutcome;
 import main.java.constants.GameOutcomeType;
 import main.java.constants.GameType;
 import main.java.event.arguments.EntityChangedEventArgs;
-import main.java.event.arguments.GameDisplayInvalidatedEventArgs;
 import main.java.event.arguments.GameEndedEventArgs;
 import main.java.event.arguments.LocalPlayerDespawnEventArgs;
 import main.java.event.arguments.LocalPlayerSpawnEventArgs;
 import main.java.event.listener.EntityAddedListener;
 import main.java.event.listener.EntityRemovingListener;
-import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.core.CollisionPhase.Collision;
 import main.java.gamelogic.domain.ControlledPlayer;
 import main.java.gamelogic.domain.Entity;
 import main.java.gamelogic.domain.Game;
-import main.java.gamelogic.domain.Ghost;
 import main.java.gamelogic.domain.LocalSkillSet;
 import main.java.gamelogic.domain.Player;
 import main.java.gamelogic.domain.Position;
-import main.java.gamelogic.domain.RemotePlayer;
-import main.java.gamelogic.domain.RuleChecker;
 import main.java.gamelogic.domain.Spawner;
 import main.java.gamelogic.domain.Spawner.SpawnerColor;
 
 public class LocalGameLogic extends GameLogic implements EntityAddedListener, EntityRemovingListener {
 	private Game game;
 	private int gameStepsElapsed = 0;
+	private final CollisionPhase collisionPhase = new CollisionPhase();
+	private final List<Spawner> spawnersToRemove = new ArrayList<>();
+	private Entity[] stepEntities = new Entity[0];
 
 	public LocalGameLogic(final Game game) {
 		super(game);
@@ -50,14 +46,14 @@ public class LocalGameLogic extends GameLogic implements EntityAddedListener, En
 		if (game.hasStarted() && !game.hasEnded()) {
 			checkEndingConditions();
 			game.getWorld().getMap().gameStep(game);
-			final HashSet<Player> eatenPlayers = new HashSet<>();
-            final HashSet<Entity> killedEntities = new HashSet<>();
+			collisionPhase.begin(game.getWorld());
 
-			for (final Entity entity : game.getWorld().getEntities()) {
+			// step through a copy of the entities, so that no iterator is
+			// created and other threads can add and remove entities meanwhile
+			stepEntities = game.getWorld().copyEntities(stepEntities);
+			for (int i = 0; i < stepEntities.length && stepEntities[i] != null; i++) {
+				final Entity entity = stepEntities[i];
 				entity.gameStep(game);
-				eatenPlayers.addAll(getEatenPlayers());
-				invalidateDisplay();
-                killedEntities.addAll(getKilledEntitiesByLaser());
 				checkEndingConditions();
 				if(entity instanceof Player){
 					((Player) entity).getSkillSet().incrementCooldown();
@@ -68,37 +64,48 @@ public class LocalGameLogic extends GameLogic implements EntityAddedListener, En
 				}
 			}
 
-			eatenPlayers.addAll(getEatenPlayers());
-            killedEntities.addAll(getKilledEntitiesByLaser());
-			for (final Player p : eatenPlayers) {
-			    if(p.getSkillSet().getW().getShieldValue() > 0) {
-			        p.getSkillSet().getW().reduceShieldValue();
-                } else {
-                    p.setDeathReason("Eaten by a ghost!");
-                    game.getWorld().removeEntity(p.getID());
-                }
-			}
-            for (final Entity e : killedEntities) {
-			    if(game.getWorld().getEntities().contains(e)) {
-			        if(e instanceof Player) {
-			            ((Player) e).setDeathReason("Killed by a laser!");
+			final List<Collision> collisions = collisionPhase.detect(game.getWorld());
+			for (int i = 0; i < collisions.size(); i++) {
+				final Collision collision = collisions.get(i);
+				final Entity e = collision.getEntity();
+				if (game.getWorld().getEntity(e.getID()) != e) {
+					continue;
+				}
+				if (collision.getCause() == Collision.Cause.EATEN) {
+					final Player p = (Player) e;
+				    if(p.getSkillSet().getW().getShieldValue() > 0) {
+				        p.getSkillSet().getW().reduceShieldValue();
+                    } else {
+                        p.setDeathReason("Eaten by a ghost!");
+                        game.getWorld().removeEntity(p.getID());
+                    }
+				} else {
+				    if(e instanceof Player) {
+				        ((Player) e).setDeathReason("Killed by a laser!");
                     }
                     game.getWorld().removeEntity(e.getID());
-                }
-            }
+				}
+			}
 
-			Set<Spawner> spawnersToRemove = new HashSet<Spawner>();
-			for(Spawner spawner : game.getWorld().getEntities(Spawner.class)) {
-				if(spawner.isExpired()) spawnersToRemove.add(spawner);
+			for (int i = 0; i < stepEntities.length && stepEntities[i] != null; i++) {
+				if (stepEntities[i] instanceof Spawner && ((Spawner) stepEntities[i]).isExpired()) {
+					spawnersToRemove.add((Spawner) stepEntities[i]);
+				}
 			}
-			for (final Spawner spawner : spawnersToRemove) {
+			for (int i = 0; i < spawnersToRemove.size(); i++) {
+				final Spawner spawner = spawnersToRemove.get(i);
+				if (game.getWorld().getEntity(spawner.getID()) != spawner) {
+					continue;
+				}
 				if (spawner.getEntity() != null) {
 					game.getWorld().addEntity(spawner.getEntity());
 				}
 				game.getWorld().removeEntity(spawner.getID());
 			}
+			spawnersToRemove.clear();
             checkEndingConditions();
             decayPlayerShields();
+			game.getWorld().publishSnapshot();
 			invalidateDisplay();
 
 
@@ -108,56 +115,25 @@ public class LocalGameLogic extends GameLogic implements EntityAddedListener, En
 
     private void decayPlayerShields() {
         if(gameStepsElapsed % 20 == 0) {
-            for(Player p : game.getWorld().getPlayers()) {
-                if(p.getSkillSet().getW().getShieldValue() > 0)
-                    p.getSkillSet().getW().reduceShieldValue();
-            }
-        }
-    }
-
-	private Set<Player> getEatenPlayers(){
-		final Set<Player> players = new HashSet<>();
-		for (final Ghost g : game.getWorld().getEntities(Ghost.class)) {
-			for (final Player p : game.getWorld().getPlayers()) {
-				if (g.getPosition().equals(p.getPosition())) {
-					players.add(p);
-				}
-			}
-		}
-		return players;
-	}
-
-	private Set<Entity> getKilledEntitiesByLaser(){
-        final Set<Entity> entities = new HashSet<>();
-        for (final Entity entity : game.getWorld().getEntities()) {
-            if(entity.getIsKilled()) {
-                entities.add(entity);
+            // the players stepped this step, skipping any removed since, so
+            // that no iterator is allocated
+            for (int i = 0; i < stepEntities.length && stepEntities[i] != null; i++) {
+                final Entity e = stepEntities[i];
+                if (e instanceof Player && game.getWorld().getEntity(e.getID()) == e) {
+                    final Player p = (Player) e;
+                    if(p.getSkillSet().getW().getShieldValue() > 0)
+                        p.getSkillSet().getW().reduceShieldValue();
+                }
             }
         }
-        return entities;
     }
 
 	private boolean ghostsEatenPlayers() {
-		for (final Spawner c : game.getWorld().getEntities(Spawner.class)) {
-			final Entity e = c.getEntity();
-			if (e != null && e instanceof Player) {
-				return false;
-			}
-		}
-		return game.getWorld().getEntities(Player.class).size() == 0;
+		return game.getWorld().getPlayers().isEmpty() && game.getWorld().getSpawningPlayerCount() == 0;
 	}
 
 	private boolean allFoodEaten() {
-		final Cell[][] cells = game.getWorld().getMap().getCells();
-		for (final Cell[] cellRow : cells) {
-			for (int j = 0; j < cells[0].length; j++) {
-				if (cellRow[j].getState().equals(CellState.FOOD)) {
-					return false;
-				}
-			}
-		}
-
-		return true;
+		return game.getWorld().getMap().getFoodCount() == 0;
 	}
 
 	private void checkEndingConditions() {
@@ -172,7 +148,6 @@ public class LocalGameLogic extends GameLogic implements EntityAddedListener, En
 					: new GameOutcome(GameOutcomeType.PLAYER_WON, winners.get(0));
 			onGameEnded(outcome);
 		}
-		invalidateDisplay();
 	}
 
 	private List<Player> getWinners() {
@@ -195,10 +170,6 @@ public class LocalGameLogic extends GameLogic implements EntityAddedListener, En
 		return winners;
 	}
 
-	private void invalidateDisplay() {
-		getOnGameDisplayInvalidated().fire(new GameDisplayInvalidatedEventArgs(this));
-	}
-
 	private void onGameEnded(final GameOutcome outcome) {
 		if (!game.hasEnded()) {
 			game.setEnded();
@@ -34,7 +34,9 @@ public class MapService {
 	public Map getMap(String mapName) {
 		if(availableMaps == null) loadMaps();
 		if(availableMaps.containsKey(mapName)) {
-			return availableMaps.get(mapName);
+			// each game changes the cells of its map, so never hand out
+			// the loaded map itself
+			return availableMaps.get(mapName).copy();
 		} else {
 			throw new IllegalArgumentException("Unknown map: " + mapName);
 		}
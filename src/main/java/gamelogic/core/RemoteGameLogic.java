@@ -1,18 +1,15 @@
 package main.java.gamelogic.core;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import main.java.constants.GameOutcome;
 import main.java.event.arguments.EntityChangedEventArgs;
-import main.java.event.arguments.EntityMovedEventArgs;
-import main.java.event.arguments.GameDisplayInvalidatedEventArgs;
 import main.java.event.arguments.GameEndedEventArgs;
 import main.java.event.arguments.LocalPlayerDespawnEventArgs;
 import main.java.event.arguments.LocalPlayerSpawnEventArgs;
 import main.java.event.arguments.RemoteGameEndedEventArgs;
 import main.java.event.listener.EntityAddedListener;
-import main.java.event.listener.EntityMovedListener;
 import main.java.event.listener.EntityRemovingListener;
 import main.java.event.listener.RemoteGameEndedListener;
 import main.java.gamelogic.domain.ControlledPlayer;
@@ -20,10 +17,11 @@ import main.java.gamelogic.domain.Entity;
 import main.java.gamelogic.domain.Game;
 import main.java.gamelogic.domain.Spawner;
 
-public class RemoteGameLogic extends GameLogic implements EntityAddedListener, EntityRemovingListener, EntityMovedListener,
+public class RemoteGameLogic extends GameLogic implements EntityAddedListener, EntityRemovingListener,
 		RemoteGameEndedListener {
 
 	private Game game;
+	private final List<Spawner> toRemove = new ArrayList<>();
 
 	public RemoteGameLogic(final Game game) {
 		super(game);
@@ -40,24 +38,23 @@ public class RemoteGameLogic extends GameLogic implements EntityAddedListener, E
 	@Override
 	public void gameStep(final int period) {
 		game.getWorld().gameStep(game);
-		Set<Integer> toRemove = new HashSet<Integer>();
-		for(Spawner spawner : game.getWorld().getEntities(Spawner.class)) {
-			if(spawner.isExpired()) toRemove.add(spawner.getID());
+		// the network thread adds and removes entities meanwhile, so this goes
+		// through the copy-on-write list of spawners rather than the store
+		for(Spawner spawner : game.getWorld().getSpawners()) {
+			if(spawner.isExpired()) toRemove.add(spawner);
 		}
-		for(int id : toRemove) {
-			game.getWorld().removeEntity(id);
+		for(int i = 0; i < toRemove.size(); i++) {
+			if(game.getWorld().getEntity(toRemove.get(i).getID()) == toRemove.get(i))
+				game.getWorld().removeEntity(toRemove.get(i).getID());
 		}
+		toRemove.clear();
+		game.getWorld().publishSnapshot();
 		invalidateDisplay();
 	}
 
-	private void invalidateDisplay() {
-		getOnGameDisplayInvalidated().fire(new GameDisplayInvalidatedEventArgs(this));
-	}
-
 	@Override
 	public void onEntityRemoving(final EntityChangedEventArgs args) {
 		Entity e = game.getWorld().getEntity(args.getEntityID());
-		e.getOnMovedEvent().removeListener(this);
 		
 		if(e instanceof ControlledPlayer) {
 			getOnLocalPlayerDespawn().fire(new LocalPlayerDespawnEventArgs(
@@ -69,17 +66,11 @@ public class RemoteGameLogic extends GameLogic implements EntityAddedListener, E
 	@Override
 	public void onEntityAdded(final EntityChangedEventArgs args) {
 		Entity e = game.getWorld().getEntity(args.getEntityID());
-		e.getOnMovedEvent().addListener(this);
 		if(e instanceof ControlledPlayer) {
 			getOnLocalPlayerSpawn().fire(new LocalPlayerSpawnEventArgs((ControlledPlayer) e));
 		}
 	}
 
-	@Override
-	public void onEntityMoved(final EntityMovedEventArgs args) {
-		invalidateDisplay();
-	}
-
 	private void onGameEnded(final GameOutcome outcome) {
 		game.setEnded();
 		getOnGameEnded().fire(new GameEndedEventArgs(this, outcome));
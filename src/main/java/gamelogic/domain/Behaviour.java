@@ -5,7 +5,6 @@ import java.util.Random;
 
 import main.java.ai.AStar;
 import main.java.ai.Target;
-import main.java.constants.CellState;
 import main.java.event.Event;
 import main.java.event.arguments.EntityMovedEventArgs;
 import main.java.event.listener.EntityMovedListener;
@@ -38,7 +37,7 @@ public abstract class Behaviour {
 	public Entity entity;
 
 	/** A random number generator. */
-	private Random rng = new Random();
+	private Random rng;
 
 	/** The locked target of the ai. */
 	protected Position lockedTarget;
@@ -46,9 +45,6 @@ public abstract class Behaviour {
 	/** The target type. Determines what kind of enemy the ai is following */
 	private Target tarType;
 
-	/** The cells. */
-	private Cell[][] cells;
-
 	/** The map size. */
 	private int mapSize;
 
@@ -79,9 +75,8 @@ public abstract class Behaviour {
 		this.world = world;
 		mapSize = this.world.getMap().getMapSize();
 		this.entity = entity;
-		cells = this.world.getMap().getCells();
 		astar = new AStar(world.getMap());
-		rng = new Random();
+		rng = world.createRandom();
 		this.type = type;
 		lastPos = entity.getPosition();
 		onEntityMoved = entity.getOnMovedEvent();
@@ -133,13 +128,13 @@ public abstract class Behaviour {
 			rowStart = row - 3;
 		}
 
+		final Map map = world.getMap();
 		for (int i = rowStart; i < rowEnd; i++) {
 			for (int j = colStart; j < colEnd; j++) {
-				int distance = manhattanDistance(entity.getPosition(), world.getMap().getCells()[i][j].getPosition());
-				if (world.getMap().getCells()[i][j].getState() == CellState.FOOD && minDistance > distance
-						&& (i != row || j != col)) {
+				int distance = Math.abs(row - i) + Math.abs(col - j);
+				if (map.hasFood(i, j) && minDistance > distance && (i != row || j != col)) {
 					minDistance = distance;
-					target = world.getMap().getCells()[i][j].getPosition();
+					target = Position.of(i, j);
 					tarType = Target.STATIONARY;
 				}
 			}
@@ -170,23 +165,24 @@ public abstract class Behaviour {
 
 		final int row = entity.getPosition().getRow();
 		final int column = entity.getPosition().getColumn();
+		final Map map = world.getMap();
 		final ArrayList<Position> availableCells = new ArrayList<Position>();
 
-		if (row > 0 && RuleChecker.checkCellValidity(cells[row - 1][column])
-				&& cells[row - 1][column].getPosition().equals(lastPos) == false) {
-			availableCells.add(new Position(row - 1, column));
+		if (row > 0 && RuleChecker.checkCellValidity(map, row - 1, column)
+				&& Position.of(row - 1, column).equals(lastPos) == false) {
+			availableCells.add(Position.of(row - 1, column));
 		}
-		if (row < mapSize - 1 && RuleChecker.checkCellValidity(cells[row + 1][column])
-				&& cells[row + 1][column].getPosition().equals(lastPos) == false) {
-			availableCells.add(new Position(row + 1, column));
+		if (row < mapSize - 1 && RuleChecker.checkCellValidity(map, row + 1, column)
+				&& Position.of(row + 1, column).equals(lastPos) == false) {
+			availableCells.add(Position.of(row + 1, column));
 		}
-		if (column > 0 && RuleChecker.checkCellValidity(cells[row][column - 1])
-				&& cells[row][column - 1].getPosition().equals(lastPos) == false) {
-			availableCells.add(new Position(row, column - 1));
+		if (column > 0 && RuleChecker.checkCellValidity(map, row, column - 1)
+				&& Position.of(row, column - 1).equals(lastPos) == false) {
+			availableCells.add(Position.of(row, column - 1));
 		}
-		if (column < mapSize - 1 && RuleChecker.checkCellValidity(cells[row][column + 1])
-				&& cells[row][column + 1].getPosition().equals(lastPos) == false) {
-			availableCells.add(new Position(row, column + 1));
+		if (column < mapSize - 1 && RuleChecker.checkCellValidity(map, row, column + 1)
+				&& Position.of(row, column + 1).equals(lastPos) == false) {
+			availableCells.add(Position.of(row, column + 1));
 		}
 		tarType = Target.RANDOM;
 		final int size = availableCells.size();
@@ -238,53 +234,31 @@ public abstract class Behaviour {
 				rowStart = row - range;
 			}
 
-			for (final Ghost g : world.getEntities(Ghost.class)) {
-				int grow = g.getPosition().getRow();
-				int gcol = g.getPosition().getColumn();
-				if ((grow <= rowEnd && grow >= rowStart) && (gcol <= colEnd && gcol >= colStart)) {
-					return true;
-				}
-			}
+			return world.hasEntityInArea(rowStart, colStart, rowEnd, colEnd, Ghost.class);
 		} else {
 
 			double angle = ((Player) entity).getAngle();
 			if (angle == 0.0) {
 
-				for (final Ghost g : world.getEntities(Ghost.class)) {
-					final int enrow = g.getPosition().getRow();
-					final int encol = g.getPosition().getColumn();
-					if (enrow == row && encol > col && encol <= (col + range)) {
-						return true;
-					}
+				if (world.hasEntityInArea(row, col + 1, row, col + range, Ghost.class)) {
+					return true;
 				}
 			}
 			if (angle == 90.0) {
 
-				for (final Ghost g : world.getEntities(Ghost.class)) {
-					final int enrow = g.getPosition().getRow();
-					final int encol = g.getPosition().getColumn();
-					if (enrow <= (row + range) && enrow > row && encol == col) {
-						return true;
-					}
+				if (world.hasEntityInArea(row + 1, col, row + range, col, Ghost.class)) {
+					return true;
 				}
 			}
 			if (angle == -90.0) {
 
-				for (final Ghost g : world.getEntities(Ghost.class)) {
-					final int enrow = g.getPosition().getRow();
-					final int encol = g.getPosition().getColumn();
-					if (enrow >= (row - range) && enrow < row && encol == col) {
-						return true;
-					}
+				if (world.hasEntityInArea(row - range, col, row - 1, col, Ghost.class)) {
+					return true;
 				}
 			}
 			if (angle == 180.0) {
-				for (final Ghost g : world.getEntities(Ghost.class)) {
-					final int enrow = g.getPosition().getRow();
-					final int encol = g.getPosition().getColumn();
-					if (enrow == row && encol < col && encol >= (col - range)) {
-						return true;
-					}
+				if (world.hasEntityInArea(row, col - range, row, col - 1, Ghost.class)) {
+					return true;
 				}
 			}
 		}
@@ -298,7 +272,7 @@ public abstract class Behaviour {
 	 *            the map
 	 */
 	public void updateMap(final Map map) {
-		cells = map.getCells();
+		mapSize = map.getMapSize();
 	}
 
 	/**
@@ -378,7 +352,7 @@ public abstract class Behaviour {
 		case STATIONARY: {
 
 			if (currentPath.size() == 0 && manhattanDistance(entity.getPosition(), lockedTarget) == 1
-					&& RuleChecker.checkCellValidity(world.getMap().getCell(lockedTarget))) {
+					&& RuleChecker.checkCellValidity(world.getMap(), lockedTarget.getRow(), lockedTarget.getColumn())) {
 
 				lockedTarget = pickTarget();
 				lastPos = entity.getPosition();
@@ -2,6 +2,9 @@ package main.java.gamelogic.domain;
 
 import main.java.constants.CellState;
 import main.java.event.Event;
+import main.java.event.EventArgsPool;
+import main.java.event.EventBus;
+import main.java.event.EventChannel;
 import main.java.event.arguments.CellStateChangedEventArgs;
 import main.java.event.listener.CellStateChangedEventListener;
 
@@ -12,15 +15,26 @@ import main.java.event.listener.CellStateChangedEventListener;
  *
  */
 public class Cell {
+	/**
+	 * The channel on which a map's event bus carries the state changes of its
+	 * cells, with the ID of the cell which changed.
+	 */
+	public static final EventChannel<CellStateChangedEventListener, CellStateChangedEventArgs> STATE_CHANGED = new EventChannel<>(
+			"cell-state-changed", (l, p) -> l.onCellStateChanged(p));
+	private static final EventArgsPool<CellStateChangedEventArgs> STATE_CHANGED_ARGS = new EventArgsPool<>(
+			() -> new CellStateChangedEventArgs(null, null));
+
 	private CellState state;
 	private Position position;
 	private boolean needsRedraw;
+	private Map map;
+	private EventBus eventBus;
+	private int id = -1;
 	private Event<CellStateChangedEventListener, CellStateChangedEventArgs> onCellStateChanged;
 
 	public Cell(final CellState state, final Position position) {
 		this.state = state;
 		this.position = position;
-		onCellStateChanged = new Event<>((l, p) -> l.onCellStateChanged(p));
 	}
 
 	public Cell(final Position position) {
@@ -47,12 +61,71 @@ public class Cell {
 	 *            the new cell state
 	 */
 	public void setState(final CellState state) {
+		final CellState previous = this.state;
 		this.state = state;
-		onCellStateChanged.fire(new CellStateChangedEventArgs(this, state));
+		if (map != null && previous != state) {
+			map.onCellStateChanged(this);
+		}
+		final boolean busListening = eventBus != null && eventBus.hasListeners(STATE_CHANGED, id);
+		if (onCellStateChanged != null || busListening) {
+			final CellStateChangedEventArgs args = STATE_CHANGED_ARGS.acquire().set(this, state);
+			try {
+				if (onCellStateChanged != null) {
+					onCellStateChanged.fire(args);
+				}
+				if (busListening) {
+					eventBus.fire(STATE_CHANGED, id, args);
+				}
+			} finally {
+				STATE_CHANGED_ARGS.release(args);
+			}
+		}
 		needsRedraw = true;
 	}
 
+	/**
+	 * Get the ID of the cell on the event bus of its map
+	 *
+	 * @return the ID, or -1 if the cell has not been added to a map
+	 */
+	public int getID() {
+		return id;
+	}
+
+	/**
+	 * Attach the cell to the map it has been added to, and to its event bus
+	 *
+	 * @param map
+	 *            the map
+	 * @param id
+	 *            the ID of the cell on the map's event bus
+	 */
+	void attach(final Map map, final int id) {
+		this.map = map;
+		this.eventBus = map.getEventBus();
+		this.id = id;
+	}
+
+	/**
+	 * Detach the cell from the map it was added to, once it has been replaced
+	 */
+	void detach() {
+		this.map = null;
+	}
+
+	/**
+	 * Fetch the cell's state changed event. Once the cell has been added to a
+	 * map, this is a view of the cell's events on the map's event bus.
+	 *
+	 * @return an event
+	 */
 	public Event<CellStateChangedEventListener, CellStateChangedEventArgs> getOnCellStateChanged() {
+		if (onCellStateChanged == null) {
+			if (eventBus != null) {
+				return eventBus.getEvent(STATE_CHANGED, id);
+			}
+			onCellStateChanged = STATE_CHANGED.createEvent();
+		}
 		return onCellStateChanged;
 	}
 	
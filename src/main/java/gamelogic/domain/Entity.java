@@ -1,6 +1,8 @@
 package main.java.gamelogic.domain;
 
 import main.java.event.Event;
+import main.java.event.EventArgsPool;
+import main.java.event.EventChannel;
 import main.java.event.arguments.EntityMovedEventArgs;
 import main.java.event.listener.EntityMovedListener;
 
@@ -12,18 +14,24 @@ import main.java.event.listener.EntityMovedListener;
  */
 
 public abstract class Entity {
+	/**
+	 * The channel on which a world's event bus carries the movements of its
+	 * entities, with the ID of the entity which moved.
+	 */
+	public static final EventChannel<EntityMovedListener, EntityMovedEventArgs> MOVED = new EventChannel<>(
+			"entity-moved", (l, p) -> l.onEntityMoved(p));
+	private static final EventArgsPool<EntityMovedEventArgs> MOVED_ARGS = new EventArgsPool<>(
+			() -> new EntityMovedEventArgs(0, 0, null));
 
 	private Position position;
 	private int id = -1;
 	private World world;
 	private boolean isKilledByLaser = false;
+	private EntityStore store;
+	private int slot = -1;
 
 	private Event<EntityMovedListener, EntityMovedEventArgs> onMoved;
 
-	public Entity() {
-		onMoved = new Event<>((l, p) -> l.onEntityMoved(p));
-	}
-
 	/**
 	 * Get the entity's position
 	 *
@@ -38,6 +46,15 @@ public abstract class Entity {
 		}
 	}
 
+	/**
+	 * Get the entity's position, if it has one
+	 *
+	 * @return a position object, or null if the position is not set
+	 */
+	Position getPositionIfSet() {
+		return position;
+	}
+
 	protected boolean canSetPosition(final Position p) {
 		return world == null || world.isOccupiable(p);
 	}
@@ -50,14 +67,52 @@ public abstract class Entity {
 	 */
 	public boolean setPosition(final Position position) {
 		if (canSetPosition(position)) {
-			this.position = position;
-			getOnMovedEvent().fire(new EntityMovedEventArgs(position.getRow(), position.getColumn(), this));
+			move(position);
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * Put the entity back where it was when a world checkpoint was taken,
+	 * without checking whether the position can be moved to
+	 *
+	 * @param position
+	 *            the position
+	 * @param isKilledByLaser
+	 *            whether the entity had been hit by a laser
+	 */
+	void restore(final Position position, final boolean isKilledByLaser) {
+		setIsKilled(isKilledByLaser);
+		if (position != null && !position.equals(this.position)) {
+			move(position);
+		}
+	}
+
+	private void move(final Position position) {
+		// the world's index must not be changed by two moves at once
+		synchronized (getStoreLock()) {
+			final Position previous = this.position;
+			this.position = position;
+			if (store != null) {
+				store.setPosition(slot, position);
+			}
+			if (world != null) {
+				world.onEntityMoved(this, previous, position);
+			}
+		}
+		if (hasMovedListeners()) {
+			final EntityMovedEventArgs args = MOVED_ARGS.acquire().set(position.getRow(), position.getColumn(),
+					this);
+			try {
+				fireMoved(args);
+			} finally {
+				MOVED_ARGS.release(args);
+			}
+		}
+	}
+
 	/**
 	 * Fetch the entity's id
 	 *
@@ -93,9 +148,61 @@ public abstract class Entity {
      *            the new isKilledByLaser
      */
     protected void setIsKilled(final boolean isKilledByLaser) {
-        this.isKilledByLaser = isKilledByLaser;
+        synchronized (getStoreLock()) {
+            this.isKilledByLaser = isKilledByLaser;
+            if (store != null) {
+                store.setFlag(slot, EntityStore.FLAG_KILLED, isKilledByLaser);
+            }
+        }
     }
 
+	/**
+	 * Fetch the entity's slot in its world's entity store
+	 *
+	 * @return the slot, or -1 if the entity is not in a store
+	 */
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Update the store holding the entity's state, and its slot in it
+	 */
+	void setStore(final EntityStore store, final int slot) {
+		this.store = store;
+		this.slot = slot;
+	}
+
+	/**
+	 * Fetch the lock to hold while writing the entity's state into its store.
+	 * Removing another entity from the store can move this entity to a
+	 * different slot, so the slot is only valid while the lock is held.
+	 *
+	 * @return the world's entity lock, or the entity itself if it is not in
+	 *         a world
+	 */
+	protected Object getStoreLock() {
+		final World world = this.world;
+		return world != null ? world.getEntityLock() : this;
+	}
+
+	/**
+	 * Fetch the store holding the entity's state
+	 *
+	 * @return the store, or null if the entity is not in a store
+	 */
+	protected EntityStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Write the entity's stored state into its slot of a store
+	 */
+	void writeTo(final EntityStore store, final int slot) {
+		store.setPosition(slot, position);
+		store.setFlag(slot, EntityStore.FLAG_KILLED, isKilledByLaser);
+	}
+
 
 	/**
 	 * Update the world
@@ -108,14 +215,47 @@ public abstract class Entity {
 	}
 
 	/**
-	 * Fetch the entity's on moved event
+	 * Fetch the entity's on moved event. Once the entity has been added to a
+	 * world, this is a view of the entity's events on the world's event bus.
 	 *
 	 * @return an event
 	 */
 	public Event<EntityMovedListener, EntityMovedEventArgs> getOnMovedEvent() {
+		if (onMoved == null) {
+			if (world != null) {
+				return world.getEventBus().getEvent(MOVED, id);
+			}
+			onMoved = MOVED.createEvent();
+		}
 		return onMoved;
 	}
 
+	/**
+	 * Determine whether anything is listening to the movements of the entity
+	 *
+	 * @return whether the on moved event has any listeners
+	 */
+	protected boolean hasMovedListeners() {
+		return (onMoved != null && onMoved.hasListeners())
+				|| (world != null && world.getEventBus().hasListeners(MOVED, id));
+	}
+
+	/**
+	 * Fire the entity's on moved event. The arguments may be reused once this
+	 * returns, so listeners which keep them must copy them.
+	 *
+	 * @param args
+	 *            the event arguments
+	 */
+	protected void fireMoved(final EntityMovedEventArgs args) {
+		if (onMoved != null) {
+			onMoved.fire(args);
+		}
+		if (world != null) {
+			world.getEventBus().fire(MOVED, id, args);
+		}
+	}
+
 	public World getWorld() {
 		return world;
 	}
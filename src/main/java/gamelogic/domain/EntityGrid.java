@@ -0,0 +1,147 @@
+package main.java.gamelogic.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An index of the entities in a world by the cell they occupy, so that the
+ * entities at or around a position can be found without looking at every
+ * entity in the world. Rows with no entities in them are skipped entirely, so
+ * a query takes time proportional to the number of occupied rows and cells it
+ * covers rather than to the number of entities in the world.
+ *
+ * Entities positioned outside of the map are kept in a separate list, which
+ * is checked by every query.
+ */
+class EntityGrid {
+	private final int size;
+	private final List<Entity>[] cells;
+	private final int[] rowCounts;
+	private final List<Entity> outside;
+
+	/**
+	 * Creates an empty index for a map of the given size.
+	 *
+	 * @param size
+	 *            The number of rows and columns in the map.
+	 */
+	@SuppressWarnings("unchecked")
+	public EntityGrid(final int size) {
+		this.size = size;
+		this.cells = (List<Entity>[]) new List<?>[size * size];
+		this.rowCounts = new int[size];
+		this.outside = new ArrayList<>(0);
+	}
+
+	/**
+	 * Adds an entity to the index at the given position.
+	 */
+	public void add(final Entity entity, final Position position) {
+		if (isInside(position.getRow(), position.getColumn())) {
+			final int index = position.getRow() * size + position.getColumn();
+			if (cells[index] == null) {
+				cells[index] = new ArrayList<>(2);
+			}
+			cells[index].add(entity);
+			rowCounts[position.getRow()]++;
+		} else {
+			outside.add(entity);
+		}
+	}
+
+	/**
+	 * Removes an entity from the index at the given position.
+	 */
+	public void remove(final Entity entity, final Position position) {
+		if (isInside(position.getRow(), position.getColumn())) {
+			final List<Entity> cell = cells[position.getRow() * size + position.getColumn()];
+			if (cell != null && cell.remove(entity)) {
+				rowCounts[position.getRow()]--;
+			}
+		} else {
+			outside.remove(entity);
+		}
+	}
+
+	/**
+	 * Adds the entities of the given type in the rectangle with the given
+	 * corners (inclusive) to a list. Parts of the rectangle outside of the map
+	 * are ignored.
+	 */
+	public <T extends Entity> void collect(final int rowStart, final int columnStart, final int rowEnd,
+			final int columnEnd, final Class<T> cls, final List<T> result) {
+		final int firstRow = Math.max(rowStart, 0), lastRow = Math.min(rowEnd, size - 1);
+		final int firstColumn = Math.max(columnStart, 0), lastColumn = Math.min(columnEnd, size - 1);
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			if (rowCounts[row] == 0) {
+				continue;
+			}
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				final List<Entity> cell = cells[row * size + column];
+				if (cell != null) {
+					addInstances(cell, cls, result);
+				}
+			}
+		}
+
+		if (!outside.isEmpty()) {
+			for (final Entity entity : outside) {
+				final Position p = entity.getPosition();
+				if (cls.isInstance(entity) && p.getRow() >= rowStart && p.getRow() <= rowEnd
+						&& p.getColumn() >= columnStart && p.getColumn() <= columnEnd) {
+					result.add(cls.cast(entity));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determines whether an entity of the given type is in the rectangle with
+	 * the given corners (inclusive), without collecting the entities.
+	 */
+	public boolean contains(final int rowStart, final int columnStart, final int rowEnd, final int columnEnd,
+			final Class<? extends Entity> cls) {
+		final int firstRow = Math.max(rowStart, 0), lastRow = Math.min(rowEnd, size - 1);
+		final int firstColumn = Math.max(columnStart, 0), lastColumn = Math.min(columnEnd, size - 1);
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			if (rowCounts[row] == 0) {
+				continue;
+			}
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				final List<Entity> cell = cells[row * size + column];
+				if (cell != null) {
+					for (int i = 0; i < cell.size(); i++) {
+						if (cls.isInstance(cell.get(i))) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+
+		for (final Entity entity : outside) {
+			final Position p = entity.getPosition();
+			if (cls.isInstance(entity) && p.getRow() >= rowStart && p.getRow() <= rowEnd
+					&& p.getColumn() >= columnStart && p.getColumn() <= columnEnd) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isInside(final int row, final int column) {
+		return row >= 0 && row < size && column >= 0 && column < size;
+	}
+
+	private static <T extends Entity> void addInstances(final List<Entity> entities, final Class<T> cls,
+			final List<T> result) {
+		for (int i = 0; i < entities.size(); i++) {
+			final Entity entity = entities.get(i);
+			if (cls.isInstance(entity)) {
+				result.add(cls.cast(entity));
+			}
+		}
+	}
+}
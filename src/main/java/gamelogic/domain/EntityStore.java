@@ -0,0 +1,178 @@
+package main.java.gamelogic.domain;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the state of the entities in a world which is read by the game's hot
+ * loops (their positions, angles, kinds and flags) in parallel primitive
+ * arrays, so that a system which looks at every entity can scan contiguous
+ * memory rather than following references from each entity to its position
+ * and fields.
+ *
+ * Each entity in the world occupies a slot; the slots are kept dense by
+ * moving the last entity into the slot of a removed entity, so slots are only
+ * stable until the next removal. The {@link Entity} objects remain the handles
+ * used by the rest of the game, and write through to their slot whenever the
+ * stored state changes.
+ *
+ * Entities are moved, added and removed by the network threads as well as by
+ * the game logic, so the store is only written, and should only be scanned,
+ * while holding the world's {@link World#getEntityLock() entity lock}.
+ */
+public class EntityStore {
+	public static final byte KIND_OTHER = 0;
+	public static final byte KIND_PLAYER = 1;
+	public static final byte KIND_GHOST = 2;
+	public static final byte KIND_SPAWNER = 3;
+
+	/** Set on slots whose entity has a position. */
+	public static final byte FLAG_POSITIONED = 1;
+	/** Set on slots whose entity has been hit by a laser. */
+	public static final byte FLAG_KILLED = 2;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Entity[] entities;
+	private int[] rows;
+	private int[] columns;
+	private double[] angles;
+	private byte[] kinds;
+	private byte[] flags;
+	private int size;
+
+	/**
+	 * Creates an empty store.
+	 */
+	public EntityStore() {
+		entities = new Entity[INITIAL_CAPACITY];
+		rows = new int[INITIAL_CAPACITY];
+		columns = new int[INITIAL_CAPACITY];
+		angles = new double[INITIAL_CAPACITY];
+		kinds = new byte[INITIAL_CAPACITY];
+		flags = new byte[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of occupied slots.
+	 *
+	 * @return The number of entities in the store.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public Entity getEntity(final int slot) {
+		return entities[slot];
+	}
+
+	public int getRow(final int slot) {
+		return rows[slot];
+	}
+
+	public int getColumn(final int slot) {
+		return columns[slot];
+	}
+
+	public double getAngle(final int slot) {
+		return angles[slot];
+	}
+
+	public byte getKind(final int slot) {
+		return kinds[slot];
+	}
+
+	/**
+	 * Determines whether the entity in a slot has all of the given flags set.
+	 *
+	 * @param slot
+	 *            The slot.
+	 * @param flag
+	 *            One or more of the {@code FLAG_} constants.
+	 * @return Whether the flags are set.
+	 */
+	public boolean hasFlag(final int slot, final byte flag) {
+		return (flags[slot] & flag) == flag;
+	}
+
+	/**
+	 * Adds an entity to the store, giving it the last slot.
+	 */
+	void add(final Entity entity) {
+		if (size == entities.length) {
+			final int capacity = size * 2;
+			entities = Arrays.copyOf(entities, capacity);
+			rows = Arrays.copyOf(rows, capacity);
+			columns = Arrays.copyOf(columns, capacity);
+			angles = Arrays.copyOf(angles, capacity);
+			kinds = Arrays.copyOf(kinds, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+		}
+
+		final int slot = size++;
+		entities[slot] = entity;
+		kinds[slot] = kindOf(entity);
+		flags[slot] = 0;
+		angles[slot] = 0;
+		entity.setStore(this, slot);
+		entity.writeTo(this, slot);
+	}
+
+	/**
+	 * Removes an entity from the store, moving the entity in the last slot
+	 * into its slot.
+	 */
+	void remove(final Entity entity) {
+		final int slot = entity.getSlot();
+		if (slot < 0 || slot >= size || entities[slot] != entity) {
+			return;
+		}
+
+		final int last = --size;
+		if (slot != last) {
+			entities[slot] = entities[last];
+			rows[slot] = rows[last];
+			columns[slot] = columns[last];
+			angles[slot] = angles[last];
+			kinds[slot] = kinds[last];
+			flags[slot] = flags[last];
+			entities[slot].setStore(this, slot);
+		}
+		entities[last] = null;
+		entity.setStore(null, -1);
+	}
+
+	void setPosition(final int slot, final Position position) {
+		if (position != null) {
+			rows[slot] = position.getRow();
+			columns[slot] = position.getColumn();
+			flags[slot] |= FLAG_POSITIONED;
+		} else {
+			flags[slot] &= ~FLAG_POSITIONED;
+		}
+	}
+
+	void setAngle(final int slot, final double angle) {
+		angles[slot] = angle;
+	}
+
+	void setFlag(final int slot, final byte flag, final boolean value) {
+		if (value) {
+			flags[slot] |= flag;
+		} else {
+			flags[slot] &= ~flag;
+		}
+	}
+
+	private static byte kindOf(final Entity entity) {
+		if (entity instanceof Player) {
+			return KIND_PLAYER;
+		} else if (entity instanceof Ghost) {
+			return KIND_GHOST;
+		} else if (entity instanceof Spawner) {
+			return KIND_SPAWNER;
+		} else {
+			return KIND_OTHER;
+		}
+	}
+}
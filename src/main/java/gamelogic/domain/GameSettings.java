@@ -15,6 +15,8 @@ public class GameSettings {
 	private boolean aiPlayer;
 	private String mapName;
 	private int ghostCount;
+	private boolean seeded;
+	private long seed;
 	
 	public GameSettings() {
 		initialPlayerLives = 3;
@@ -63,4 +65,30 @@ public class GameSettings {
 	public void setGhostCount(int ghostCount) {
 		this.ghostCount = ghostCount;
 	}
+
+	/**
+	 * Determines whether the game is seeded, in which case the same seed and
+	 * the same player inputs always give exactly the same game.
+	 *
+	 * @return whether the game is seeded
+	 */
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Seeds the game, so that every random choice made by the game logic is
+	 * made the same way each time the game is played with this seed.
+	 *
+	 * @param seed
+	 *            the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.seeded = true;
+	}
 }
@@ -1,5 +1,6 @@
 package main.java.gamelogic.domain;
 import main.java.event.Event;
+import main.java.event.EventArgsPool;
 import main.java.event.arguments.PlayerCooldownChangedEventArgs;
 import main.java.event.arguments.PlayerLaserActivatedEventArgs;
 import main.java.event.arguments.PlayerShieldActivatedEventArgs;
@@ -18,8 +19,10 @@ import main.java.event.listener.PlayerShieldRemovedListener;
  *
  */
 public class LocalSkillSet implements SkillSet {
+	private static final EventArgsPool<PlayerCooldownChangedEventArgs> COOLDOWN_CHANGED_ARGS = new EventArgsPool<>(
+			() -> new PlayerCooldownChangedEventArgs(null, 0, ' '));
 
-	private final Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> onPlayerCooldownChanged;
+	private Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> onPlayerCooldownChanged;
 	private Event<PlayerLaserActivatedListener, PlayerLaserActivatedEventArgs> onPlayerLaserActivated;
 	private Event<PlayerShieldActivatedListener, PlayerShieldActivatedEventArgs> onPlayerShieldActivated;
 	private Event<PlayerShieldRemovedListener, PlayerShieldRemovedEventArgs> onPlayerShieldRemoved;
@@ -27,30 +30,38 @@ public class LocalSkillSet implements SkillSet {
 	private Ability w;
 	// private Ability r;
 
-	public LocalSkillSet() {
-		onPlayerCooldownChanged = new Event<>((l, a) -> l.onPlayerCooldownChanged(a));
-		onPlayerLaserActivated = new Event<>((l, a) -> l.onPlayerLaserActivated(a));
-		onPlayerShieldActivated = new Event<>((l, a) -> l.onPlayerShieldActivated(a));
-		onPlayerShieldRemoved = new Event<>((l, a) -> l.onPlayerShieldRemoved(a));
-	}
+	// the events are only created when first requested, as most skill sets
+	// (eg. those of the ghosts) are never listened to
 
 	@Override
-	public Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> getOnPlayerCooldownChanged() {
+	public synchronized Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> getOnPlayerCooldownChanged() {
+		if (onPlayerCooldownChanged == null) {
+			onPlayerCooldownChanged = new Event<>((l, a) -> l.onPlayerCooldownChanged(a));
+		}
 		return onPlayerCooldownChanged;
 	}
 
 	@Override
-	public Event<PlayerLaserActivatedListener, PlayerLaserActivatedEventArgs> getOnPlayerLaserActivated() {
+	public synchronized Event<PlayerLaserActivatedListener, PlayerLaserActivatedEventArgs> getOnPlayerLaserActivated() {
+		if (onPlayerLaserActivated == null) {
+			onPlayerLaserActivated = new Event<>((l, a) -> l.onPlayerLaserActivated(a));
+		}
 		return onPlayerLaserActivated;
 	}
 
 	@Override
-	public Event<PlayerShieldActivatedListener, PlayerShieldActivatedEventArgs> getOnPlayerShieldActivated() {
+	public synchronized Event<PlayerShieldActivatedListener, PlayerShieldActivatedEventArgs> getOnPlayerShieldActivated() {
+		if (onPlayerShieldActivated == null) {
+			onPlayerShieldActivated = new Event<>((l, a) -> l.onPlayerShieldActivated(a));
+		}
 		return onPlayerShieldActivated;
 	}
 
 	@Override
-	public Event<PlayerShieldRemovedListener, PlayerShieldRemovedEventArgs> getOnPlayerShieldRemoved() {
+	public synchronized Event<PlayerShieldRemovedListener, PlayerShieldRemovedEventArgs> getOnPlayerShieldRemoved() {
+		if (onPlayerShieldRemoved == null) {
+			onPlayerShieldRemoved = new Event<>((l, a) -> l.onPlayerShieldRemoved(a));
+		}
 		return onPlayerShieldRemoved;
 	}
 
@@ -130,18 +141,33 @@ public class LocalSkillSet implements SkillSet {
 	@Override
 	public void incrementCooldown() {
 		if (getQ().incrementCooldown()) {
-			getOnPlayerCooldownChanged()
-					.fire(new PlayerCooldownChangedEventArgs(getQ().getOwner(), getQ().getCD(), 'q'));
+			fireCooldownChanged(getQ(), 'q');
 		}
 
 		if (getW().incrementCooldown()) {
-			getOnPlayerCooldownChanged()
-					.fire(new PlayerCooldownChangedEventArgs(getW().getOwner(), getW().getCD(), 'w'));
+			fireCooldownChanged(getW(), 'w');
+		}
+	}
+
+	private void fireCooldownChanged(final Ability ability, final char slot) {
+		if (onPlayerCooldownChanged != null && onPlayerCooldownChanged.hasListeners()) {
+			final PlayerCooldownChangedEventArgs args = COOLDOWN_CHANGED_ARGS.acquire().set(ability.getOwner(),
+					ability.getCD(), slot);
+			try {
+				onPlayerCooldownChanged.fire(args);
+			} finally {
+				COOLDOWN_CHANGED_ARGS.release(args);
+			}
 		}
 	}
 
 	@Override
 	public void removeShield() {
-		getOnPlayerShieldRemoved().fire(new PlayerShieldRemovedEventArgs(getW().getOwner(), getW().getShieldValue()));
+		// this is called every game step while the shield is down, so the
+		// arguments are only created if someone is listening
+		if (onPlayerShieldRemoved != null && onPlayerShieldRemoved.hasListeners()) {
+			onPlayerShieldRemoved
+					.fire(new PlayerShieldRemovedEventArgs(getW().getOwner(), getW().getShieldValue()));
+		}
 	}
 }
@@ -1,29 +1,72 @@
 package main.java.gamelogic.domain;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import main.java.constants.CellSize;
 import main.java.constants.CellState;
 import main.java.event.Event;
+import main.java.event.EventBus;
 import main.java.event.arguments.CellStateChangedEventArgs;
 import main.java.event.listener.CellStateChangedEventListener;
 import main.java.graphics.PositionVisualisation;
 
 /**
- * Represent a Pacman game map
+ * Represent a Pacman game map. The events of the map's cells, and of the
+ * entities in the world the map belongs to, are carried on the map's event
+ * bus.
+ *
+ * The state of every cell is kept in a flat array, with the obstacles and the
+ * food also kept as bit sets, so checking what is in a cell does not need the
+ * cell object at all. The {@link Cell} objects are only created when they are
+ * first fetched. The state arrays are copied on write, so copying a map does
+ * not copy them until either side changes a cell. Saving the cells to be
+ * restored later copies nothing: from then on, the map keeps a journal of the
+ * previous state of each cell which changes, and restoring undoes the changes
+ * in it.
  *
  * @author aml
  *
  */
-public class Map implements CellStateChangedEventListener {
+public class Map {
 	public static int defaultNumberOfCells = 15;
+	private static final CellState[] STATES = CellState.values();
+	private static final int[] NO_CELLS = new int[0];
+	private static final int MIN_JOURNAL_LIMIT = 1024;
+	/**
+	 * The cell states given to snapshots are split into pages of this many
+	 * cells, as a power of two, so that a snapshot only copies the pages
+	 * which changed since the previous one.
+	 */
+	static final int PAGE_BITS = 10;
+
+	private int size;
 	private Cell[][] cells;
+	private byte[] states;
+	private BitSet obstacleCells;
+	private BitSet foodCells;
+	private boolean stateShared;
 	private ArrayList<PositionVisualisation> obstacles;
-	private Event<CellStateChangedEventListener, CellStateChangedEventArgs> onCellStateChanged;
+	private final EventBus eventBus;
+	private int foodCount;
+	private int[] changedCells;
+	private int changedCellCount;
+	private boolean allCellsChanged;
+	private long cellVersion;
+	private boolean journaling;
+	private int[] journal;
+	private byte[] journalStates;
+	private int journalCount;
+	private long journalBase;
+	private final ArrayList<WeakReference<SavedCells>> savedCells = new ArrayList<>();
+	private int[] restoreMarks;
+	private int restoreMark;
 
 	public Map(final int numberOfCells) {
-		cells = new Cell[numberOfCells][numberOfCells];
-		onCellStateChanged = new Event<>((l, p) -> l.onCellStateChanged(p));
+		eventBus = new EventBus();
+		resize(numberOfCells);
 	}
 
 	public Map() {
@@ -31,16 +74,41 @@ public class Map implements CellStateChangedEventListener {
 	}
 
 	public Map(final Cell[][] cells) {
-		this.cells = cells;
-		onCellStateChanged = new Event<>((l, p) -> l.onCellStateChanged(p));
+		eventBus = new EventBus();
+		setCells(cells);
+	}
+
+	private void resize(final int numberOfCells) {
+		if (states != null) {
+			forgetJournal();
+		}
+		size = numberOfCells;
+		cells = new Cell[numberOfCells][];
+		states = new byte[numberOfCells * numberOfCells];
+		obstacleCells = new BitSet(numberOfCells * numberOfCells);
+		foodCells = new BitSet(numberOfCells * numberOfCells);
+		stateShared = false;
+		foodCount = 0;
+		changedCells = new int[16];
+		changedCellCount = 0;
+		allCellsChanged = true;
+		cellVersion++;
+		journal = NO_CELLS;
+		journalStates = new byte[0];
+		restoreMarks = null;
 	}
 
 	/**
-	 * Fetch the map's cells
+	 * Fetch the map's cells, creating any which have not been fetched yet
 	 *
 	 * @return a matrix of cells
 	 */
 	public Cell[][] getCells() {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				getCell(i, j);
+			}
+		}
 		return cells;
 	}
 
@@ -52,7 +120,20 @@ public class Map implements CellStateChangedEventListener {
 	 * @return a cell
 	 */
 	public Cell getCell(final int x, final int y) {
-		return cells[x][y];
+		if (cells[x] == null) {
+			if (y < 0 || y >= size) {
+				throw new ArrayIndexOutOfBoundsException(y);
+			}
+			cells[x] = new Cell[size];
+		}
+
+		Cell cell = cells[x][y];
+		if (cell == null) {
+			cell = new Cell(STATES[states[x * size + y]], new PositionVisualisation(x, y));
+			cells[x][y] = cell;
+			cell.attach(this, getCellID(x, y));
+		}
+		return cell;
 	}
 
 	/**
@@ -62,7 +143,43 @@ public class Map implements CellStateChangedEventListener {
 	 * @return a cell
 	 */
 	public Cell getCell(final Position p) {
-		return cells[p.getRow()][p.getColumn()];
+		return getCell(p.getRow(), p.getColumn());
+	}
+
+	/**
+	 * Fetch the state of the cell at position (x, y), without fetching the
+	 * cell
+	 *
+	 * @param x
+	 * @param y
+	 * @return the cell state
+	 */
+	public CellState getState(final int x, final int y) {
+		checkBounds(x, y);
+		return STATES[states[x * size + y]];
+	}
+
+	/**
+	 * Determine whether the cell at position (x, y) is an obstacle. Positions
+	 * outside of the map count as obstacles.
+	 *
+	 * @param x
+	 * @param y
+	 * @return whether the cell is an obstacle
+	 */
+	public boolean isObstacle(final int x, final int y) {
+		return x < 0 || x >= size || y < 0 || y >= size || obstacleCells.get(x * size + y);
+	}
+
+	/**
+	 * Determine whether the cell at position (x, y) has food on it
+	 *
+	 * @param x
+	 * @param y
+	 * @return whether the cell has food
+	 */
+	public boolean hasFood(final int x, final int y) {
+		return x >= 0 && x < size && y >= 0 && y < size && foodCells.get(x * size + y);
 	}
 
 	/**
@@ -71,7 +188,7 @@ public class Map implements CellStateChangedEventListener {
 	 * @return size as integer
 	 */
 	public int getMapSize() {
-		return cells.length;
+		return size;
 	}
 
 	/**
@@ -81,7 +198,26 @@ public class Map implements CellStateChangedEventListener {
 	 *            the new matrix of cells
 	 */
 	public void setCells(final Cell[][] cells) {
-		this.cells = cells;
+		if (this.cells != null) {
+			for (final Cell[] row : this.cells) {
+				if (row != null) {
+					for (final Cell cell : row) {
+						if (cell != null) {
+							cell.detach();
+						}
+					}
+				}
+			}
+		}
+		resize(cells.length);
+		for (int i = 0; i < size; i++) {
+			this.cells[i] = cells[i];
+			for (final Cell cell : cells[i]) {
+				if (cell != null) {
+					attach(cell);
+				}
+			}
+		}
 	}
 
 	/**
@@ -93,8 +229,392 @@ public class Map implements CellStateChangedEventListener {
 	public void addCell(final Cell cell) {
 		final int x = cell.getPosition().getRow();
 		final int y = cell.getPosition().getColumn();
+		checkBounds(x, y);
+		if (cells[x] == null) {
+			cells[x] = new Cell[size];
+		} else if (cells[x][y] != null) {
+			cells[x][y].detach();
+		}
 		cells[x][y] = cell;
-		cell.getOnCellStateChanged().addListener(this);
+		attach(cell);
+	}
+
+	private void attach(final Cell cell) {
+		final int x = cell.getPosition().getRow();
+		final int y = cell.getPosition().getColumn();
+		cell.attach(this, getCellID(x, y));
+		record(x, y, cell.getState());
+	}
+
+	private void checkBounds(final int x, final int y) {
+		if (x < 0 || x >= size || y < 0 || y >= size) {
+			throw new ArrayIndexOutOfBoundsException("Position (" + x + ", " + y + ") is outside of the map.");
+		}
+	}
+
+	/**
+	 * Record the state of the cell at position (x, y)
+	 */
+	private synchronized void record(final int x, final int y, final CellState state) {
+		final int index = x * size + y;
+		if (stateShared) {
+			states = states.clone();
+			obstacleCells = (BitSet) obstacleCells.clone();
+			foodCells = (BitSet) foodCells.clone();
+			stateShared = false;
+		}
+		if (!allCellsChanged) {
+			if (changedCellCount == states.length) {
+				// more changes than cells - just report every cell
+				allCellsChanged = true;
+			} else {
+				if (changedCellCount == changedCells.length) {
+					changedCells = Arrays.copyOf(changedCells, Math.min(changedCellCount * 2, states.length));
+				}
+				changedCells[changedCellCount++] = Position.pack(x, y);
+			}
+		}
+		cellVersion++;
+		if (journaling) {
+			journal(index, states[index]);
+		}
+		if (STATES[states[index]] == CellState.FOOD) {
+			foodCount--;
+		}
+		if (state == CellState.FOOD) {
+			foodCount++;
+		}
+		states[index] = (byte) state.ordinal();
+		obstacleCells.set(index, state == CellState.OBSTACLE);
+		foodCells.set(index, state == CellState.FOOD);
+	}
+
+	/**
+	 * Get the number of times a cell of the map has changed state, so that
+	 * anything worked out from the states of the cells can tell when it is out
+	 * of date
+	 *
+	 * @return the cell version
+	 */
+	public synchronized long getCellVersion() {
+		return cellVersion;
+	}
+
+	/**
+	 * Copy the states of all of the cells, as the ordinals of their
+	 * {@link CellState}s indexed by {@code row * size + column}
+	 *
+	 * @return the cell states
+	 */
+	public synchronized byte[] copyStates() {
+		return states.clone();
+	}
+
+	/**
+	 * Save the states of the cells, so that they can be restored later. This
+	 * copies nothing; it only marks the point in the journal of changes to
+	 * undo back to.
+	 *
+	 * @return the saved states
+	 */
+	synchronized SavedCells saveCells() {
+		journaling = true;
+		final SavedCells saved = new SavedCells(size, journalBase + journalCount);
+		savedCells.removeIf(r -> r.get() == null);
+		savedCells.add(new WeakReference<>(saved));
+		return saved;
+	}
+
+	/**
+	 * Add the previous state of a changed cell to the journal which saved
+	 * cells are restored from. If the journal grows past a few times the
+	 * number of cells, it is emptied; so that the cells saved before then can
+	 * still be restored, their states are worked out from the journal first.
+	 * This copies the states at most once for every few times the number of
+	 * cells changes, so it costs a constant amount per change.
+	 */
+	private void journal(final int index, final byte previousState) {
+		if (journalCount == journal.length) {
+			final int limit = Math.max(MIN_JOURNAL_LIMIT, states.length * 4);
+			if (journalCount >= limit) {
+				forgetJournal();
+			} else {
+				final int capacity = Math.min(Math.max(16, journalCount * 2), limit);
+				journal = Arrays.copyOf(journal, capacity);
+				journalStates = Arrays.copyOf(journalStates, capacity);
+			}
+		}
+		journal[journalCount] = index;
+		journalStates[journalCount] = previousState;
+		journalCount++;
+	}
+
+	/**
+	 * Empty the journal, first working out the states of any saved cells
+	 * which are still reachable and would need it to be restored.
+	 */
+	private void forgetJournal() {
+		for (final WeakReference<SavedCells> reference : savedCells) {
+			final SavedCells saved = reference.get();
+			if (saved != null && saved.states == null && saved.size == size && saved.journalMark >= journalBase) {
+				saved.states = statesAt(saved.journalMark);
+			}
+		}
+		savedCells.clear();
+		journalBase += journalCount;
+		journalCount = 0;
+	}
+
+	/**
+	 * Work out the states the cells had at a point in the journal, by undoing
+	 * the changes journalled since on a copy of the current states.
+	 */
+	private byte[] statesAt(final long journalMark) {
+		final byte[] result = states.clone();
+		for (int i = journalCount - 1; i >= journalMark - journalBase; i--) {
+			result[journal[i]] = journalStates[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Restore the states of the cells to saved states. Only the cells which
+	 * have changed since are set, and they fire their state changed events as
+	 * usual. Each cell changed since the cells were saved is set to the state
+	 * it had before its first change in the journal, so this takes time in
+	 * proportion to the number of changes rather than the size of the map.
+	 *
+	 * @param saved
+	 *            the saved states
+	 * @throws IllegalArgumentException
+	 *             Thrown when the states were saved from a map of a different
+	 *             size.
+	 */
+	void restoreCells(final SavedCells saved) {
+		final byte[] savedStates;
+		int[] changed = null;
+		byte[] previousStates = null;
+		int changedCount = 0;
+		synchronized (this) {
+			if (saved.size != size) {
+				throw new IllegalArgumentException("Saved cells are for a map of a different size.");
+			}
+			savedStates = saved.states;
+			if (savedStates == null) {
+				// find the first change to each cell since the cells were saved
+				final int from = (int) (saved.journalMark - journalBase);
+				changed = new int[journalCount - from];
+				previousStates = new byte[journalCount - from];
+				if (restoreMarks == null) {
+					restoreMarks = new int[states.length];
+				}
+				restoreMark++;
+				for (int i = from; i < journalCount; i++) {
+					if (restoreMarks[journal[i]] != restoreMark) {
+						restoreMarks[journal[i]] = restoreMark;
+						changed[changedCount] = journal[i];
+						previousStates[changedCount] = journalStates[i];
+						changedCount++;
+					}
+				}
+			}
+		}
+
+		if (savedStates == null) {
+			for (int i = 0; i < changedCount; i++) {
+				restoreCell(changed[i], previousStates[i]);
+			}
+		} else {
+			// the journal was emptied since the cells were saved
+			for (int index = 0; index < savedStates.length; index++) {
+				restoreCell(index, savedStates[index]);
+			}
+		}
+	}
+
+	private void restoreCell(final int index, final byte savedState) {
+		final byte state;
+		synchronized (this) {
+			state = states[index];
+		}
+		if (state != savedState) {
+			final int x = index / size, y = index % size;
+			final CellState restored = STATES[savedState];
+			if (cells[x] != null && cells[x][y] != null) {
+				cells[x][y].setState(restored);
+			} else {
+				record(x, y, restored);
+			}
+		}
+	}
+
+	/**
+	 * Take the positions of the cells which have changed state since this was
+	 * last called, packed as by {@link Position#pack(int, int)}
+	 *
+	 * @return the packed positions, which may repeat; every cell is reported
+	 *         after the map is resized, or if more cells changed than there
+	 *         are cells on the map. The array must not be modified, as the
+	 *         same empty array is returned whenever no cell changed
+	 */
+	public synchronized int[] takeChangedCells() {
+		final int[] changed;
+		if (allCellsChanged) {
+			changed = new int[states.length];
+			for (int i = 0; i < changed.length; i++) {
+				changed[i] = Position.pack(i / size, i % size);
+			}
+		} else if (changedCellCount == 0) {
+			changed = NO_CELLS;
+		} else {
+			changed = Arrays.copyOf(changedCells, changedCellCount);
+		}
+		changedCellCount = 0;
+		allCellsChanged = false;
+		return changed;
+	}
+
+	/**
+	 * Keep the recorded cell states up to date as a cell of the map changes
+	 * state
+	 *
+	 * @param cell
+	 *            the cell which changed
+	 */
+	void onCellStateChanged(final Cell cell) {
+		record(cell.getPosition().getRow(), cell.getPosition().getColumn(), cell.getState());
+	}
+
+	/**
+	 * Get the number of cells on the map which still have food on them. This
+	 * is kept up to date as cells change state, so does not scan the map.
+	 *
+	 * @return the amount of food left
+	 */
+	public int getFoodCount() {
+		return foodCount;
+	}
+
+	/**
+	 * Get the ID of the cell at position (x, y) on the map's event bus
+	 *
+	 * @param x
+	 * @param y
+	 * @return the cell ID
+	 */
+	public int getCellID(final int x, final int y) {
+		return x * size + y;
+	}
+
+	/**
+	 * Fetch the map's event bus
+	 *
+	 * @return the event bus
+	 */
+	public EventBus getEventBus() {
+		return eventBus;
+	}
+
+	/**
+	 * Create a copy of this map, with new cells in the same states, so that
+	 * changes to the cells of one map do not affect the other
+	 *
+	 * @return a new map object
+	 */
+	public Map copy() {
+		final Map m = new Map(size);
+		synchronized (this) {
+			stateShared = true;
+			m.states = states;
+			m.obstacleCells = obstacleCells;
+			m.foodCells = foodCells;
+			m.foodCount = foodCount;
+		}
+		m.stateShared = true;
+		return m;
+	}
+
+	/**
+	 * Take the changes to the cells since they were last taken, together with
+	 * the version and the states they lead to, so that no cell can change
+	 * between reading the changed cells and reading the states. The states are
+	 * given as pages of {@code 1 << PAGE_BITS} cells, which are never changed
+	 * once given out; the pages in which no cell changed are shared with the
+	 * previous pages, so only the changed pages are copied.
+	 *
+	 * @param previousVersion
+	 *            the cell version when the changes were last taken
+	 * @param previousSize
+	 *            the size of the map when the changes were last taken
+	 * @param previousPages
+	 *            the pages of states given when the changes were last taken
+	 * @return the changes, or null if no cell has changed since
+	 */
+	synchronized CellChanges takeCellChanges(final long previousVersion, final int previousSize,
+			final byte[][] previousPages) {
+		if (cellVersion == previousVersion && changedCellCount == 0 && !allCellsChanged) {
+			return null;
+		}
+
+		final byte[][] pages;
+		if (allCellsChanged || previousSize != size) {
+			pages = new byte[(states.length + (1 << PAGE_BITS) - 1) >> PAGE_BITS][];
+			for (int page = 0; page < pages.length; page++) {
+				pages[page] = copyPage(page);
+			}
+		} else if (changedCellCount == 0) {
+			pages = previousPages;
+		} else {
+			pages = previousPages.clone();
+			for (int i = 0; i < changedCellCount; i++) {
+				final int packed = changedCells[i];
+				final int page = (Position.unpackRow(packed) * size + Position.unpackColumn(packed)) >> PAGE_BITS;
+				if (pages[page] == previousPages[page]) {
+					pages[page] = copyPage(page);
+				}
+			}
+		}
+
+		final int[] changed = takeChangedCells();
+		return new CellChanges(cellVersion, size, pages, changed);
+	}
+
+	private byte[] copyPage(final int page) {
+		final int from = page << PAGE_BITS;
+		return Arrays.copyOfRange(states, from, Math.min(from + (1 << PAGE_BITS), states.length));
+	}
+
+	/**
+	 * The changes to the cells of a map, with the states they lead to.
+	 */
+	static final class CellChanges {
+		final long version;
+		final int size;
+		final byte[][] pages;
+		final int[] changedCells;
+
+		private CellChanges(final long version, final int size, final byte[][] pages, final int[] changedCells) {
+			this.version = version;
+			this.size = size;
+			this.pages = pages;
+			this.changedCells = changedCells;
+		}
+	}
+
+	/**
+	 * The states of the cells of a map, saved so that they can be restored.
+	 * This is only a point in the map's journal of changes, until the journal
+	 * is emptied and the states at that point are worked out.
+	 */
+	static final class SavedCells {
+		private final int size;
+		private final long journalMark;
+		private byte[] states;
+
+		private SavedCells(final int size, final long journalMark) {
+			this.size = size;
+			this.journalMark = journalMark;
+		}
 	}
 
 	/**
@@ -207,12 +727,12 @@ public class Map implements CellStateChangedEventListener {
 		obstacles.add(new PositionVisualisation(4, 7));
 	}
 
-	@Override
-	public void onCellStateChanged(final CellStateChangedEventArgs args) {
-		onCellStateChanged.fire(args);
-	}
-
+	/**
+	 * Fetch the event fired when the state of any cell on the map changes
+	 *
+	 * @return an event
+	 */
 	public Event<CellStateChangedEventListener, CellStateChangedEventArgs> getOnCellStateChanged() {
-		return onCellStateChanged;
+		return eventBus.getEvent(Cell.STATE_CHANGED);
 	}
 }
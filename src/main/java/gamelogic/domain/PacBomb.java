@@ -48,12 +48,8 @@ public class PacBomb extends Ability {
 		}
 
 
-		for (final Entity entity : world.getEntities()) {
-			final int enrow = entity.getPosition().getRow();
-			final int encol = entity.getPosition().getColumn();
-			if (enrow >= rowstart && enrow <= rowend && encol >= colstart && encol <= colend) {
-				world.removeEntity(entity.getID());
-			}
+		for (final Entity entity : world.getEntitiesInArea(rowstart, colstart, rowend, colend, Entity.class)) {
+			world.removeEntity(entity.getID());
 		}
 	}
 
@@ -1,6 +1,6 @@
 package main.java.gamelogic.domain;
 
-import java.util.Collection;
+import java.util.List;
 
 /**
  * The PacLaser skill. Shoots 4 lasers out of the pacman, one in each direction, 
@@ -40,55 +40,25 @@ public class PacLaser extends Ability {
 	private void shoot(){
         final World world = owner.getWorld();
 
-        final Collection<Entity> entities = world.getEntities();
-
         final int row = owner.getPosition().getRow();
         final int col = owner.getPosition().getColumn();
         final double angle = owner.getAngle();
 
+        final List<Entity> hit;
         if(angle == 0.0){
-
-            for(Entity entity:entities){
-                final int enrow = entity.getPosition().getRow();
-                final int encol = entity.getPosition().getColumn();
-                if(enrow==row && encol>col){
-                    entity.setIsKilled(true);
-                }
-            }
+            hit = world.getEntitiesInRow(row, col + 1, Integer.MAX_VALUE, Entity.class);
+        } else if(angle == 90.0){
+            hit = world.getEntitiesInColumn(col, row + 1, Integer.MAX_VALUE, Entity.class);
+        } else if(angle == -90.0){
+            hit = world.getEntitiesInColumn(col, Integer.MIN_VALUE, row - 1, Entity.class);
+        } else if(angle == 180.0){
+            hit = world.getEntitiesInRow(row, Integer.MIN_VALUE, col - 1, Entity.class);
+        } else {
             return;
-
         }
-        if(angle == 90.0){
 
-            for(Entity entity:entities){
-                final int enrow = entity.getPosition().getRow();
-                final int encol = entity.getPosition().getColumn();
-                if(enrow>row && encol==col){
-                    entity.setIsKilled(true);
-                }
-            }
-            return;
-        }
-        if(angle == -90.0){
-
-            for(Entity entity:entities){
-                final int enrow = entity.getPosition().getRow();
-                final int encol = entity.getPosition().getColumn();
-                if(enrow<row && encol==col){
-                    entity.setIsKilled(true);
-                }
-            }
-            return;
-        }
-        if(angle == 180.0){
-            for(Entity entity:entities){
-                final int enrow = entity.getPosition().getRow();
-                final int encol = entity.getPosition().getColumn();
-                if(enrow==row && encol<col){
-                    entity.setIsKilled(true);
-                }
-            }
-            return;
+        for(Entity entity:hit){
+            entity.setIsKilled(true);
         }
     }
 
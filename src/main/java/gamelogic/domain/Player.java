@@ -1,6 +1,7 @@
 package main.java.gamelogic.domain;
 
 import main.java.constants.CellState;
+import main.java.event.EventArgsPool;
 import main.java.event.arguments.PlayerMovedEventArgs;
 
 /**
@@ -12,6 +13,10 @@ import main.java.event.arguments.PlayerMovedEventArgs;
  */
 public abstract class Player extends Entity {
 	
+	/** The reusable arguments of the on moved events fired when turning. */
+	private static final EventArgsPool<PlayerMovedEventArgs> MOVED_ARGS = new EventArgsPool<>(
+			() -> new PlayerMovedEventArgs(0, 0, 0, null));
+
 	/** The death reason. */
 	private String deathReason;
 	
@@ -114,9 +119,27 @@ public abstract class Player extends Entity {
 	 * @param angle            the new angle
 	 */
 	public void setAngle(final double angle) {
-		this.angle = angle;
-		getOnMovedEvent()
-				.fire(new PlayerMovedEventArgs(getPosition().getRow(), getPosition().getColumn(), angle, this));
+		synchronized (getStoreLock()) {
+			this.angle = angle;
+			if (getStore() != null) {
+				getStore().setAngle(getSlot(), angle);
+			}
+		}
+		if (hasMovedListeners()) {
+			final PlayerMovedEventArgs args = MOVED_ARGS.acquire().set(getPosition().getRow(),
+					getPosition().getColumn(), angle, this);
+			try {
+				fireMoved(args);
+			} finally {
+				MOVED_ARGS.release(args);
+			}
+		}
+	}
+
+	@Override
+	void writeTo(final EntityStore store, final int slot) {
+		super.writeTo(store, slot);
+		store.setAngle(slot, angle);
 	}
 
 	/* (non-Javadoc)
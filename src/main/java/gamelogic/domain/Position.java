@@ -1,17 +1,26 @@
 package main.java.gamelogic.domain;
 
 /**
- * Represent a position given by a row and a column.
+ * Represent a position given by a row and a column. Positions are immutable,
+ * so the positions of the cells of a map are shared through {@link #of(int, int)}
+ * rather than allocated on every move, and a position can also be packed into
+ * a single {@code int} for code which would rather not use objects at all.
  *
  * @author aml
  */
 public class Position {
-	
+
+	/** The number of rows and columns of positions kept by {@link #of(int, int)}. */
+	private static final int CACHE_SIZE = 128;
+
+	/** The shared positions, created as they are first asked for. */
+	private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
 	/** The row. */
-	private int row;
-	
+	private final int row;
+
 	/** The column. */
-	private int column;
+	private final int column;
 
 	/**
 	 * Instantiates a new position.
@@ -24,6 +33,82 @@ public class Position {
 		this.column = column;
 	}
 
+	/**
+	 * Gets the position with the given row and column. The positions of the
+	 * cells of any map up to {@value #CACHE_SIZE} cells across are shared, so
+	 * this allocates nothing for them.
+	 *
+	 * @param row the row
+	 * @param column the column
+	 * @return the position
+	 */
+	public static Position of(final int row, final int column) {
+		if (row < 0 || row >= CACHE_SIZE || column < 0 || column >= CACHE_SIZE) {
+			return new Position(row, column);
+		}
+
+		final int index = row * CACHE_SIZE + column;
+		Position position = CACHE[index];
+		if (position == null) {
+			// positions are immutable, so racing to create one is harmless
+			position = new Position(row, column);
+			CACHE[index] = position;
+		}
+		return position;
+	}
+
+	/**
+	 * Packs a row and a column into a single int. Rows and columns between
+	 * -32768 and 32767 are supported.
+	 *
+	 * @param row the row
+	 * @param column the column
+	 * @return the packed position
+	 */
+	public static int pack(final int row, final int column) {
+		return row << 16 | column & 0xFFFF;
+	}
+
+	/**
+	 * Gets the row of a packed position.
+	 *
+	 * @param packed the packed position
+	 * @return the row
+	 */
+	public static int unpackRow(final int packed) {
+		return packed >> 16;
+	}
+
+	/**
+	 * Gets the column of a packed position.
+	 *
+	 * @param packed the packed position
+	 * @return the column
+	 */
+	public static int unpackColumn(final int packed) {
+		return (short) packed;
+	}
+
+	/**
+	 * Gets the position of a packed position.
+	 *
+	 * @param packed the packed position
+	 * @return the position
+	 */
+	public static Position unpack(final int packed) {
+		return of(unpackRow(packed), unpackColumn(packed));
+	}
+
+	/**
+	 * Packs this position into a single int.
+	 *
+	 * @return the packed position
+	 * @see #pack(int, int)
+	 */
+	public int pack() {
+		return pack(row, column);
+	}
+
 	/**
 	 * Fetch the row.
 	 *
@@ -43,18 +128,18 @@ public class Position {
 	}
 
 	/**
-	 * Creates aa new Position object with this position and the position
+	 * Gets the position of this position and the position
 	 * {@code p} added together like vectors.
 	 *
 	 * @param p the p
 	 * @return the position
 	 */
 	public Position add(final Position p) {
-		return new Position(row + p.row, column + p.column);
+		return of(row + p.row, column + p.column);
 	}
 
 	/**
-	 * Creates a new Position object with this position and the position
+	 * Gets the position of this position and the position
 	 * {@code (row, column)} added like vectors.
 	 *
 	 * @param row the row
@@ -62,7 +147,7 @@ public class Position {
 	 * @return the position
 	 */
 	public Position add(final int row, final int column) {
-		return new Position(this.row + row, this.column + column);
+		return of(this.row + row, this.column + column);
 	}
 
 	/* (non-Javadoc)
@@ -79,6 +164,14 @@ public class Position {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return pack();
+	}
+
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
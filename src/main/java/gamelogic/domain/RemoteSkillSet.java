@@ -41,11 +41,7 @@ public class RemoteSkillSet implements SkillSet {
 	 */
 	public RemoteSkillSet(Player owner) {
 		this.owner = owner;
-		onPlayerAbilityUsed = new Event<>((l, a) -> l.onPlayerAbilityUsed(a));
-		onPlayerCooldownChanged = new Event<>((l, a) -> l.onPlayerCooldownChanged(a));
-		onPlayerLaserActivated = new Event<>((l, a) -> l.onPlayerLaserActivated(a));
-        onPlayerShieldActivated = new Event<>((l, a) -> l.onPlayerShieldActivated(a));
-        onPlayerShieldRemoved = new Event<>((l, a) -> l.onPlayerShieldRemoved(a));
+		// the events are only created when first requested
 	}
 
 
@@ -53,7 +49,10 @@ public class RemoteSkillSet implements SkillSet {
 	 * @see main.java.gamelogic.domain.SkillSet#getOnPlayerCooldownChanged()
 	 */
 	@Override
-	public Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> getOnPlayerCooldownChanged() {
+	public synchronized Event<PlayerCooldownChangedListener, PlayerCooldownChangedEventArgs> getOnPlayerCooldownChanged() {
+		if (onPlayerCooldownChanged == null) {
+			onPlayerCooldownChanged = new Event<>((l, a) -> l.onPlayerCooldownChanged(a));
+		}
 		return onPlayerCooldownChanged;
 	}
 
@@ -62,7 +61,7 @@ public class RemoteSkillSet implements SkillSet {
 	 */
 	@Override
 	public void activateQ() {
-	    onPlayerAbilityUsed.fire(new PlayerAbilityUsedEventArgs(owner, 'q'));
+	    getOnPlayerAbilityUsed().fire(new PlayerAbilityUsedEventArgs(owner, 'q'));
 	}
 
 	/**
@@ -70,7 +69,7 @@ public class RemoteSkillSet implements SkillSet {
 	 */
 	@Override
 	public void activateW() {
-        onPlayerAbilityUsed.fire(new PlayerAbilityUsedEventArgs(owner, 'w'));
+        getOnPlayerAbilityUsed().fire(new PlayerAbilityUsedEventArgs(owner, 'w'));
 	}
 
 	/**
@@ -78,14 +77,20 @@ public class RemoteSkillSet implements SkillSet {
 	 *
 	 * @return the on player ability used
 	 */
-	public Event<PlayerAbilityUsedListener, PlayerAbilityUsedEventArgs> getOnPlayerAbilityUsed() {
+	public synchronized Event<PlayerAbilityUsedListener, PlayerAbilityUsedEventArgs> getOnPlayerAbilityUsed() {
+		if (onPlayerAbilityUsed == null) {
+			onPlayerAbilityUsed = new Event<>((l, a) -> l.onPlayerAbilityUsed(a));
+		}
 		return onPlayerAbilityUsed;
 	}
 
     /* (non-Javadoc)
      * @see main.java.gamelogic.domain.SkillSet#getOnPlayerLaserActivated()
      */
-    public Event<PlayerLaserActivatedListener,PlayerLaserActivatedEventArgs> getOnPlayerLaserActivated() {
+    public synchronized Event<PlayerLaserActivatedListener,PlayerLaserActivatedEventArgs> getOnPlayerLaserActivated() {
+        if (onPlayerLaserActivated == null) {
+            onPlayerLaserActivated = new Event<>((l, a) -> l.onPlayerLaserActivated(a));
+        }
         return onPlayerLaserActivated;
     }
 
@@ -93,7 +98,10 @@ public class RemoteSkillSet implements SkillSet {
      * @see main.java.gamelogic.domain.SkillSet#getOnPlayerShieldActivated()
      */
     @Override
-    public Event<PlayerShieldActivatedListener, PlayerShieldActivatedEventArgs> getOnPlayerShieldActivated() {
+    public synchronized Event<PlayerShieldActivatedListener, PlayerShieldActivatedEventArgs> getOnPlayerShieldActivated() {
+        if (onPlayerShieldActivated == null) {
+            onPlayerShieldActivated = new Event<>((l, a) -> l.onPlayerShieldActivated(a));
+        }
         return onPlayerShieldActivated;
     }
 
@@ -101,7 +109,10 @@ public class RemoteSkillSet implements SkillSet {
      * @see main.java.gamelogic.domain.SkillSet#getOnPlayerShieldRemoved()
      */
     @Override
-    public Event<PlayerShieldRemovedListener,PlayerShieldRemovedEventArgs> getOnPlayerShieldRemoved() {
+    public synchronized Event<PlayerShieldRemovedListener,PlayerShieldRemovedEventArgs> getOnPlayerShieldRemoved() {
+        if (onPlayerShieldRemoved == null) {
+            onPlayerShieldRemoved = new Event<>((l, a) -> l.onPlayerShieldRemoved(a));
+        }
         return onPlayerShieldRemoved;
     }
 
@@ -24,6 +24,21 @@ public class RuleChecker {
 
 	}
 
+	/**
+	 * Check cell validity, without fetching the cell.
+	 *
+	 * @param map
+	 *            the map
+	 * @param row
+	 *            the row of the cell
+	 * @param column
+	 *            the column of the cell
+	 * @return true, if successful
+	 */
+	public static boolean checkCellValidity(final Map map, final int row, final int column) {
+		return row >= 0 && column >= 0 && !map.isObstacle(row, column);
+	}
+
 	/**
 	 * Check whether the player is trying to go outside of the map
 	 *
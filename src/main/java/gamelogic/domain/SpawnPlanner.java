@@ -0,0 +1,192 @@
+package main.java.gamelogic.domain;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import main.java.constants.CellState;
+
+/**
+ * Rates the cells of a world's map as places to spawn a new entity, preferring
+ * cells far from the players and further still from the ghosts.
+ *
+ * Rather than measuring the distance from every cell to every entity, the
+ * planner finds the walking distance from each cell to the nearest player and
+ * to the nearest ghost with one breadth-first search from all of the players,
+ * and one from all of the ghosts. The distances are kept until an entity is
+ * added, removed or moved, so spawning several entities in a row only searches
+ * the map again for the entities which were spawned. The cells of large maps
+ * are rated in parallel.
+ *
+ * A spawner counts as the entity it will spawn.
+ */
+class SpawnPlanner {
+	private static final int UNREACHABLE = -1;
+	private static final int PARALLEL_THRESHOLD = 64 * 64;
+
+	private final World world;
+	private final int size;
+	private long version = -1;
+	private int[] playerDistances;
+	private int[] ghostDistances;
+	private int playerCount;
+	private int ghostCount;
+	private int entityCount;
+
+	/**
+	 * Creates a planner for the current map of a world.
+	 *
+	 * @param world
+	 *            The world to spawn entities in.
+	 */
+	public SpawnPlanner(final World world) {
+		this.world = world;
+		this.size = world.getMap().getMapSize();
+		this.playerDistances = new int[size * size];
+		this.ghostDistances = new int[size * size];
+	}
+
+	/**
+	 * Rates a cell as a place to spawn an entity.
+	 *
+	 * @param position
+	 *            The position of the cell.
+	 * @return The rating, where higher is better and 0 or less means the
+	 *         cell should not be spawned in at all.
+	 */
+	public synchronized double getRating(final Position position) {
+		update();
+		return rate(position.getRow(), position.getColumn());
+	}
+
+	/**
+	 * Finds the best cell to spawn an entity in.
+	 *
+	 * @return The position of the cell, or {@code null} if there is nowhere
+	 *         to spawn.
+	 */
+	public synchronized Position getCandidatePosition() {
+		update();
+
+		final double[] ratings = new double[size * size];
+		IntStream indices = IntStream.range(0, ratings.length);
+		if (ratings.length >= PARALLEL_THRESHOLD) {
+			indices = indices.parallel();
+		}
+		indices.forEach(i -> ratings[i] = rate(i / size, i % size));
+
+		// pick the first of the best cells, so the choice does not depend on
+		// the order the cells were rated in
+		int best = -1;
+		double bestRating = 0;
+		for (int i = 0; i < ratings.length; i++) {
+			if (ratings[i] > bestRating) {
+				bestRating = ratings[i];
+				best = i;
+			}
+		}
+		return best < 0 ? null : Position.of(best / size, best % size);
+	}
+
+	private double rate(final int row, final int column) {
+		final CellState cellState = world.getMap().getState(row, column);
+		if (cellState == CellState.OBSTACLE || RuleChecker.isOutOfBounds(row, column)) {
+			return 0;
+		}
+
+		double rating = 1;
+		if (entityCount > 0) {
+			final int index = row * size + column;
+			double aggregateDistance = 0;
+			if (playerCount > 0) {
+				if (playerDistances[index] == UNREACHABLE) {
+					return 0;
+				}
+				aggregateDistance += playerCount * Math.log(playerDistances[index]);
+			}
+			if (ghostCount > 0) {
+				if (ghostDistances[index] == UNREACHABLE) {
+					return 0;
+				}
+				aggregateDistance += ghostCount * 2 * Math.log(ghostDistances[index]);
+			}
+			rating += aggregateDistance / entityCount;
+		}
+		if (cellState == CellState.FOOD) {
+			rating *= 0.75;
+		}
+
+		return rating;
+	}
+
+	/**
+	 * Searches the map again if any entity has been added, removed or moved
+	 * since it was last searched.
+	 */
+	private void update() {
+		if (version == world.getEntityVersion()) {
+			return;
+		}
+		version = world.getEntityVersion();
+
+		final int[] playerSources = new int[world.getEntities().size()];
+		final int[] ghostSources = new int[playerSources.length];
+		playerCount = 0;
+		ghostCount = 0;
+		entityCount = 0;
+
+		for (final Entity entity : world.getEntities()) {
+			final Entity spawned = entity instanceof Spawner ? ((Spawner) entity).getEntity() : entity;
+			final Position p = entity.getPosition();
+			final boolean inside = p.getRow() >= 0 && p.getRow() < size && p.getColumn() >= 0
+					&& p.getColumn() < size;
+
+			if (spawned instanceof Player && inside) {
+				playerSources[playerCount++] = p.getRow() * size + p.getColumn();
+			} else if (spawned instanceof Ghost && inside) {
+				ghostSources[ghostCount++] = p.getRow() * size + p.getColumn();
+			}
+			entityCount++;
+		}
+
+		search(playerSources, playerCount, playerDistances);
+		search(ghostSources, ghostCount, ghostDistances);
+	}
+
+	/**
+	 * Finds the walking distance from every cell to the nearest of the given
+	 * cells, with a breadth-first search from all of them at once.
+	 */
+	private void search(final int[] sources, final int sourceCount, final int[] distances) {
+		Arrays.fill(distances, UNREACHABLE);
+		final int[] queue = new int[distances.length];
+		int head = 0, tail = 0;
+
+		for (int i = 0; i < sourceCount; i++) {
+			if (distances[sources[i]] == UNREACHABLE) {
+				distances[sources[i]] = 0;
+				queue[tail++] = sources[i];
+			}
+		}
+
+		final Map map = world.getMap();
+		while (head < tail) {
+			final int index = queue[head++];
+			final int row = index / size, column = index % size;
+			final int distance = distances[index] + 1;
+
+			for (int direction = 0; direction < 4; direction++) {
+				final int r = row + (direction == 0 ? -1 : direction == 1 ? 1 : 0);
+				final int c = column + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+				if (r < 0 || r >= size || c < 0 || c >= size) {
+					continue;
+				}
+
+				final int next = r * size + c;
+				if (distances[next] == UNREACHABLE && !map.isObstacle(r, c)) {
+					distances[next] = distance;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+}
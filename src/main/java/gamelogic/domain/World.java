@@ -1,13 +1,20 @@
 package main.java.gamelogic.domain;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import main.java.constants.CellState;
 import main.java.event.Event;
+import main.java.event.EventBus;
 import main.java.event.arguments.EntityChangedEventArgs;
 import main.java.event.listener.EntityAddedListener;
 import main.java.event.listener.EntityRemovingListener;
@@ -21,18 +28,41 @@ import main.java.event.listener.EntityRemovingListener;
 public class World {
 	private RuleChecker ruleEnforcer;
 	private Map map;
-	private HashMap<Integer, Entity> entities;
+	private LinkedHashMap<Integer, Entity> entities;
+	private EntityGrid grid;
+	private final EntityStore store;
+	private final CopyOnWriteArrayList<Player> players;
+	private final CopyOnWriteArrayList<Ghost> ghosts;
+	private final CopyOnWriteArrayList<Spawner> spawners;
+	private final Collection<Player> playersView;
+	private final Collection<Ghost> ghostsView;
+	private final Collection<Spawner> spawnersView;
+	private int spawningPlayerCount;
+	private volatile long entityVersion;
+	private SpawnPlanner spawnPlanner;
+	private final AtomicReference<WorldSnapshot> snapshot;
+	private Random random;
 	private volatile int latestEntityID = 1000;
 	private Event<EntityAddedListener, EntityChangedEventArgs> onEntityAdded;
 	private Event<EntityRemovingListener, EntityChangedEventArgs> onEntityRemoving;
 	private boolean remote;
-	private Object addObjectSync = new Object();
+	private final Object addObjectSync = new Object();
+	private Entity[] stepEntities = new Entity[0];
 
 	public World(final RuleChecker ruleEnforcer, final Map map, final boolean remote) {
-		entities = new HashMap<>();
+		entities = new LinkedHashMap<>();
 		this.ruleEnforcer = ruleEnforcer;
 		this.map = map;
 		this.remote = remote;
+		this.grid = new EntityGrid(map == null ? 0 : map.getMapSize());
+		store = new EntityStore();
+		snapshot = new AtomicReference<>(WorldSnapshot.empty());
+		players = new CopyOnWriteArrayList<>();
+		ghosts = new CopyOnWriteArrayList<>();
+		spawners = new CopyOnWriteArrayList<>();
+		playersView = Collections.unmodifiableList(players);
+		ghostsView = Collections.unmodifiableList(ghosts);
+		spawnersView = Collections.unmodifiableList(spawners);
 
 		onEntityAdded = new Event<>((l, c) -> l.onEntityAdded(c));
 		onEntityRemoving = new Event<>((l, c) -> l.onEntityRemoving(c));
@@ -56,6 +86,50 @@ public class World {
 		return remote;
 	}
 
+	/**
+	 * Seed the world, so that every random number generator created with
+	 * {@link #createRandom()} from now on is seeded from it, and the same seed
+	 * always gives the same numbers.
+	 *
+	 * @param seed
+	 *            the seed
+	 */
+	public synchronized void setSeed(final long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Determine whether the world has been seeded
+	 *
+	 * @return whether the world is seeded
+	 */
+	public synchronized boolean isSeeded() {
+		return random != null;
+	}
+
+	/**
+	 * Create a random number generator for something in the world to use. If
+	 * the world is seeded, the generator is seeded from the world's seed, so
+	 * the generators are seeded the same way as long as they are created in
+	 * the same order.
+	 *
+	 * @return a random number generator
+	 */
+	public synchronized Random createRandom() {
+		return random != null ? new Random(random.nextLong()) : new Random();
+	}
+
+	/**
+	 * Fetch the world's event bus, which carries the events of the cells of
+	 * the map and of the entities in the world. This is the event bus of the
+	 * world's map.
+	 *
+	 * @return the event bus
+	 */
+	public EventBus getEventBus() {
+		return map.getEventBus();
+	}
+
 	/**
 	 * Fetch the on entity added event
 	 *
@@ -108,8 +182,12 @@ public class World {
 				id = latestEntityID++;
 				entity.setID(id);
 			}
-			entities.put(id, entity);
+			final Entity previous = entities.put(id, entity);
+			if (previous != null) {
+				unindex(previous);
+			}
 			entity.setWorld(this);
+			index(entity);
 			getOnEntityAddedEvent().fire(new EntityChangedEventArgs(id, this));
 			return id;	
 		}
@@ -125,30 +203,207 @@ public class World {
 		return entities.get(entityID);
 	}
 
+	/**
+	 * Determine whether there is a ghost at the given position
+	 *
+	 * @param position
+	 *            the position
+	 * @return whether a ghost is there
+	 */
 	public boolean isGhostAt(final Position position) {
-		for (final Entity e : getEntities()) {
-			if (e instanceof Ghost && e.getPosition().equals(position)) {
-				return true;
-			}
+		return hasEntityInArea(position.getRow(), position.getColumn(), position.getRow(), position.getColumn(),
+				Ghost.class);
+	}
+
+	/**
+	 * Fetch the entities at the given position
+	 *
+	 * @param position
+	 *            the position
+	 * @return set of entities
+	 */
+	public Set<Entity> getEntitiesAt(final Position position) {
+		return new HashSet<Entity>(getEntitiesAt(position, Entity.class));
+	}
+
+	/**
+	 * Fetch the entities with the given class at the given position
+	 *
+	 * @param position
+	 *            the position
+	 * @param cls
+	 *            the class
+	 * @return list of entities
+	 */
+	public <T extends Entity> List<T> getEntitiesAt(final Position position, final Class<T> cls) {
+		return getEntitiesInArea(position.getRow(), position.getColumn(), position.getRow(), position.getColumn(),
+				cls);
+	}
+
+	/**
+	 * Add the entities with the given class at the given cell to a list,
+	 * without allocating a new list
+	 *
+	 * @param row
+	 *            the row
+	 * @param column
+	 *            the column
+	 * @param cls
+	 *            the class
+	 * @param result
+	 *            the list to add the entities to
+	 */
+	public <T extends Entity> void collectEntitiesAt(final int row, final int column, final Class<T> cls,
+			final List<T> result) {
+		synchronized (addObjectSync) {
+			grid.collect(row, column, row, column, cls, result);
+		}
+	}
+
+	/**
+	 * Fetch the entities with the given class in a rectangle of the map. The
+	 * corners are inclusive, and may lie outside of the map.
+	 *
+	 * @param rowStart
+	 *            the first row
+	 * @param columnStart
+	 *            the first column
+	 * @param rowEnd
+	 *            the last row
+	 * @param columnEnd
+	 *            the last column
+	 * @param cls
+	 *            the class
+	 * @return list of entities
+	 */
+	public <T extends Entity> List<T> getEntitiesInArea(final int rowStart, final int columnStart, final int rowEnd,
+			final int columnEnd, final Class<T> cls) {
+		final ArrayList<T> list = new ArrayList<T>();
+		synchronized (addObjectSync) {
+			grid.collect(rowStart, columnStart, rowEnd, columnEnd, cls, list);
 		}
+		return list;
+	}
 
-		return false;
+	/**
+	 * Determine whether there is an entity with the given class in a rectangle
+	 * of the map, without collecting the entities. The corners are inclusive,
+	 * and may lie outside of the map.
+	 *
+	 * @param rowStart
+	 *            the first row
+	 * @param columnStart
+	 *            the first column
+	 * @param rowEnd
+	 *            the last row
+	 * @param columnEnd
+	 *            the last column
+	 * @param cls
+	 *            the class
+	 * @return whether there is such an entity
+	 */
+	public boolean hasEntityInArea(final int rowStart, final int columnStart, final int rowEnd, final int columnEnd,
+			final Class<? extends Entity> cls) {
+		synchronized (addObjectSync) {
+			return grid.contains(rowStart, columnStart, rowEnd, columnEnd, cls);
+		}
 	}
 
-	public Set<Entity> getEntitiesAt(final Position position) {
-		final HashSet<Entity> s = new HashSet<Entity>();
+	/**
+	 * Fetch the entities with the given class in a segment of a row
+	 *
+	 * @param row
+	 *            the row
+	 * @param columnStart
+	 *            the first column (inclusive)
+	 * @param columnEnd
+	 *            the last column (inclusive)
+	 * @param cls
+	 *            the class
+	 * @return list of entities
+	 */
+	public <T extends Entity> List<T> getEntitiesInRow(final int row, final int columnStart, final int columnEnd,
+			final Class<T> cls) {
+		return getEntitiesInArea(row, columnStart, row, columnEnd, cls);
+	}
 
-		for (final Entity e : getEntities()) {
-			if (e.getPosition().equals(position)) {
-				s.add(e);
+	/**
+	 * Fetch the entities with the given class in a segment of a column
+	 *
+	 * @param column
+	 *            the column
+	 * @param rowStart
+	 *            the first row (inclusive)
+	 * @param rowEnd
+	 *            the last row (inclusive)
+	 * @param cls
+	 *            the class
+	 * @return list of entities
+	 */
+	public <T extends Entity> List<T> getEntitiesInColumn(final int column, final int rowStart, final int rowEnd,
+			final Class<T> cls) {
+		return getEntitiesInArea(rowStart, column, rowEnd, column, cls);
+	}
+
+	/**
+	 * Fetch the entities with the given class within a manhattan distance of
+	 * the given position
+	 *
+	 * @param centre
+	 *            the position
+	 * @param radius
+	 *            the greatest distance from the position
+	 * @param cls
+	 *            the class
+	 * @return list of entities
+	 */
+	public <T extends Entity> List<T> getEntitiesWithin(final Position centre, final int radius, final Class<T> cls) {
+		final List<T> list = getEntitiesInArea(centre.getRow() - radius, centre.getColumn() - radius,
+				centre.getRow() + radius, centre.getColumn() + radius, cls);
+		list.removeIf(e -> Math.abs(e.getPosition().getRow() - centre.getRow())
+				+ Math.abs(e.getPosition().getColumn() - centre.getColumn()) > radius);
+		return list;
+	}
+
+	/**
+	 * Fetch the lock which is held while entities are added to, removed from
+	 * or moved in this world. Players are moved by the network threads while
+	 * the game logic moves the ghosts, so anything which reads several entity
+	 * positions which must agree with each other should hold it.
+	 *
+	 * @return the lock
+	 */
+	public Object getEntityLock() {
+		return addObjectSync;
+	}
+
+	/**
+	 * Move an entity of this world in the index of entity positions. This must
+	 * be called while holding the {@link #getEntityLock() entity lock}, which
+	 * must also be held while the entity's position is updated.
+	 *
+	 * @param entity
+	 *            the entity which moved
+	 * @param from
+	 *            the old position, or null if it had none
+	 * @param to
+	 *            the new position
+	 */
+	void onEntityMoved(final Entity entity, final Position from, final Position to) {
+		if (entities.get(entity.getID()) == entity) {
+			if (from != null) {
+				grid.remove(entity, from);
 			}
+			grid.add(entity, to);
+			entityVersion++;
 		}
-
-		return s;
 	}
 
 	/**
-	 * Fetch all the entities with the given class
+	 * Fetch all the entities with the given class. The players, ghosts and
+	 * spawners are kept in their own collections, so fetching them returns a
+	 * read-only view which does not need to be copied; fetching any other
+	 * class scans the entities.
 	 *
 	 * @param cls
 	 *            the class
@@ -156,6 +411,14 @@ public class World {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends Entity> Collection<T> getEntities(final Class<T> cls) {
+		if (cls == Player.class) {
+			return (Collection<T>) playersView;
+		} else if (cls == Ghost.class) {
+			return (Collection<T>) ghostsView;
+		} else if (cls == Spawner.class) {
+			return (Collection<T>) spawnersView;
+		}
+
 		final ArrayList<T> list = new ArrayList<T>();
 
 		for (final Entity e : getEntities()) {
@@ -179,14 +442,82 @@ public class World {
 	/**
 	 * Get the players
 	 *
-	 * @return colleciton of players
+	 * @return read-only view of the players
 	 */
 	public Collection<Player> getPlayers() {
-		return getEntities(Player.class);
+		return playersView;
 	}
 
+	/**
+	 * Get the ghosts
+	 *
+	 * @return read-only view of the ghosts
+	 */
 	public Collection<Ghost> getGhosts() {
-		return getEntities(Ghost.class);
+		return ghostsView;
+	}
+
+	/**
+	 * Get the spawners
+	 *
+	 * @return read-only view of the spawners
+	 */
+	public Collection<Spawner> getSpawners() {
+		return spawnersView;
+	}
+
+	/**
+	 * Get the number of spawners in the world which will spawn a player
+	 *
+	 * @return the number of players waiting to spawn
+	 */
+	public int getSpawningPlayerCount() {
+		return spawningPlayerCount;
+	}
+
+	/**
+	 * Get the store which keeps the positions, angles, kinds and flags of the
+	 * entities in primitive arrays, for systems which scan every entity
+	 *
+	 * @return the entity store
+	 */
+	public EntityStore getEntityStore() {
+		return store;
+	}
+
+	private void index(final Entity entity) {
+		entityVersion++;
+		store.add(entity);
+		if (entity.getPositionIfSet() != null) {
+			grid.add(entity, entity.getPositionIfSet());
+		}
+		if (entity instanceof Player) {
+			players.add((Player) entity);
+		} else if (entity instanceof Ghost) {
+			ghosts.add((Ghost) entity);
+		} else if (entity instanceof Spawner) {
+			spawners.add((Spawner) entity);
+			if (((Spawner) entity).getEntity() instanceof Player) {
+				spawningPlayerCount++;
+			}
+		}
+	}
+
+	private void unindex(final Entity entity) {
+		entityVersion++;
+		store.remove(entity);
+		if (entity.getPositionIfSet() != null) {
+			grid.remove(entity, entity.getPositionIfSet());
+		}
+		if (entity instanceof Player) {
+			players.remove(entity);
+		} else if (entity instanceof Ghost) {
+			ghosts.remove(entity);
+		} else if (entity instanceof Spawner) {
+			if (spawners.remove(entity) && ((Spawner) entity).getEntity() instanceof Player) {
+				spawningPlayerCount--;
+			}
+		}
 	}
 
 	/**
@@ -207,12 +538,47 @@ public class World {
 	 */
 	public void setMap(final Map map) {
 		this.map = map;
+		synchronized (this) {
+			spawnPlanner = null;
+		}
+		synchronized (addObjectSync) {
+			grid = new EntityGrid(map.getMapSize());
+			for (final Entity entity : entities.values()) {
+				if (entity.getPositionIfSet() != null) {
+					grid.add(entity, entity.getPositionIfSet());
+				}
+			}
+		}
 	}
 
 	public void gameStep(final Game game) {
 		map.gameStep(game);
-		for (final Entity entity : entities.values()) {
-			entity.gameStep(game);
+		stepEntities = copyEntities(stepEntities);
+		for (int i = 0; i < stepEntities.length && stepEntities[i] != null; i++) {
+			stepEntities[i].gameStep(game);
+		}
+	}
+
+	/**
+	 * Copy the entities in the world into an array, while no other thread can
+	 * add or remove entities. On clients, entities are added and removed by
+	 * the network thread while the game logic runs, so the game logic steps
+	 * through a copy rather than the world's own storage.
+	 *
+	 * @param into
+	 *            the array to copy into, which is reused if it is big enough
+	 * @return the array holding the entities, followed by nulls if it is
+	 *         longer than needed
+	 */
+	public Entity[] copyEntities(final Entity[] into) {
+		synchronized (addObjectSync) {
+			final Entity[] result = into.length >= store.size() ? into
+					: new Entity[Math.max(store.size(), into.length * 2)];
+			for (int slot = 0; slot < store.size(); slot++) {
+				result[slot] = store.getEntity(slot);
+			}
+			Arrays.fill(result, store.size(), result.length, null);
+			return result;
 		}
 	}
 
@@ -223,65 +589,114 @@ public class World {
 	 *            the id of the entity to be removed
 	 */
 	public void removeEntity(final int entityID) {
-		if (entities.containsKey(entityID)) {
-			Entity e = entities.get(entityID);
-			getOnEntityRemovingEvent().fire(new EntityChangedEventArgs(entityID, this));
-			entities.remove(entityID);
-		} else {
-			throw new IllegalArgumentException("No such entity with ID " + entityID);
+		synchronized (addObjectSync) {
+			if (entities.containsKey(entityID)) {
+				getOnEntityRemovingEvent().fire(new EntityChangedEventArgs(entityID, this));
+				unindex(entities.remove(entityID));
+			} else {
+				throw new IllegalArgumentException("No such entity with ID " + entityID);
+			}
 		}
 	}
 
 	public boolean isOccupiable(final Position position) {
 		return !RuleChecker.isOutOfBounds(position.getRow(), position.getColumn())
-				&& map.getCell(position).getState() != CellState.OBSTACLE;
-
-	}
-
-	
-	public double getSpawnPositionRating(Position p) {
-		CellState cellState = getMap().getCell(p).getState();
-		if(cellState == CellState.OBSTACLE || RuleChecker.isOutOfBounds(p.getRow(), p.getColumn())) return 0;
-		
-		double rating = 1;
-		double aggregateDistance = 0;
-		int entityCount = 0;
-		for(Entity e : getEntities()) {
-			double distance = Math.abs(e.getPosition().getRow() - p.getRow()) +
-					Math.abs(e.getPosition().getColumn() - p.getColumn());
-			
-			if(e instanceof Spawner) e = ((Spawner) e).getEntity();
-			if(e instanceof Player) {
-				aggregateDistance += Math.log(distance);
-			}
-			if(e instanceof Ghost) {
-				aggregateDistance += 2 * Math.log(distance);
-			}
-			entityCount += 1;
-		}
-		if(entityCount > 0) rating += aggregateDistance / entityCount;
-		if(cellState == CellState.FOOD) rating *= 0.75;
-		
-		return rating;
+				&& !map.isObstacle(position.getRow(), position.getColumn());
+
+	}
+
+
+	/**
+	 * Rate a position as a place to spawn a new entity
+	 *
+	 * @param p
+	 *            the position
+	 * @return the rating, where higher is better and 0 or less means nothing
+	 *         should spawn there
+	 */
+	public double getSpawnPositionRating(final Position p) {
+		return getSpawnPlanner().getRating(p);
 	}
-	
+
+	/**
+	 * Find the best position to spawn a new entity, away from the players and
+	 * ghosts already in the world
+	 *
+	 * @return the position, or null if there is nowhere to spawn
+	 */
 	public Position getCandidateSpawnPosition() {
-		Position bestPosition = null;
-		double bestRating = 0;
-		int mapSize = getMap().getMapSize();
-		
-		for(int row = 0; row < mapSize; row++) {
-			for(int col = 0; col < mapSize; col++) {
-				Position position = new Position(row, col);
-				double rating = getSpawnPositionRating(position);
-				
-				if(rating > bestRating) {
-					bestRating = rating;
-					bestPosition = position;
-				}
-			}
+		return getSpawnPlanner().getCandidatePosition();
+	}
+
+	/**
+	 * Take a checkpoint of the world, which it can be rolled back to later.
+	 * Taking a checkpoint does not copy the map.
+	 *
+	 * @return the checkpoint
+	 */
+	public WorldCheckpoint checkpoint() {
+		return new WorldCheckpoint(this);
+	}
+
+	/**
+	 * Roll the world back to a checkpoint, undoing any changes to the
+	 * entities in the world, their positions, and the cells of the map since
+	 * the checkpoint was taken. The usual events are fired for the changes
+	 * which are undone.
+	 *
+	 * @param checkpoint
+	 *            a checkpoint of this world
+	 * @throws IllegalArgumentException
+	 *             Thrown when the checkpoint was taken of a different world.
+	 */
+	public void rollback(final WorldCheckpoint checkpoint) {
+		if (checkpoint.getWorld() != this) {
+			throw new IllegalArgumentException("Checkpoint was taken of a different world.");
+		}
+		checkpoint.restore();
+	}
+
+	/**
+	 * Publish a snapshot of the world as it is now, for readers on other
+	 * threads. This should be called by the thread running the game logic at
+	 * the end of each game step.
+	 *
+	 * @return the snapshot
+	 */
+	public WorldSnapshot publishSnapshot() {
+		// entities must not be added or removed while the store is read
+		synchronized (addObjectSync) {
+			final WorldSnapshot next = WorldSnapshot.take(this, snapshot.get());
+			snapshot.set(next);
+			return next;
+		}
+	}
+
+	/**
+	 * Get the latest published snapshot of the world. This can be called from
+	 * any thread, and the snapshot will not change while it is being read.
+	 *
+	 * @return the snapshot, which is empty until the first one is published
+	 */
+	public WorldSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Get the number of times an entity has been added to, removed from or
+	 * moved in this world, so that anything worked out from the positions of
+	 * the entities can tell when it is out of date
+	 *
+	 * @return the entity version
+	 */
+	public long getEntityVersion() {
+		return entityVersion;
+	}
+
+	private synchronized SpawnPlanner getSpawnPlanner() {
+		if (spawnPlanner == null) {
+			spawnPlanner = new SpawnPlanner(this);
 		}
-		
-		return bestPosition;
+		return spawnPlanner;
 	}
 }
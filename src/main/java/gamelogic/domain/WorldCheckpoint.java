@@ -0,0 +1,87 @@
+package main.java.gamelogic.domain;
+
+import java.util.LinkedHashMap;
+
+/**
+ * The state of a world at some point in time, which the world can be rolled
+ * back to with {@link World#rollback(WorldCheckpoint)}. This allows the game to
+ * simulate ahead speculatively (eg. for client-side prediction, or for an AI
+ * looking several steps ahead) and then undo what it simulated.
+ *
+ * Taking a checkpoint does not copy the cells of the map; instead, the map
+ * journals the previous state of each cell which changes afterwards, so both
+ * taking a checkpoint and rolling back to it cost in proportion to the number
+ * of cells changed rather than the size of the map. A checkpoint
+ * records which entities are in the world, and their positions, angles and
+ * whether they have been hit by a laser; any other state of the entities (such
+ * as scores and cooldowns) is not rolled back.
+ */
+public final class WorldCheckpoint {
+	private final World world;
+	private final Map map;
+	private final Map.SavedCells cells;
+	private final LinkedHashMap<Integer, EntityState> entities;
+
+	WorldCheckpoint(final World world) {
+		this.world = world;
+		this.map = world.getMap();
+		this.cells = map.saveCells();
+		this.entities = new LinkedHashMap<>();
+		for (final Entity entity : world.getEntities()) {
+			entities.put(entity.getID(), new EntityState(entity));
+		}
+	}
+
+	/**
+	 * Rolls the world this checkpoint was taken of back to it.
+	 */
+	void restore() {
+		if (world.getMap() != map) {
+			throw new IllegalStateException("Cannot roll back to a checkpoint taken before the map was replaced.");
+		}
+
+		for (final Entity entity : world.getEntities().toArray(new Entity[0])) {
+			final EntityState state = entities.get(entity.getID());
+			if (state == null || state.entity != entity) {
+				world.removeEntity(entity.getID());
+			}
+		}
+
+		for (final EntityState state : entities.values()) {
+			state.restore();
+			if (world.getEntity(state.entity.getID()) != state.entity) {
+				world.addEntity(state.entity);
+			}
+		}
+
+		map.restoreCells(cells);
+	}
+
+	World getWorld() {
+		return world;
+	}
+
+	/**
+	 * The state of an entity when a checkpoint was taken.
+	 */
+	private static final class EntityState {
+		private final Entity entity;
+		private final Position position;
+		private final boolean killed;
+		private final double angle;
+
+		public EntityState(final Entity entity) {
+			this.entity = entity;
+			this.position = entity.getPositionIfSet();
+			this.killed = entity.getIsKilled();
+			this.angle = entity instanceof Player ? ((Player) entity).getAngle() : 0;
+		}
+
+		public void restore() {
+			entity.restore(position, killed);
+			if (entity instanceof Player && ((Player) entity).getAngle() != angle) {
+				((Player) entity).setAngle(angle);
+			}
+		}
+	}
+}
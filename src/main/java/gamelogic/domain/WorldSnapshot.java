@@ -0,0 +1,323 @@
+package main.java.gamelogic.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import main.java.constants.CellState;
+
+/**
+ * An immutable view of a world as it was at the end of a game step, for
+ * readers on other threads (such as the renderer) which must see a
+ * consistent world without locking the game logic out of it.
+ *
+ * A snapshot shares everything which did not change since the previous
+ * snapshot with it: the entity snapshots of entities which did not move, the
+ * table of entity snapshots if no entity moved, the index of entities by ID
+ * if no entity was added or removed, and the pages of cell states in which no
+ * cell changed. So a game step allocates for its snapshot in proportion to
+ * what changed during the step, rather than to the size of the world.
+ */
+public final class WorldSnapshot {
+	private static final CellState[] STATES = CellState.values();
+	private static final int[] NO_CELLS = new int[0];
+
+	private static final int[] NO_IDS = new int[0];
+
+	private final long step;
+	private final EntitySnapshot[] entitiesBySlot;
+	private final Collection<EntitySnapshot> entities;
+	private final int[] sortedIDs;
+	private final int[] sortedSlots;
+	private final int mapSize;
+	private final byte[][] cellPages;
+	private final long cellVersion;
+	private final int[] changedCells;
+	private volatile long stateHash;
+	private volatile boolean stateHashed;
+
+	private WorldSnapshot(final long step, final EntitySnapshot[] entitiesBySlot,
+			final Collection<EntitySnapshot> entities, final int[] sortedIDs, final int[] sortedSlots,
+			final int mapSize, final byte[][] cellPages, final long cellVersion, final int[] changedCells) {
+		this.step = step;
+		this.entitiesBySlot = entitiesBySlot;
+		this.entities = entities;
+		this.sortedIDs = sortedIDs;
+		this.sortedSlots = sortedSlots;
+		this.mapSize = mapSize;
+		this.cellPages = cellPages;
+		this.cellVersion = cellVersion;
+		this.changedCells = changedCells;
+	}
+
+	/**
+	 * Creates an empty snapshot, which a world publishes before its first
+	 * game step.
+	 */
+	static WorldSnapshot empty() {
+		return new WorldSnapshot(0, new EntitySnapshot[0], Collections.emptyList(), NO_IDS, NO_IDS, 0, new byte[0][],
+				-1, NO_CELLS);
+	}
+
+	/**
+	 * Takes a snapshot of a world, sharing what has not changed with the
+	 * previous snapshot. If nothing changed, the only thing allocated is the
+	 * new snapshot itself.
+	 *
+	 * @param world
+	 *            The world.
+	 * @param previous
+	 *            The previous snapshot of the world.
+	 * @return The new snapshot.
+	 */
+	static WorldSnapshot take(final World world, final WorldSnapshot previous) {
+		final Map map = world.getMap();
+
+		final EntityStore store = world.getEntityStore();
+
+		// the entity snapshots are kept in the order of the slots of the
+		// entity store, so finding whether anything changed takes no lookups
+		boolean entitiesReplaced = store.size() != previous.entitiesBySlot.length;
+		boolean entitiesChanged = entitiesReplaced;
+		for (int slot = 0; slot < store.size() && !entitiesReplaced; slot++) {
+			final Entity entity = store.getEntity(slot);
+			final EntitySnapshot snapshot = previous.entitiesBySlot[slot];
+			entitiesReplaced = snapshot.entity != entity || snapshot.id != entity.getID();
+			entitiesChanged = entitiesChanged || !snapshot.matches(entity);
+		}
+
+		EntitySnapshot[] entitiesBySlot = previous.entitiesBySlot;
+		Collection<EntitySnapshot> entities = previous.entities;
+		int[] sortedIDs = previous.sortedIDs;
+		int[] sortedSlots = previous.sortedSlots;
+		if (entitiesReplaced) {
+			entitiesBySlot = new EntitySnapshot[store.size()];
+			for (int slot = 0; slot < store.size(); slot++) {
+				final Entity entity = store.getEntity(slot);
+				entitiesBySlot[slot] = EntitySnapshot.of(entity, previous.getEntity(entity.getID()));
+			}
+
+			// the IDs are only indexed again when entities are added or
+			// removed, which is far rarer than entities moving
+			final long[] order = new long[entitiesBySlot.length];
+			for (int slot = 0; slot < order.length; slot++) {
+				order[slot] = (long) entitiesBySlot[slot].id << 32 | slot;
+			}
+			Arrays.sort(order);
+			sortedIDs = new int[order.length];
+			sortedSlots = new int[order.length];
+			for (int i = 0; i < order.length; i++) {
+				sortedIDs[i] = (int) (order[i] >> 32);
+				sortedSlots[i] = (int) order[i];
+			}
+		} else if (entitiesChanged) {
+			entitiesBySlot = new EntitySnapshot[store.size()];
+			for (int slot = 0; slot < store.size(); slot++) {
+				entitiesBySlot[slot] = EntitySnapshot.of(store.getEntity(slot), previous.entitiesBySlot[slot]);
+			}
+		}
+		if (entitiesBySlot != previous.entitiesBySlot) {
+			entities = Collections.unmodifiableList(Arrays.asList(entitiesBySlot));
+		}
+
+		final Map.CellChanges cells = map.takeCellChanges(previous.cellVersion, previous.mapSize, previous.cellPages);
+		if (cells == null) {
+			return new WorldSnapshot(previous.step + 1, entitiesBySlot, entities, sortedIDs, sortedSlots,
+					previous.mapSize, previous.cellPages, previous.cellVersion, NO_CELLS);
+		}
+		return new WorldSnapshot(previous.step + 1, entitiesBySlot, entities, sortedIDs, sortedSlots, cells.size,
+				cells.pages, cells.version, cells.changedCells.length > 0 ? cells.changedCells : NO_CELLS);
+	}
+
+	/**
+	 * Gets the number of the game step at the end of which this snapshot was
+	 * taken.
+	 *
+	 * @return The step number, counting from 1, or 0 for the empty snapshot.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	/**
+	 * Gets the snapshots of the entities in the world.
+	 *
+	 * @return A read-only collection of entity snapshots.
+	 */
+	public Collection<EntitySnapshot> getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Gets the snapshot of an entity.
+	 *
+	 * @param id
+	 *            The ID of the entity.
+	 * @return The entity snapshot, or {@code null} if there was no such
+	 *         entity in the world.
+	 */
+	public EntitySnapshot getEntity(final int id) {
+		final int i = Arrays.binarySearch(sortedIDs, id);
+		return i >= 0 ? entitiesBySlot[sortedSlots[i]] : null;
+	}
+
+	public int getMapSize() {
+		return mapSize;
+	}
+
+	/**
+	 * Gets the state of a cell.
+	 *
+	 * @param row
+	 *            The row of the cell.
+	 * @param column
+	 *            The column of the cell.
+	 * @return The state of the cell.
+	 */
+	public CellState getCellState(final int row, final int column) {
+		if (row < 0 || row >= mapSize || column < 0 || column >= mapSize) {
+			throw new IndexOutOfBoundsException("Position (" + row + ", " + column + ") is outside of the map.");
+		}
+		final int index = row * mapSize + column;
+		return STATES[cellPages[index >> Map.PAGE_BITS][index & (1 << Map.PAGE_BITS) - 1]];
+	}
+
+	/**
+	 * Gets the cells which changed state since the previous snapshot.
+	 *
+	 * @return The positions of the cells, packed as by
+	 *         {@link Position#pack(int, int)}. The array must not be modified.
+	 */
+	public int[] getChangedCells() {
+		return changedCells;
+	}
+
+	/**
+	 * Gets a hash of the state of the world in this snapshot: the IDs, types,
+	 * positions and angles of the entities, and the states of the cells. Two
+	 * runs of a seeded game with the same inputs have the same state hash
+	 * after every game step, so comparing the hashes finds the first step at
+	 * which two runs diverged.
+	 *
+	 * @return The 64-bit FNV-1a hash of the state.
+	 */
+	public long getStateHash() {
+		if (!stateHashed) {
+			long hash = 0xcbf29ce484222325L;
+			for (int i = 0; i < sortedIDs.length; i++) {
+				final int id = sortedIDs[i];
+				final EntitySnapshot entity = entitiesBySlot[sortedSlots[i]];
+				hash = hash(hash, id);
+				hash = hash(hash, entity.getEntity().getClass().getName().hashCode());
+				hash = hash(hash, entity.positioned ? Position.pack(entity.row, entity.column) : -1);
+				hash = hash(hash, Double.doubleToLongBits(entity.angle));
+			}
+			for (final byte[] page : cellPages) {
+				for (final byte state : page) {
+					hash = (hash ^ state) * 0x100000001b3L;
+				}
+			}
+
+			stateHash = hash;
+			stateHashed = true;
+		}
+		return stateHash;
+	}
+
+	private static long hash(long hash, final long value) {
+		for (int shift = 0; shift < 64; shift += 8) {
+			hash = (hash ^ (value >>> shift & 0xFF)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * The state of an entity at the end of a game step.
+	 */
+	public static final class EntitySnapshot {
+		private final Entity entity;
+		private final int id;
+		private final boolean positioned;
+		private final int row;
+		private final int column;
+		private final double angle;
+
+		private EntitySnapshot(final Entity entity, final boolean positioned, final int row, final int column,
+				final double angle) {
+			this.entity = entity;
+			this.id = entity.getID();
+			this.positioned = positioned;
+			this.row = row;
+			this.column = column;
+			this.angle = angle;
+		}
+
+		/**
+		 * Takes a snapshot of an entity, reusing the previous snapshot if the
+		 * entity has not changed since.
+		 */
+		private static EntitySnapshot of(final Entity entity, final EntitySnapshot previous) {
+			if (previous != null && previous.matches(entity)) {
+				return previous;
+			}
+			final Position position = entity.getPositionIfSet();
+			return new EntitySnapshot(entity, position != null, position == null ? -1 : position.getRow(),
+					position == null ? -1 : position.getColumn(), angleOf(entity));
+		}
+
+		/**
+		 * Determines whether this is a snapshot of the given entity in its
+		 * current state.
+		 */
+		private boolean matches(final Entity entity) {
+			final Position position = entity.getPositionIfSet();
+			return this.entity == entity && id == entity.getID() && positioned == (position != null)
+					&& (position == null || (row == position.getRow() && column == position.getColumn()))
+					&& angle == angleOf(entity);
+		}
+
+		private static double angleOf(final Entity entity) {
+			return entity instanceof Player ? ((Player) entity).getAngle() : 0;
+		}
+
+		/**
+		 * Gets the entity this is a snapshot of. The entity itself is live, so
+		 * its state may have moved on since the snapshot was taken.
+		 *
+		 * @return The entity.
+		 */
+		public Entity getEntity() {
+			return entity;
+		}
+
+		public int getID() {
+			return id;
+		}
+
+		public int getRow() {
+			return row;
+		}
+
+		public int getColumn() {
+			return column;
+		}
+
+		/**
+		 * Gets the position of the entity.
+		 *
+		 * @return The position, or {@code null} if the entity had none.
+		 */
+		public Position getPosition() {
+			return positioned ? Position.of(row, column) : null;
+		}
+
+		/**
+		 * Gets the angle the entity was facing, if it is a player.
+		 *
+		 * @return The angle, or 0 if the entity is not a player.
+		 */
+		public double getAngle() {
+			return angle;
+		}
+	}
+}
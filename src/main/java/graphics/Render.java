@@ -21,6 +21,7 @@ import main.java.constants.*;
 import main.java.event.Event;
 import main.java.event.arguments.*;
 import main.java.event.listener.*;
+import main.java.gamelogic.core.DisplayChanges;
 import main.java.gamelogic.core.GameLogic;
 import main.java.gamelogic.domain.*;
 import main.java.gamelogic.domain.Cell;
@@ -121,9 +122,18 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
 	 * Redraw the map
 	 */
     void redrawWorld() {
+		redrawWorld(null);
+	}
+
+    /**
+	 * Redraw the parts of the map which have changed
+	 *
+	 * @param changes, the changes to redraw, or null to redraw everything
+	 */
+    private void redrawWorld(final DisplayChanges changes) {
 		PositionVisualisation.initScreenDimensions();
 
-    	redrawCells();
+    	redrawCells(changes);
     	
     	synchronized (addedEntityIDs) {
 			for(int id : addedEntityIDs) {
@@ -152,6 +162,7 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
     	    Visualisation vi = allEntities.get(player.getID());
 			
 			if(vi instanceof PacmanVisualisation) {
+				if(changes != null && !changes.hasEntityChanged(player.getID())) continue;
 				PacmanVisualisation pacmanVisualisation = new PacmanVisualisation(player);
 	    	    Node nextNode = pacmanVisualisation.getNode();
 	
@@ -171,6 +182,7 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
 			Visualisation vi = allEntities.get(ghost.getID());
 			
 			if(vi instanceof GhostVisualisation) {
+				if(changes != null && !changes.hasEntityChanged(ghost.getID())) continue;
 				GhostVisualisation ghostVis = new GhostVisualisation(ghost.getPosition());
 		    	Node nextNode = ghostVis.getNode();
 			    transitions.get(ghost.getID()).setToY(nextNode.getTranslateY());
@@ -183,7 +195,7 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
 			}
 		}
 
-		for (final Spawner spawner : game.getWorld().getEntities(Spawner.class)) {
+		for (final Spawner spawner : game.getWorld().getSpawners()) {
 			Visualisation vi = allEntities.get(spawner.getID());
 			
 			if(vi instanceof SpawnerVisualisation) {
@@ -257,8 +269,10 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
      */
 	@Override
 	public void onGameDisplayInvalidated(final GameDisplayInvalidatedEventArgs args) {
+		// the game logic will not invalidate the display again until the
+		// changes have been taken, so at most one redraw is ever queued
 		if (!game.hasEnded()) {
-			Platform.runLater(this::redrawWorld);
+			Platform.runLater(() -> redrawWorld(gameLogic.takeDisplayChanges()));
 		}
 	}
 
@@ -449,7 +463,24 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
             root.getChildren().remove(playerRespawnWindow);
     }
 
-    private void redrawCells() {
+    private void redrawCells(final DisplayChanges changes) {
+        if(changes != null) {
+            for(Cell cell : changes.getCells()) {
+                int row = cell.getPosition().getRow(), column = cell.getPosition().getColumn();
+                if(worldNodes[row][column] != null && cell.needsRedraw()) {
+                    root.getChildren().remove(worldNodes[row][column]);
+                    Node cv = new CellVisualisation(cell).getNode();
+                    worldNodes[row][column] = cv;
+                    root.getChildren().add(cv);
+                    cv.toBack();
+                    cell.clearNeedsRedrawFlag();
+                }
+            }
+            return;
+        }
+
+        // only a full redraw needs every cell, which creates any cells not
+        // fetched yet
         final Cell[][] cells = game.getWorld().getMap().getCells();
         int rows = game.getWorld().getMap().getMapSize(), columns = rows;
 
@@ -540,7 +571,9 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
     }
 
     @Override
-    public void onPlayerCooldownChanged(PlayerCooldownChangedEventArgs args) {
+    public void onPlayerCooldownChanged(PlayerCooldownChangedEventArgs eventArgs) {
+        // the event arguments are reused once this returns, so keep a copy
+        final PlayerCooldownChangedEventArgs args = eventArgs.copy();
         Platform.runLater(() -> {
             if(args.getSlot() == 'q') { //laser
                 if (args.getCooldownLevel() < 20) {
@@ -578,25 +611,25 @@ public class Render implements GameDisplayInvalidatedListener, GameEndedListener
                 Position shoutStopPosition;
                 switch ((int) direction) {
                     case 90:
-                        shoutStopPosition = new Position(CellSize.Rows, player.getPosition().getColumn());
+                        shoutStopPosition = Position.of(CellSize.Rows, player.getPosition().getColumn());
                         shoutStopNode = new CellVisualisation(new Cell(CellState.LASER, shoutStopPosition)).getNode();
                         shout.setRotate(90);
                         break;
                     case 0:
-                        shoutStopPosition = new Position(player.getPosition().getRow(), CellSize.Columns);
+                        shoutStopPosition = Position.of(player.getPosition().getRow(), CellSize.Columns);
                         shoutStopNode = new CellVisualisation(new Cell(CellState.LASER, shoutStopPosition)).getNode();
                         break;
                     case -90:
-                        shoutStopPosition = new Position(0, player.getPosition().getColumn());
+                        shoutStopPosition = Position.of(0, player.getPosition().getColumn());
                         shoutStopNode = new CellVisualisation(new Cell(CellState.LASER, shoutStopPosition)).getNode();
                         shout.setRotate(90);
                         break;
                     case 180:
-                        shoutStopPosition = new Position(player.getPosition().getRow(), 0);
+                        shoutStopPosition = Position.of(player.getPosition().getRow(), 0);
                         shoutStopNode = new CellVisualisation(new Cell(CellState.LASER, shoutStopPosition)).getNode();
                         break;
                     default:
-                        shoutStopPosition = new Position(0, 0);
+                        shoutStopPosition = Position.of(0, 0);
                         shoutStopNode = new CellVisualisation(new Cell(CellState.LASER, shoutStopPosition)).getNode();
                         break;
 
@@ -0,0 +1,35 @@
+package main.java.networking;
+
+/**
+ * Represents the client end of a connection to a server, which is assigned an
+ * ID by the server it connects to.
+ */
+public interface ClientSocket extends NetworkSocket {
+	/**
+	 * Connects to the server and starts sending and receiving data.
+	 */
+	public void start();
+
+	/**
+	 * Gets the ID assigned to this client by the server.
+	 *
+	 * @return The ID of this client.
+	 */
+	public int getClientID();
+
+	/**
+	 * Sets the ID assigned to this client by the server, as received in the
+	 * server handshake.
+	 *
+	 * @param clientID
+	 *            The ID assigned to this client by the server.
+	 */
+	public void setClientID(int clientID);
+
+	/**
+	 * Gets the round-trip times measured on this connection.
+	 *
+	 * @return The round-trip time estimator of this connection.
+	 */
+	public RttEstimator getRoundTripTimes();
+}
@@ -0,0 +1,240 @@
+package main.java.networking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate at which each connected client may send packets to the
+ * server. Every client has a separate {@link TokenBucket} for each packet type
+ * with a limit of its own, so a client flooding the server with, for example,
+ * "player-moved" packets cannot starve its own (or anybody else's) other
+ * packets. All of the packet types without a limit of their own share a single
+ * bucket for each client, so a client cannot get around the default limit by
+ * varying the names of the packets it sends.
+ *
+ * Packets which arrive while the relevant bucket is empty are dropped and
+ * counted. A client which has too many packets dropped within one second is
+ * considered an offender, and should be disconnected by the owner of the
+ * limiter.
+ */
+public class InboundRateLimiter {
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final Map<String, Limit> limits;
+	private Limit defaultLimit;
+	private int maxDroppedPerSecond;
+	private final Map<Integer, ClientState> clients;
+	private final LongSupplier clock;
+
+	/**
+	 * Creates a new rate limiter, with the given default limit shared by all of
+	 * the packet types which do not have a specific limit set, measuring time
+	 * with {@link System#nanoTime()}.
+	 *
+	 * @param defaultRatePerSecond
+	 *            The number of packets per second allowed by default.
+	 * @param defaultBurst
+	 *            The largest burst of packets allowed at once by default.
+	 * @param maxDroppedPerSecond
+	 *            The number of packets which a client may have dropped within
+	 *            one second before it is considered an offender.
+	 */
+	public InboundRateLimiter(final double defaultRatePerSecond, final int defaultBurst,
+			final int maxDroppedPerSecond) {
+		this(defaultRatePerSecond, defaultBurst, maxDroppedPerSecond, System::nanoTime);
+	}
+
+	/**
+	 * Creates a new rate limiter which reads the time from the given clock.
+	 *
+	 * @param defaultRatePerSecond
+	 *            The number of packets per second allowed by default.
+	 * @param defaultBurst
+	 *            The largest burst of packets allowed at once by default.
+	 * @param maxDroppedPerSecond
+	 *            The number of packets which a client may have dropped within
+	 *            one second before it is considered an offender.
+	 * @param clock
+	 *            A source of the current time, in nanoseconds.
+	 */
+	public InboundRateLimiter(final double defaultRatePerSecond, final int defaultBurst,
+			final int maxDroppedPerSecond, final LongSupplier clock) {
+		this.limits = new ConcurrentHashMap<>();
+		this.defaultLimit = new Limit(defaultRatePerSecond, defaultBurst);
+		this.maxDroppedPerSecond = maxDroppedPerSecond;
+		this.clients = new ConcurrentHashMap<>();
+		this.clock = clock;
+	}
+
+	/**
+	 * Creates a rate limiter with limits suitable for the packets sent by
+	 * {@link main.java.networking.integration.ClientInstance}. A well-behaved
+	 * client moves at most once per game step, sending at most two
+	 * "player-moved" packets per move (one for the angle change and one for the
+	 * position change), so these limits leave plenty of headroom for network
+	 * jitter.
+	 *
+	 * @return A rate limiter with the default limits.
+	 */
+	public static InboundRateLimiter createDefault() {
+		final InboundRateLimiter limiter = new InboundRateLimiter(20, 40, 100);
+		limiter.setLimit("player-moved", 30, 30);
+		limiter.setLimit("use-ability", 10, 5);
+		return limiter;
+	}
+
+	/**
+	 * Sets the limit for a specific packet type, so that it is no longer
+	 * counted against the default limit. This only affects buckets created
+	 * after the call, ie. clients which have not yet sent a packet of that
+	 * type.
+	 *
+	 * @param packetName
+	 *            The name of the packet to limit.
+	 * @param ratePerSecond
+	 *            The number of packets of this type allowed per second.
+	 * @param burst
+	 *            The largest burst of packets of this type allowed at once.
+	 */
+	public void setLimit(final String packetName, final double ratePerSecond, final int burst) {
+		limits.put(packetName, new Limit(ratePerSecond, burst));
+	}
+
+	/**
+	 * Sets the number of packets which a client may have dropped within one
+	 * second before it is considered an offender.
+	 *
+	 * @param maxDroppedPerSecond
+	 *            The new offence threshold.
+	 */
+	public void setMaxDroppedPerSecond(final int maxDroppedPerSecond) {
+		this.maxDroppedPerSecond = maxDroppedPerSecond;
+	}
+
+	/**
+	 * Determines whether a packet of the given type from the given client
+	 * should be processed. If not, the packet is counted as dropped.
+	 *
+	 * @param clientID
+	 *            The ID of the client who sent the packet.
+	 * @param packetName
+	 *            The name of the packet that was sent, or {@code null} if the
+	 *            packet has no readable name.
+	 * @return {@code true} if the packet is within the client's limits and
+	 *         should be processed; {@code false} if it should be dropped.
+	 */
+	public boolean allow(final int clientID, final String packetName) {
+		final long now = clock.getAsLong();
+		final ClientState state = clients.computeIfAbsent(clientID,
+				id -> new ClientState(new TokenBucket(defaultLimit.ratePerSecond, defaultLimit.burst, now), now));
+		final Limit limit = packetName != null ? limits.get(packetName) : null;
+
+		synchronized (state) {
+			TokenBucket bucket;
+			if (limit == null) {
+				bucket = state.otherBucket;
+			} else {
+				bucket = state.buckets.get(packetName);
+				if (bucket == null) {
+					bucket = new TokenBucket(limit.ratePerSecond, limit.burst, now);
+					state.buckets.put(packetName, bucket);
+				}
+			}
+
+			if (bucket.tryConsume(now)) {
+				return true;
+			} else {
+				if (now - state.windowStart >= NANOS_PER_SECOND) {
+					state.windowStart = now;
+					state.droppedInWindow = 0;
+				}
+				state.droppedInWindow++;
+				state.droppedTotal++;
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the given client has had more packets dropped within
+	 * the last second than is permitted.
+	 *
+	 * @param clientID
+	 *            The ID of the client to check.
+	 * @return {@code true} if the client should be disconnected.
+	 */
+	public boolean isOffender(final int clientID) {
+		final ClientState state = clients.get(clientID);
+
+		if (state != null) {
+			synchronized (state) {
+				return state.droppedInWindow > maxDroppedPerSecond;
+			}
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the number of packets dropped from the given client since it
+	 * connected.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @return The number of dropped packets.
+	 */
+	public long getDroppedPacketCount(final int clientID) {
+		final ClientState state = clients.get(clientID);
+
+		if (state != null) {
+			synchronized (state) {
+				return state.droppedTotal;
+			}
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Forgets all state kept about the given client. This should be called
+	 * when the client disconnects.
+	 *
+	 * @param clientID
+	 *            The ID of the client to forget.
+	 */
+	public void removeClient(final int clientID) {
+		clients.remove(clientID);
+	}
+
+	/**
+	 * The rate and burst size allowed for a type of packet.
+	 */
+	private static class Limit {
+		private final double ratePerSecond;
+		private final int burst;
+
+		public Limit(final double ratePerSecond, final int burst) {
+			this.ratePerSecond = ratePerSecond;
+			this.burst = burst;
+		}
+	}
+
+	/**
+	 * The token buckets and drop counters of a single client.
+	 */
+	private static class ClientState {
+		private final HashMap<String, TokenBucket> buckets;
+		private final TokenBucket otherBucket;
+		private long windowStart;
+		private int droppedInWindow;
+		private long droppedTotal;
+
+		public ClientState(final TokenBucket otherBucket, final long now) {
+			this.buckets = new HashMap<>();
+			this.otherBucket = otherBucket;
+			windowStart = now;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package main.java.networking;
+
+import main.java.networking.data.Packet;
+
+/**
+ * Represents an object which may listen to a {@link PacketSocket} for packets
+ * from the remote end of the connection.
+ */
+public interface PacketListener {
+	/**
+	 * Called when a packet is received by the socket.
+	 *
+	 * @param packet
+	 *            The received packet.
+	 */
+	public void receivePacket(Packet packet);
+}
@@ -0,0 +1,30 @@
+package main.java.networking;
+
+import main.java.event.Event;
+import main.java.networking.data.Packet;
+
+/**
+ * Represents a socket which can pass {@link Packet} objects directly to the
+ * remote socket, without converting them to binary data first. This is only
+ * possible when both ends of the connection are in the same process.
+ *
+ * Packets sent through a packet socket are shared with the receiving end, so
+ * they must not be modified after being sent.
+ */
+public interface PacketSocket extends NetworkSocket {
+	/**
+	 * Sends a packet to the remotely connected socket.
+	 *
+	 * @param packet
+	 *            The packet to send.
+	 */
+	public void sendPacket(Packet packet);
+
+	/**
+	 * Gets the event which is fired when a packet is received from the remote
+	 * socket.
+	 *
+	 * @return The packet reception event.
+	 */
+	public Event<PacketListener, Packet> getPacketReceiveEvent();
+}
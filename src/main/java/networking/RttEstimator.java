@@ -0,0 +1,106 @@
+package main.java.networking;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the round-trip times measured on a connection. A smoothed
+ * estimate is kept as an exponentially-weighted moving average (weighting new
+ * samples by 1/8, as TCP does), and the most recent samples are kept so that
+ * percentiles can be calculated.
+ */
+public class RttEstimator {
+	private static final double SMOOTHING = 0.125;
+	private static final int WINDOW_SIZE = 128;
+
+	private final long[] window;
+	private int windowCount;
+	private int windowNext;
+	private double smoothedNanos;
+	private long latestNanos;
+	private long sampleCount;
+
+	/**
+	 * Creates a new estimator with no samples.
+	 */
+	public RttEstimator() {
+		window = new long[WINDOW_SIZE];
+		windowCount = 0;
+		windowNext = 0;
+		sampleCount = 0;
+	}
+
+	/**
+	 * Adds a measured round-trip time.
+	 *
+	 * @param rttNanos
+	 *            The measured round-trip time, in nanoseconds.
+	 */
+	public synchronized void addSample(final long rttNanos) {
+		if (sampleCount == 0) {
+			smoothedNanos = rttNanos;
+		} else {
+			smoothedNanos += SMOOTHING * (rttNanos - smoothedNanos);
+		}
+		latestNanos = rttNanos;
+		sampleCount++;
+
+		window[windowNext] = rttNanos;
+		windowNext = (windowNext + 1) % WINDOW_SIZE;
+		windowCount = Math.min(windowCount + 1, WINDOW_SIZE);
+	}
+
+	/**
+	 * Gets the number of round-trip times measured so far.
+	 *
+	 * @return The number of samples.
+	 */
+	public synchronized long getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Gets the smoothed round-trip time.
+	 *
+	 * @return The smoothed round-trip time in nanoseconds, or {@code 0} if no
+	 *         samples have been measured.
+	 */
+	public synchronized long getSmoothedNanos() {
+		return (long) smoothedNanos;
+	}
+
+	/**
+	 * Gets the most recently measured round-trip time.
+	 *
+	 * @return The latest round-trip time in nanoseconds, or {@code 0} if no
+	 *         samples have been measured.
+	 */
+	public synchronized long getLatestNanos() {
+		return latestNanos;
+	}
+
+	/**
+	 * Gets a percentile of the recently measured round-trip times.
+	 *
+	 * @param percentile
+	 *            The percentile to get, between 0 and 100 (eg. 99 for the
+	 *            99th percentile).
+	 * @return The round-trip time in nanoseconds which the given percentage
+	 *         of recent samples are at or below, or {@code 0} if no samples
+	 *         have been measured.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the percentile is not between 0 and 100.
+	 */
+	public synchronized long getPercentileNanos(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+		}
+		if (windowCount == 0) {
+			return 0;
+		}
+
+		final long[] sorted = Arrays.copyOf(window, windowCount);
+		Arrays.sort(sorted);
+		final int index = (int) Math.ceil(percentile / 100 * windowCount) - 1;
+		return sorted[Math.max(0, index)];
+	}
+}
@@ -2,7 +2,10 @@ package main.java.networking;
 
 import java.nio.charset.StandardCharsets;
 
+import main.java.event.Event;
 import main.java.networking.data.Packet;
+import main.java.networking.data.TrafficRecord;
+import main.java.networking.data.TrafficRecord.Direction;
 import main.java.networking.event.ClientTrigger;
 
 /**
@@ -12,11 +15,15 @@ import main.java.networking.event.ClientTrigger;
  * a network-transmissible form, and returning that as binary data (ie. a byte
  * array).
  *
+ * If the underlying socket is a {@link PacketSocket}, packets are passed to and
+ * from it directly, skipping the conversion to binary data.
+ *
  * @author Tom Galvin
  */
-public class StandardClientManager implements ClientManager, NetworkListener {
+public class StandardClientManager implements ClientManager, NetworkListener, PacketListener {
 	private NetworkSocket socket;
 	private ClientTrigger trigger;
+	private Event<TrafficListener, TrafficRecord> trafficEvent;
 
 	/**
 	 * Initialize a new {@code ClientNetworkManager} with the given underlying
@@ -27,8 +34,13 @@ public class StandardClientManager implements ClientManager, NetworkListener {
 	 */
 	public StandardClientManager(final NetworkSocket socket) {
 		this.socket = socket;
-		this.socket.getReceiveEvent().addListener(this);
+		if (socket instanceof PacketSocket) {
+			((PacketSocket) socket).getPacketReceiveEvent().addListener(this);
+		} else {
+			this.socket.getReceiveEvent().addListener(this);
+		}
 		trigger = null;
+		trafficEvent = new Event<>((l, r) -> l.onTraffic(r));
 	}
 
 	@Override
@@ -41,10 +53,48 @@ public class StandardClientManager implements ClientManager, NetworkListener {
 		return trigger;
 	}
 
+	/**
+	 * Gets the event which is fired for every packet sent to or received from
+	 * the server, for traffic accounting. The client ID of every record is
+	 * {@code -1}.
+	 *
+	 * @return The traffic event.
+	 */
+	public Event<TrafficListener, TrafficRecord> getTrafficEvent() {
+		return trafficEvent;
+	}
+
 	@Override
 	public void receive(final byte[] receivedData) {
+		final long decodeStart = System.nanoTime();
 		final String receivedString = new String(receivedData, StandardCharsets.UTF_8);
 		final Packet receivedPacket = Packet.fromString(receivedString);
+		final long decodeNanos = System.nanoTime() - decodeStart;
+
+		trigger(receivedPacket, receivedData.length, decodeNanos);
+	}
+
+	@Override
+	public void receivePacket(final Packet receivedPacket) {
+		trigger(receivedPacket, 0, 0);
+	}
+
+	/**
+	 * Records a received packet and passes it to the current trigger.
+	 *
+	 * @param receivedPacket
+	 *            The received packet.
+	 * @param size
+	 *            The size of the packet in bytes, or {@code 0} if it was not
+	 *            received as binary data.
+	 * @param decodeNanos
+	 *            The time taken to decode the packet, in nanoseconds.
+	 */
+	private void trigger(final Packet receivedPacket, final int size, final long decodeNanos) {
+		if (trafficEvent.hasListeners()) {
+			trafficEvent.fire(new TrafficRecord(System.currentTimeMillis(), Direction.RECEIVED, -1,
+					receivedPacket.getPacketName(), size, decodeNanos));
+		}
 
 		if (trigger != null) {
 			trigger.trigger(receivedPacket);
@@ -55,8 +105,23 @@ public class StandardClientManager implements ClientManager, NetworkListener {
 
 	@Override
 	public void dispatch(final Packet packet) {
-		final String stringToSend = packet.toString();
-		final byte[] dataToSend = stringToSend.getBytes(StandardCharsets.UTF_8);
-		socket.send(dataToSend);
+		long encodeNanos = 0;
+		int size = 0;
+
+		if (socket instanceof PacketSocket) {
+			((PacketSocket) socket).sendPacket(packet);
+		} else {
+			final long encodeStart = System.nanoTime();
+			final String stringToSend = packet.toString();
+			final byte[] dataToSend = stringToSend.getBytes(StandardCharsets.UTF_8);
+			encodeNanos = System.nanoTime() - encodeStart;
+			socket.send(dataToSend);
+			size = dataToSend.length;
+		}
+
+		if (trafficEvent.hasListeners()) {
+			trafficEvent.fire(new TrafficRecord(System.currentTimeMillis(), Direction.SENT, -1,
+					packet.getPacketName(), size, encodeNanos));
+		}
 	}
 }
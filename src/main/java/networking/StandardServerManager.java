@@ -4,7 +4,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
+import main.java.event.Event;
 import main.java.networking.data.Packet;
+import main.java.networking.data.TrafficRecord;
+import main.java.networking.data.TrafficRecord.Direction;
 import main.java.networking.event.ClientConnectedListener;
 import main.java.networking.event.ClientDisconnectedListener;
 import main.java.networking.event.ServerTrigger;
@@ -16,12 +19,18 @@ import main.java.networking.event.ServerTrigger;
  * a network-transmissible form, and returning that as binary data (ie. a byte
  * array).
  *
+ * Clients connected through a {@link PacketSocket} (ie. the hosting player's
+ * own client) are sent and received packets directly, skipping the conversion
+ * to binary data.
+ *
  * @author Tom Galvin
  */
 public class StandardServerManager implements ServerManager, ClientConnectedListener, ClientDisconnectedListener {
 	private NetworkServer server;
 	private ServerTrigger trigger;
 	private Map<Integer, NetworkListener> clientListeners;
+	private InboundRateLimiter rateLimiter;
+	private Event<TrafficListener, TrafficRecord> trafficEvent;
 
 	/**
 	 * Initialize a new {@code ServerNetworkManager} with the given underlying
@@ -36,6 +45,8 @@ public class StandardServerManager implements ServerManager, ClientConnectedList
 		this.server.getClientDisconnectedEvent().addListener(this);
 		trigger = null;
 		clientListeners = new HashMap<Integer, NetworkListener>();
+		rateLimiter = InboundRateLimiter.createDefault();
+		trafficEvent = new Event<>((l, r) -> l.onTraffic(r));
 	}
 
 	@Override
@@ -48,10 +59,98 @@ public class StandardServerManager implements ServerManager, ClientConnectedList
 		return trigger;
 	}
 
+	/**
+	 * Sets the rate limiter used to drop packets from clients which send them
+	 * too quickly.
+	 *
+	 * @param rateLimiter
+	 *            The rate limiter to use, or {@code null} to accept every
+	 *            packet.
+	 */
+	public void setRateLimiter(final InboundRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * Gets the rate limiter used to drop packets from clients which send them
+	 * too quickly.
+	 *
+	 * @return The current rate limiter, or {@code null} if none is used.
+	 */
+	public InboundRateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Gets the event which is fired for every packet sent to or received from
+	 * a client, for traffic accounting.
+	 *
+	 * @return The traffic event.
+	 */
+	public Event<TrafficListener, TrafficRecord> getTrafficEvent() {
+		return trafficEvent;
+	}
+
 	public void receive(final int clientID, final byte[] receivedData) {
+		if (rateLimiter != null && !rateLimiter.allow(clientID, Packet.readPacketName(receivedData))) {
+			/*
+			 * The packet is dropped before it is decoded, so that a flooding
+			 * client costs us as little as possible. Clients which keep
+			 * flooding are disconnected.
+			 */
+			if (rateLimiter.isOffender(clientID)) {
+				disconnect(clientID);
+			}
+			return;
+		}
+
+		final long decodeStart = System.nanoTime();
 		final String receivedString = new String(receivedData, StandardCharsets.UTF_8);
 		final Packet receivedPacket = Packet.fromString(receivedString);
+		final long decodeNanos = System.nanoTime() - decodeStart;
+
+		if (trafficEvent.hasListeners()) {
+			trafficEvent.fire(new TrafficRecord(System.currentTimeMillis(), Direction.RECEIVED, clientID,
+					receivedPacket.getPacketName(), receivedData.length, decodeNanos));
+		}
+
+		trigger(clientID, receivedPacket);
+	}
+
+	/**
+	 * Handles a packet received directly from a client connected through a
+	 * {@link PacketSocket}.
+	 *
+	 * @param clientID
+	 *            The ID of the client who sent the packet.
+	 * @param receivedPacket
+	 *            The received packet.
+	 */
+	public void receivePacket(final int clientID, final Packet receivedPacket) {
+		if (rateLimiter != null && !rateLimiter.allow(clientID, receivedPacket.getPacketName())) {
+			if (rateLimiter.isOffender(clientID)) {
+				disconnect(clientID);
+			}
+			return;
+		}
 
+		if (trafficEvent.hasListeners()) {
+			trafficEvent.fire(new TrafficRecord(System.currentTimeMillis(), Direction.RECEIVED, clientID,
+					receivedPacket.getPacketName(), 0, 0));
+		}
+
+		trigger(clientID, receivedPacket);
+	}
+
+	/**
+	 * Passes a received packet to the current trigger.
+	 *
+	 * @param clientID
+	 *            The ID of the client who sent the packet.
+	 * @param receivedPacket
+	 *            The received packet.
+	 */
+	private void trigger(final int clientID, final Packet receivedPacket) {
 		if (trigger != null) {
 			trigger.trigger(clientID, receivedPacket);
 		} else {
@@ -61,26 +160,21 @@ public class StandardServerManager implements ServerManager, ClientConnectedList
 
 	@Override
 	public void dispatch(final int recipientID, final Packet packet) {
-		final String stringToSend = packet.toString();
-		final byte[] dataToSend = stringToSend.getBytes(StandardCharsets.UTF_8);
-
-		server.getClient(recipientID).send(dataToSend);
+		send(recipientID, packet, null);
 	}
 
 	@Override
 	public void dispatchAll(final Packet packet) {
-		final String stringToSend = packet.toString();
-		final byte[] dataToSend = stringToSend.getBytes(StandardCharsets.UTF_8);
+		byte[] dataToSend = null;
 
 		for (final int id : server.getConnectedClients()) {
-			server.getClient(id).send(dataToSend);
+			dataToSend = send(id, packet, dataToSend);
 		}
 	}
 
 	@Override
 	public void dispatchAllExcept(final Packet packet, final int... clientIDs) {
-		final String stringToSend = packet.toString();
-		final byte[] dataToSend = stringToSend.getBytes(StandardCharsets.UTF_8);
+		byte[] dataToSend = null;
 
 		outer: for (final int id : server.getConnectedClients()) {
 			for (int i = 0; i < clientIDs.length; i++) {
@@ -89,20 +183,83 @@ public class StandardServerManager implements ServerManager, ClientConnectedList
 				}
 			}
 
-			server.getClient(id).send(dataToSend);
+			dataToSend = send(id, packet, dataToSend);
+		}
+	}
+
+	/**
+	 * Sends a packet to a single client. The packet is only converted to
+	 * binary data when it is first sent to a client which is not a
+	 * {@link PacketSocket}, so that sending to many clients converts it at
+	 * most once.
+	 *
+	 * @param clientID
+	 *            The ID of the client to send the packet to.
+	 * @param packet
+	 *            The packet to send.
+	 * @param dataToSend
+	 *            The packet already converted to binary data, or {@code null}
+	 *            if it has not been converted yet.
+	 * @return The packet converted to binary data, or {@code null} if it
+	 *         still has not been converted.
+	 */
+	private byte[] send(final int clientID, final Packet packet, byte[] dataToSend) {
+		final NetworkSocket socket = server.getClient(clientID);
+		long encodeNanos = 0;
+		int size = 0;
+
+		if (socket instanceof PacketSocket) {
+			((PacketSocket) socket).sendPacket(packet);
+		} else {
+			if (dataToSend == null) {
+				final long encodeStart = System.nanoTime();
+				dataToSend = packet.toString().getBytes(StandardCharsets.UTF_8);
+				encodeNanos = System.nanoTime() - encodeStart;
+			}
+			socket.send(dataToSend);
+			size = dataToSend.length;
+		}
+
+		if (trafficEvent.hasListeners()) {
+			trafficEvent.fire(new TrafficRecord(System.currentTimeMillis(), Direction.SENT, clientID,
+					packet.getPacketName(), size, encodeNanos));
+		}
+		return dataToSend;
+	}
+
+	/**
+	 * Forcibly disconnects the client with the given ID, if it is still
+	 * connected.
+	 *
+	 * @param clientID
+	 *            The ID of the client to disconnect.
+	 */
+	private void disconnect(final int clientID) {
+		if (server.getConnectedClients().contains(clientID)) {
+			server.getClient(clientID).die();
 		}
 	}
 
 	@Override
 	public void onClientDisconnected(final int clientID) {
 		clientListeners.remove(clientID);
+		if (rateLimiter != null) {
+			rateLimiter.removeClient(clientID);
+		}
 	}
 
 	@Override
 	public void onClientConnected(final int clientID) {
 		final StandardServerManager thisManager = this;
-		final NetworkListener l = receivedData -> thisManager.receive(clientID, receivedData);
-		server.getClient(clientID).getReceiveEvent().addListener(l);
-		clientListeners.put(clientID, l);
+		final NetworkSocket client = server.getClient(clientID);
+
+		if (client instanceof PacketSocket) {
+			((PacketSocket) client).getPacketReceiveEvent()
+					.addListener(receivedPacket -> thisManager.receivePacket(clientID, receivedPacket));
+		} else {
+			final NetworkListener l = receivedData -> thisManager.receive(clientID, receivedData);
+			client.getReceiveEvent().addListener(l);
+			clientListeners.put(clientID, l);
+		}
 	}
 }
@@ -0,0 +1,85 @@
+package main.java.networking;
+
+/**
+ * A simple token bucket, which refills at a constant rate up to a maximum
+ * capacity. Each permitted action consumes a single token; when the bucket is
+ * empty the action is refused until enough time has passed for the bucket to
+ * refill.
+ *
+ * Time is passed in explicitly (in nanoseconds, as returned by
+ * {@link System#nanoTime()}) so that the owner of the bucket can read the clock
+ * once for many buckets, and so that buckets can be tested deterministically.
+ */
+public class TokenBucket {
+	private final double capacity;
+	private final double tokensPerNano;
+	private double tokens;
+	private long lastRefill;
+
+	/**
+	 * Creates a new, full token bucket.
+	 *
+	 * @param ratePerSecond
+	 *            The number of tokens added to the bucket every second.
+	 * @param capacity
+	 *            The maximum number of tokens the bucket can hold (ie. the
+	 *            largest burst of actions allowed at once).
+	 * @param now
+	 *            The current time, in nanoseconds.
+	 */
+	public TokenBucket(final double ratePerSecond, final int capacity, final long now) {
+		if (ratePerSecond <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException("Token bucket rate and capacity must be positive.");
+		}
+		this.capacity = capacity;
+		this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+		this.tokens = capacity;
+		this.lastRefill = now;
+	}
+
+	/**
+	 * Attempts to take a single token from the bucket.
+	 *
+	 * @param now
+	 *            The current time, in nanoseconds.
+	 * @return {@code true} if a token was available and has been consumed;
+	 *         {@code false} if the bucket is empty.
+	 */
+	public boolean tryConsume(final long now) {
+		refill(now);
+
+		if (tokens >= 1) {
+			tokens -= 1;
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the number of whole tokens currently in the bucket.
+	 *
+	 * @param now
+	 *            The current time, in nanoseconds.
+	 * @return The number of available tokens.
+	 */
+	public int getAvailableTokens(final long now) {
+		refill(now);
+		return (int) tokens;
+	}
+
+	/**
+	 * Adds the tokens accumulated since the last refill to the bucket.
+	 *
+	 * @param now
+	 *            The current time, in nanoseconds.
+	 */
+	private void refill(final long now) {
+		final long elapsed = now - lastRefill;
+
+		if (elapsed > 0) {
+			tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+			lastRefill = now;
+		}
+	}
+}
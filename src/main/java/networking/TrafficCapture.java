@@ -0,0 +1,114 @@
+package main.java.networking;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import main.java.networking.data.TrafficRecord;
+
+/**
+ * Records every packet sent or received by a client or server manager to a
+ * capture file, one tab-separated line per packet, so that real traffic can be
+ * analysed afterwards with {@link TrafficCaptureAnalyzer}.
+ *
+ * Each line contains the timestamp in milliseconds, the direction ("SENT" or
+ * "RECEIVED"), the client ID, the packet name, the size in bytes and the
+ * encode/decode time in nanoseconds. Only the size and type of each packet is
+ * recorded, not its contents.
+ */
+public class TrafficCapture implements TrafficListener, Closeable {
+	/**
+	 * The first line of every capture file.
+	 */
+	public static final String HEADER = "# traffic capture: timestamp direction client packet size codec-nanos";
+
+	/**
+	 * The system property which, if set, gives the path prefix of the capture
+	 * files opened by {@link #openIfEnabled(String)}.
+	 */
+	public static final String CAPTURE_PROPERTY = "pacman.traffic.capture";
+
+	private final Writer writer;
+	private boolean failed;
+
+	/**
+	 * Creates a new capture, writing to the given writer.
+	 *
+	 * @param writer
+	 *            The writer to write captured packets to.
+	 */
+	public TrafficCapture(final Writer writer) {
+		this.writer = writer;
+		this.failed = false;
+		write(HEADER);
+	}
+
+	/**
+	 * Creates a new capture file, replacing any existing file.
+	 *
+	 * @param file
+	 *            The file to write captured packets to.
+	 * @return The new capture.
+	 * @throws IOException
+	 *             Thrown when the file cannot be created.
+	 */
+	public static TrafficCapture open(final File file) throws IOException {
+		return new TrafficCapture(
+				new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Opens a capture file if the {@value #CAPTURE_PROPERTY} system property is
+	 * set. The file is named after the property value and the given label, so
+	 * that a server and a client in the same process (ie. the host) write to
+	 * different files.
+	 *
+	 * @param label
+	 *            A label identifying the capture (eg. "server").
+	 * @return The new capture, or {@code null} if capturing is not enabled or
+	 *         the file cannot be created.
+	 */
+	public static TrafficCapture openIfEnabled(final String label) {
+		final String prefix = System.getProperty(CAPTURE_PROPERTY);
+		if (prefix == null || prefix.isEmpty()) {
+			return null;
+		}
+
+		final File file = new File(prefix + "-" + label + ".tsv");
+		try {
+			return open(file);
+		} catch (final IOException e) {
+			System.out.println("Could not open traffic capture " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public void onTraffic(final TrafficRecord record) {
+		write(record.getTimestamp() + "\t" + record.getDirection() + "\t" + record.getClientID() + "\t"
+				+ record.getPacketName() + "\t" + record.getSize() + "\t" + record.getCodecNanos());
+	}
+
+	private synchronized void write(final String line) {
+		if (!failed) {
+			try {
+				writer.write(line);
+				writer.write('\n');
+			} catch (final IOException e) {
+				// don't let a full disk break the game, just stop capturing
+				failed = true;
+				System.out.println("Could not write traffic capture: " + e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
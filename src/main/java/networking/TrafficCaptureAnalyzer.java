@@ -0,0 +1,101 @@
+package main.java.networking;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Reads a capture file written by {@link TrafficCapture} and prints, for each
+ * packet type and direction, the number of packets, the total and average
+ * size, and a histogram of packet sizes in power-of-two buckets.
+ *
+ * Usage: {@code TrafficCaptureAnalyzer <capture file>}
+ */
+public class TrafficCaptureAnalyzer {
+	private static final int HISTOGRAM_WIDTH = 40;
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.out.println("Usage: TrafficCaptureAnalyzer <capture file>");
+			return;
+		}
+
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+			System.out.print(analyze(reader));
+		}
+	}
+
+	/**
+	 * Analyses a capture.
+	 *
+	 * @param reader
+	 *            A reader over the contents of the capture file.
+	 * @return The analysis, as human-readable text.
+	 * @throws IOException
+	 *             Thrown when the capture cannot be read.
+	 */
+	public static String analyze(final BufferedReader reader) throws IOException {
+		final TreeMap<String, List<Integer>> sizes = new TreeMap<>();
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			final String[] fields = line.split("\t");
+			if (fields.length < 5) {
+				throw new IOException("Malformed capture line: " + line);
+			}
+			final String key = fields[3] + " (" + fields[1].toLowerCase() + ")";
+			sizes.computeIfAbsent(key, k -> new ArrayList<>()).add(Integer.parseInt(fields[4]));
+		}
+
+		final StringBuilder out = new StringBuilder();
+		for (final String key : sizes.keySet()) {
+			final List<Integer> packetSizes = sizes.get(key);
+			long total = 0;
+			final TreeMap<Integer, Integer> buckets = new TreeMap<>();
+			for (final int size : packetSizes) {
+				total += size;
+				buckets.merge(bucketOf(size), 1, Integer::sum);
+			}
+
+			out.append(String.format("%s: %d packets, %d bytes, %.1f bytes average%n", key, packetSizes.size(), total,
+					(double) total / packetSizes.size()));
+
+			final int largest = buckets.values().stream().max(Integer::compare).get();
+			for (final int bucket : buckets.keySet()) {
+				final int count = buckets.get(bucket);
+				final int bar = Math.max(1, count * HISTOGRAM_WIDTH / largest);
+				out.append(String.format("  %8s %7d %s%n", bucketLabel(bucket), count, repeat('#', bar)));
+			}
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Gets the histogram bucket of a packet size: bucket {@code b} holds sizes
+	 * in the range [2^(b-1), 2^b), and bucket 0 holds packets with no size.
+	 */
+	private static int bucketOf(final int size) {
+		return size <= 0 ? 0 : 32 - Integer.numberOfLeadingZeros(size);
+	}
+
+	private static String bucketLabel(final int bucket) {
+		return bucket == 0 ? "0" : "<" + (1L << bucket);
+	}
+
+	private static String repeat(final char c, final int count) {
+		final StringBuilder s = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			s.append(c);
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,17 @@
+package main.java.networking;
+
+import main.java.networking.data.TrafficRecord;
+
+/**
+ * Represents an object which may listen to the packets sent and received by a
+ * client or server manager.
+ */
+public interface TrafficListener {
+	/**
+	 * Called when a packet has been sent or received.
+	 *
+	 * @param record
+	 *            The details of the packet.
+	 */
+	public void onTraffic(TrafficRecord record);
+}
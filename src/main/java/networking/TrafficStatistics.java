@@ -0,0 +1,333 @@
+package main.java.networking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+
+import main.java.networking.data.TrafficRecord;
+import main.java.networking.data.TrafficRecord.Direction;
+
+/**
+ * Counts the packets and bytes sent and received for each packet type and each
+ * client, along with the time spent encoding and decoding them and the time
+ * spent by packets waiting in the send queue of each client.
+ *
+ * An instance should be added as a listener to the traffic event of a
+ * {@link StandardServerManager} or {@link StandardClientManager}. Queue wait
+ * times are reported separately by the sockets themselves.
+ */
+public class TrafficStatistics implements TrafficListener {
+	/**
+	 * The system property which, if set, gives the interval in seconds at which
+	 * {@link #startLoggingIfEnabled(String)} prints summaries.
+	 */
+	public static final String LOG_INTERVAL_PROPERTY = "pacman.traffic.log";
+
+	private final Map<Integer, Map<String, Totals>> totals;
+	private final Map<Integer, QueueWait> queueWaits;
+	private Timer logTimer;
+
+	/**
+	 * Creates a new, empty set of traffic statistics.
+	 */
+	public TrafficStatistics() {
+		totals = new ConcurrentHashMap<>();
+		queueWaits = new ConcurrentHashMap<>();
+		logTimer = null;
+	}
+
+	@Override
+	public void onTraffic(final TrafficRecord record) {
+		final Totals t = totals.computeIfAbsent(record.getClientID(), id -> new ConcurrentHashMap<>())
+				.computeIfAbsent(record.getPacketName(), name -> new Totals());
+
+		synchronized (t) {
+			if (record.getDirection() == Direction.SENT) {
+				t.sentPackets++;
+				t.sentBytes += record.getSize();
+				t.encodeNanos += record.getCodecNanos();
+			} else {
+				t.receivedPackets++;
+				t.receivedBytes += record.getSize();
+				t.decodeNanos += record.getCodecNanos();
+			}
+		}
+	}
+
+	/**
+	 * Records the time a packet spent in the send queue of a client before
+	 * being written to the network.
+	 *
+	 * @param clientID
+	 *            The ID of the client the packet was sent to.
+	 * @param waitNanos
+	 *            The time the packet spent in the queue, in nanoseconds.
+	 */
+	public void recordQueueWait(final int clientID, final long waitNanos) {
+		final QueueWait q = queueWaits.computeIfAbsent(clientID, id -> new QueueWait());
+
+		synchronized (q) {
+			q.packets++;
+			q.totalNanos += waitNanos;
+			q.maxNanos = Math.max(q.maxNanos, waitNanos);
+		}
+	}
+
+	/**
+	 * Forgets the totals and queue wait times of the given client, so that a
+	 * long-running server does not keep them for every client it has ever
+	 * had. This should be called when the client disconnects.
+	 *
+	 * @param clientID
+	 *            The ID of the client to forget.
+	 */
+	public void removeClient(final int clientID) {
+		totals.remove(clientID);
+		queueWaits.remove(clientID);
+	}
+
+	/**
+	 * Gets the IDs of all clients which packets have been sent to or received
+	 * from.
+	 *
+	 * @return A set of client IDs.
+	 */
+	public Set<Integer> getClientIDs() {
+		return new HashSet<>(totals.keySet());
+	}
+
+	/**
+	 * Gets the names of all packets which have been sent or received.
+	 *
+	 * @return A set of packet names.
+	 */
+	public Set<String> getPacketNames() {
+		final Set<String> names = new HashSet<>();
+		for (final Map<String, Totals> clientTotals : totals.values()) {
+			names.addAll(clientTotals.keySet());
+		}
+		return names;
+	}
+
+	/**
+	 * Gets the totals for one packet type, summed over all clients.
+	 *
+	 * @param packetName
+	 *            The name of the packet.
+	 * @return A snapshot of the totals for that packet type.
+	 */
+	public Totals getTotals(final String packetName) {
+		final Totals sum = new Totals();
+		for (final Map<String, Totals> clientTotals : totals.values()) {
+			final Totals t = clientTotals.get(packetName);
+			if (t != null) {
+				synchronized (t) {
+					sum.add(t);
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Gets the totals for one packet type and one client.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @param packetName
+	 *            The name of the packet.
+	 * @return A snapshot of the totals for that packet type and client.
+	 */
+	public Totals getTotals(final int clientID, final String packetName) {
+		final Totals snapshot = new Totals();
+		final Map<String, Totals> clientTotals = totals.get(clientID);
+		if (clientTotals != null) {
+			final Totals t = clientTotals.get(packetName);
+			if (t != null) {
+				synchronized (t) {
+					snapshot.add(t);
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Gets the average time packets have spent in the send queue of the given
+	 * client.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @return The average queue wait time, in nanoseconds.
+	 */
+	public long getAverageQueueWaitNanos(final int clientID) {
+		final QueueWait q = queueWaits.get(clientID);
+		if (q != null) {
+			synchronized (q) {
+				return q.packets > 0 ? q.totalNanos / q.packets : 0;
+			}
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Gets the longest time a packet has spent in the send queue of the given
+	 * client.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @return The maximum queue wait time, in nanoseconds.
+	 */
+	public long getMaxQueueWaitNanos(final int clientID) {
+		final QueueWait q = queueWaits.get(clientID);
+		if (q != null) {
+			synchronized (q) {
+				return q.maxNanos;
+			}
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Creates a human-readable summary of the statistics, with one line per
+	 * packet type (busiest first) followed by one line per client with queued
+	 * packets.
+	 *
+	 * @return The summary.
+	 */
+	public String getSummary() {
+		final List<String> names = new ArrayList<>(getPacketNames());
+		final Map<String, Totals> byName = new HashMap<>();
+		for (final String name : names) {
+			byName.put(name, getTotals(name));
+		}
+		names.sort((a, b) -> Long.compare(byName.get(b).getTotalBytes(), byName.get(a).getTotalBytes()));
+
+		final StringBuilder summary = new StringBuilder();
+		summary.append(String.format("%-28s %8s %10s %8s %10s %10s %10s%n", "packet", "sent", "bytes", "recv",
+				"bytes", "enc ms", "dec ms"));
+		for (final String name : names) {
+			final Totals t = byName.get(name);
+			summary.append(String.format("%-28s %8d %10d %8d %10d %10.3f %10.3f%n", name, t.getSentPackets(),
+					t.getSentBytes(), t.getReceivedPackets(), t.getReceivedBytes(), t.getEncodeNanos() / 1e6,
+					t.getDecodeNanos() / 1e6));
+		}
+		for (final int clientID : queueWaits.keySet()) {
+			summary.append(String.format("client %d send queue: avg %.3f ms, max %.3f ms%n", clientID,
+					getAverageQueueWaitNanos(clientID) / 1e6, getMaxQueueWaitNanos(clientID) / 1e6));
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Starts printing a summary of the statistics to standard output at a
+	 * fixed interval, on a background thread.
+	 *
+	 * @param periodMillis
+	 *            The interval between summaries, in milliseconds.
+	 * @param label
+	 *            A label to print above each summary (eg. "server").
+	 */
+	public synchronized void startLogging(final long periodMillis, final String label) {
+		stopLogging();
+		logTimer = new Timer("traffic-log-" + label, true);
+		logTimer.scheduleAtFixedRate(new TimerTask() {
+			@Override
+			public void run() {
+				System.out.println("Network traffic (" + label + "):");
+				System.out.print(getSummary());
+			}
+		}, periodMillis, periodMillis);
+	}
+
+	/**
+	 * Starts printing summaries if the {@value #LOG_INTERVAL_PROPERTY} system
+	 * property is set to a positive number of seconds.
+	 *
+	 * @param label
+	 *            A label to print above each summary (eg. "server").
+	 */
+	public void startLoggingIfEnabled(final String label) {
+		final long seconds = Long.getLong(LOG_INTERVAL_PROPERTY, 0);
+		if (seconds > 0) {
+			startLogging(seconds * 1000, label);
+		}
+	}
+
+	/**
+	 * Stops printing summaries, if started.
+	 */
+	public synchronized void stopLogging() {
+		if (logTimer != null) {
+			logTimer.cancel();
+			logTimer = null;
+		}
+	}
+
+	/**
+	 * The counters for one packet type, either for a single client or summed
+	 * over many.
+	 */
+	public static class Totals {
+		private long sentPackets;
+		private long sentBytes;
+		private long encodeNanos;
+		private long receivedPackets;
+		private long receivedBytes;
+		private long decodeNanos;
+
+		private void add(final Totals other) {
+			sentPackets += other.sentPackets;
+			sentBytes += other.sentBytes;
+			encodeNanos += other.encodeNanos;
+			receivedPackets += other.receivedPackets;
+			receivedBytes += other.receivedBytes;
+			decodeNanos += other.decodeNanos;
+		}
+
+		public long getSentPackets() {
+			return sentPackets;
+		}
+
+		public long getSentBytes() {
+			return sentBytes;
+		}
+
+		public long getEncodeNanos() {
+			return encodeNanos;
+		}
+
+		public long getReceivedPackets() {
+			return receivedPackets;
+		}
+
+		public long getReceivedBytes() {
+			return receivedBytes;
+		}
+
+		public long getDecodeNanos() {
+			return decodeNanos;
+		}
+
+		public long getTotalBytes() {
+			return sentBytes + receivedBytes;
+		}
+	}
+
+	/**
+	 * The send queue wait times of a single client.
+	 */
+	private static class QueueWait {
+		private long packets;
+		private long totalNanos;
+		private long maxNanos;
+	}
+}
@@ -0,0 +1,184 @@
+package main.java.networking.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+import main.java.gamelogic.core.MapService;
+import main.java.gamelogic.domain.Map;
+
+/**
+ * A client-side cache of maps, addressed by the content hash computed by
+ * {@link MapCodec#hash(String)}. This lets the server identify the map a game
+ * is played on by name and hash alone, with the full map only being sent to
+ * clients which do not already have it.
+ *
+ * Maps are looked up in memory first, then in the cache directory on disk
+ * (if any), and finally among the maps of the same name loaded by the
+ * {@link MapService} (if any). Maps are stored in their encoded form, so every
+ * lookup returns a new {@link Map} which can safely be changed by a game.
+ */
+public class MapCache {
+	private static final String FILE_EXTENSION = ".map";
+
+	private final MapService mapService;
+	private final File directory;
+	private final HashMap<String, String> encodedMaps;
+	private final HashMap<String, String> mapServiceHashes;
+
+	/**
+	 * Creates a new map cache.
+	 *
+	 * @param mapService
+	 *            The map service to look for maps by name in, or {@code null}
+	 *            to not use one.
+	 * @param directory
+	 *            The directory to store cached maps in, or {@code null} to only
+	 *            cache maps in memory.
+	 */
+	public MapCache(final MapService mapService, final File directory) {
+		this.mapService = mapService;
+		this.directory = directory;
+		this.encodedMaps = new HashMap<>();
+		this.mapServiceHashes = new HashMap<>();
+	}
+
+	/**
+	 * Gets the directory in the user's home directory where maps are cached by
+	 * default.
+	 *
+	 * @return The default cache directory.
+	 */
+	public static File getDefaultDirectory() {
+		return new File(new File(System.getProperty("user.home"), ".pacmanplusplus"), "maps");
+	}
+
+	/**
+	 * Finds the map with the given content hash.
+	 *
+	 * @param name
+	 *            The name of the map, used to find it in the map service.
+	 * @param hash
+	 *            The content hash of the map.
+	 * @return A new copy of the map, or {@code null} if the map is not cached
+	 *         anywhere and must be requested from the server.
+	 */
+	public synchronized Map get(final String name, final String hash) {
+		String encoded = encodedMaps.get(hash);
+
+		if (encoded == null) {
+			encoded = readFromDisk(hash);
+			if (encoded == null) {
+				encoded = findInMapService(name, hash);
+			}
+			if (encoded != null) {
+				encodedMaps.put(hash, encoded);
+			}
+		}
+
+		return encoded != null ? MapCodec.decode(encoded) : null;
+	}
+
+	/**
+	 * Stores a map received from the server in the cache.
+	 *
+	 * @param hash
+	 *            The content hash of the map given by the server.
+	 * @param encoded
+	 *            The encoded map.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the hash does not match the encoded map.
+	 */
+	public synchronized void put(final String hash, final String encoded) {
+		if (!MapCodec.hash(encoded).equals(hash)) {
+			throw new IllegalArgumentException("Map does not match hash " + hash);
+		}
+
+		encodedMaps.put(hash, encoded);
+		writeToDisk(hash, encoded);
+	}
+
+	/**
+	 * Determines whether the map with the given name in the map service has
+	 * the given hash.
+	 *
+	 * @return The encoded map if it matches, or {@code null} otherwise.
+	 */
+	private String findInMapService(final String name, final String hash) {
+		if (mapService == null || name == null) {
+			return null;
+		}
+
+		if (mapServiceHashes.containsKey(name) && !mapServiceHashes.get(name).equals(hash)) {
+			return null;
+		}
+
+		final String encoded;
+		try {
+			encoded = MapCodec.encode(mapService.getMap(name));
+		} catch (final IllegalArgumentException e) {
+			return null;
+		}
+		mapServiceHashes.put(name, MapCodec.hash(encoded));
+
+		return mapServiceHashes.get(name).equals(hash) ? encoded : null;
+	}
+
+	private String readFromDisk(final String hash) {
+		if (directory == null || !isValidHash(hash)) {
+			return null;
+		}
+
+		final File file = new File(directory, hash + FILE_EXTENSION);
+		if (!file.isFile()) {
+			return null;
+		}
+
+		try {
+			final String encoded = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+			if (MapCodec.hash(encoded).equals(hash)) {
+				return encoded;
+			} else {
+				System.out.println("Cached map " + file + " is corrupt, ignoring it");
+				return null;
+			}
+		} catch (final IOException e) {
+			System.out.println("Could not read cached map " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeToDisk(final String hash, final String encoded) {
+		if (directory == null || !isValidHash(hash)) {
+			return;
+		}
+
+		final File file = new File(directory, hash + FILE_EXTENSION);
+		try {
+			Files.createDirectories(directory.toPath());
+			Files.write(file.toPath(), encoded.getBytes(StandardCharsets.UTF_8));
+		} catch (final IOException e) {
+			System.out.println("Could not cache map " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Checks that a hash only contains lower-case hexadecimal digits, so that a
+	 * hash received from the network can safely be used as a file name.
+	 */
+	private static boolean isValidHash(final String hash) {
+		if (hash == null || hash.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < hash.length(); i++) {
+			final char c = hash.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
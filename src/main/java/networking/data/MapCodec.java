@@ -0,0 +1,199 @@
+package main.java.networking.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.CRC32;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Map;
+import main.java.graphics.PositionVisualisation;
+
+/**
+ * Converts a {@link Map} to and from a compact string, small enough to send
+ * whole maps in a single packet parameter.
+ *
+ * The cells are read in row-major order, and consecutive cells with the same
+ * state are grouped into runs. Each run is written as a variable-length
+ * integer (7 bits per byte, least significant first) whose lowest 2 bits hold
+ * the ordinal of the {@link CellState} and whose remaining bits hold the
+ * length of the run minus one. The runs are preceded by the size of the map
+ * and followed by a CRC-32 checksum of everything before it, and the whole
+ * thing is Base64-encoded so that it can be stored in a packet.
+ */
+public class MapCodec {
+	private static final int STATE_BITS = 2;
+	private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+	private static final CellState[] STATES = CellState.values();
+
+	static {
+		if (STATES.length > 1 << STATE_BITS) {
+			throw new IllegalStateException("Too many cell states to encode in " + STATE_BITS + " bits.");
+		}
+	}
+
+	/**
+	 * Encodes the given map into a string.
+	 *
+	 * @param map
+	 *            The map to encode.
+	 * @return The encoded map.
+	 */
+	public static String encode(final Map map) {
+		// the states are copied in one go, so the encoding is consistent even
+		// if the map changes meanwhile, and no cell objects are created
+		final byte[] states = map.copyStates();
+		final int size = map.getMapSize();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		writeVarInt(out, size);
+
+		int runState = -1;
+		int runLength = 0;
+		for (int cell = 0; cell < size * size; cell++) {
+			final int state = states[cell];
+
+			if (state == runState) {
+				runLength++;
+			} else {
+				if (runLength > 0) {
+					writeVarInt(out, (runLength - 1) << STATE_BITS | runState);
+				}
+				runState = state;
+				runLength = 1;
+			}
+		}
+		if (runLength > 0) {
+			writeVarInt(out, (runLength - 1) << STATE_BITS | runState);
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(out.toByteArray());
+		final long checksum = crc.getValue();
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			out.write((int) (checksum >>> shift));
+		}
+
+		return Base64.getEncoder().encodeToString(out.toByteArray());
+	}
+
+	/**
+	 * Decodes a map from a string created by {@link #encode(Map)}.
+	 *
+	 * @param encoded
+	 *            The encoded map.
+	 * @return A new map containing new cells with the encoded states.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the string is not a valid encoded map, or its
+	 *             checksum does not match its contents.
+	 */
+	public static Map decode(final String encoded) {
+		final byte[] data;
+		try {
+			data = Base64.getDecoder().decode(encoded);
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException("Encoded map is not valid Base64.", e);
+		}
+
+		final int length = data.length - 4;
+		if (length <= 0) {
+			throw new IllegalArgumentException("Encoded map is too short.");
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(data, 0, length);
+		long checksum = 0;
+		for (int i = length; i < data.length; i++) {
+			checksum = checksum << 8 | (data[i] & 0xFF);
+		}
+		if (crc.getValue() != checksum) {
+			throw new IllegalArgumentException("Encoded map checksum does not match.");
+		}
+
+		final int[] offset = { 0 };
+		final int size = readVarInt(data, offset, length);
+		if (size < 0 || (long) size * size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Encoded map has an invalid size.");
+		}
+		final Map map = new Map(size);
+		final int cellCount = size * size;
+
+		int cell = 0;
+		while (cell < cellCount) {
+			final int run = readVarInt(data, offset, length);
+			final int stateIndex = run & STATE_MASK;
+			final int runLength = (run >>> STATE_BITS) + 1;
+
+			if (stateIndex >= STATES.length || runLength > cellCount - cell) {
+				throw new IllegalArgumentException("Encoded map contains an invalid run.");
+			}
+
+			final CellState state = STATES[stateIndex];
+			for (final int end = cell + runLength; cell < end; cell++) {
+				map.addCell(new Cell(state, new PositionVisualisation(cell / size, cell % size)));
+			}
+		}
+
+		if (offset[0] != length) {
+			throw new IllegalArgumentException("Encoded map has trailing data.");
+		}
+
+		return map;
+	}
+
+	/**
+	 * Computes the content hash of an encoded map, which identifies the map
+	 * regardless of its name.
+	 *
+	 * @param encoded
+	 *            The encoded map.
+	 * @return The SHA-256 hash of the encoded map, as a hexadecimal string.
+	 */
+	public static String hash(final String encoded) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(encoded.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (final byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not available.", e);
+		}
+	}
+
+	/**
+	 * Writes a non-negative integer using 7 bits per byte, with the highest
+	 * bit of each byte set if more bytes follow.
+	 */
+	private static void writeVarInt(final ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write(value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Reads an integer written by {@link #writeVarInt(ByteArrayOutputStream, int)},
+	 * advancing the offset past it.
+	 */
+	private static int readVarInt(final byte[] data, final int[] offset, final int length) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			if (offset[0] >= length) {
+				throw new IllegalArgumentException("Encoded map ended unexpectedly.");
+			}
+			final int b = data[offset[0]++];
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Encoded map contains an invalid number.");
+	}
+}
@@ -1,5 +1,6 @@
 package main.java.networking.data;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -348,6 +349,31 @@ public class Packet {
 		return packet;
 	}
 
+	/**
+	 * Reads only the name of a packet from its serialized, UTF-8 encoded form,
+	 * without decoding the rest of the packet. This allows a packet to be
+	 * inspected (eg. for rate limiting) before paying the cost of fully parsing
+	 * it with {@link Packet#fromString(String)}.
+	 *
+	 * The separator between the name and the parameters is plain ASCII, and
+	 * ASCII bytes never occur inside a multi-byte UTF-8 sequence, so the raw
+	 * bytes can be searched directly.
+	 *
+	 * @param data
+	 *            The serialized packet, as sent over the network.
+	 * @return The name of the packet, or {@code null} if {@code data} does not
+	 *         contain a packet name.
+	 */
+	public static String readPacketName(final byte[] data) {
+		for (int i = 0; i < data.length - 1; i++) {
+			if (data[i] == '`' && data[i + 1] == '|') {
+				return new String(data, 0, i, StandardCharsets.UTF_8);
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * Represents the parameter of a packet.
 	 *
@@ -0,0 +1,76 @@
+package main.java.networking.data;
+
+/**
+ * Describes a single packet sent or received by a client or server manager,
+ * for the purposes of traffic accounting.
+ */
+public class TrafficRecord {
+	/**
+	 * The direction in which a packet travelled.
+	 */
+	public static enum Direction {
+		SENT, RECEIVED
+	}
+
+	private final long timestamp;
+	private final Direction direction;
+	private final int clientID;
+	private final String packetName;
+	private final int size;
+	private final long codecNanos;
+
+	/**
+	 * Creates a new traffic record.
+	 *
+	 * @param timestamp
+	 *            The time at which the packet was sent or received, in
+	 *            milliseconds since the epoch.
+	 * @param direction
+	 *            Whether the packet was sent or received.
+	 * @param clientID
+	 *            The ID of the client the packet was sent to or received from,
+	 *            or {@code -1} on a client, where the other end is always the
+	 *            server.
+	 * @param packetName
+	 *            The name of the packet.
+	 * @param size
+	 *            The size of the packet in bytes, or {@code 0} if the packet
+	 *            was passed in memory without being converted to bytes.
+	 * @param codecNanos
+	 *            The time taken to encode (if sent) or decode (if received) the
+	 *            packet, in nanoseconds.
+	 */
+	public TrafficRecord(final long timestamp, final Direction direction, final int clientID,
+			final String packetName, final int size, final long codecNanos) {
+		this.timestamp = timestamp;
+		this.direction = direction;
+		this.clientID = clientID;
+		this.packetName = packetName;
+		this.size = size;
+		this.codecNanos = codecNanos;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	public int getClientID() {
+		return clientID;
+	}
+
+	public String getPacketName() {
+		return packetName;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public long getCodecNanos() {
+		return codecNanos;
+	}
+}
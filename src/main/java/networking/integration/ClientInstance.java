@@ -1,5 +1,6 @@
 package main.java.networking.integration;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,7 +24,6 @@ import main.java.gamelogic.core.GameLogic;
 import main.java.gamelogic.core.Lobby;
 import main.java.gamelogic.core.LobbyPlayerInfo;
 import main.java.gamelogic.core.RemoteGameLogic;
-import main.java.gamelogic.domain.Cell;
 import main.java.gamelogic.domain.ControlledPlayer;
 import main.java.gamelogic.domain.Entity;
 import main.java.gamelogic.domain.Game;
@@ -37,9 +37,14 @@ import main.java.gamelogic.domain.RemotePlayer;
 import main.java.gamelogic.domain.RemoteSkillSet;
 import main.java.gamelogic.domain.Spawner;
 import main.java.gamelogic.domain.Spawner.SpawnerColor;
-import main.java.graphics.PositionVisualisation;
 import main.java.networking.ClientManager;
+import main.java.networking.ClientSocket;
+import main.java.networking.RttEstimator;
 import main.java.networking.StandardClientManager;
+import main.java.networking.TrafficCapture;
+import main.java.networking.TrafficStatistics;
+import main.java.networking.data.MapCache;
+import main.java.networking.data.MapCodec;
 import main.java.networking.data.Packet;
 import main.java.networking.event.ClientDisconnectedListener;
 import main.java.networking.event.ClientTrigger;
@@ -49,8 +54,9 @@ import main.java.ui.GameInterface;
 public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnectedListener, ServerEntityUpdatedListener,
 		GameCreatedListener, LocalPlayerSpawnListener, LocalPlayerDespawnListener, ReadyToStartListener,
 		PlayerLeavingGameListener, PlayerAbilityUsedListener {
-	protected Client client;
+	protected ClientSocket client;
 	private String serverAddress;
+	private ServerInstance localServer;
 	protected ClientManager manager;
 	private Game game;
 	private RemoteGameLogic gameLogic;
@@ -64,6 +70,11 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 	private Event<DotsEatenChangedListener, Integer> onDotsEatenChanged;
 	private List<Entity> entitiesToAddOncePlayerReady;
 	private boolean playerIsReady = false;
+	private MapCache mapCache;
+	private GameSettings pendingGameSettings;
+	private String pendingMapHash;
+	private TrafficStatistics trafficStatistics;
+	private TrafficCapture trafficCapture;
 
 	/**
 	 * Creates a new client instance which, when ran, will connect to the server
@@ -95,6 +106,23 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		onDotsEatenChanged = new Event<>((l, a) -> l.onDotsEatenChanged(a));
 		gameUI.getOnPlayerLeavingGame().addOneTimeListener(this);
 		entitiesToAddOncePlayerReady = new ArrayList<>();
+		mapCache = new MapCache(null, null);
+		trafficStatistics = new TrafficStatistics();
+		trafficCapture = null;
+	}
+
+	/**
+	 * Creates a new client instance which, when ran, will connect to the given
+	 * server instance running in the same process, without going through the
+	 * network. This should be used by the hosting player.
+	 *
+	 * @param localServer
+	 *            The server instance to connect to. This must already be
+	 *            running when this client instance is ran.
+	 */
+	public ClientInstance(final GameInterface gameUI, final String username, final ServerInstance localServer) {
+		this(gameUI, username, (String) null);
+		this.localServer = localServer;
 	}
 
 	@Override
@@ -104,7 +132,15 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		client.getDisconnectedEvent().addListener(this);
 
 		// Create
-		manager = new StandardClientManager(client);
+		final StandardClientManager standardManager = new StandardClientManager(client);
+		standardManager.getTrafficEvent().addListener(trafficStatistics);
+		trafficCapture = TrafficCapture.openIfEnabled("client");
+		if (trafficCapture != null) {
+			standardManager.getTrafficEvent().addListener(trafficCapture);
+		}
+		trafficStatistics.startLoggingIfEnabled("client");
+
+		manager = standardManager;
 		manager.setTrigger(this);
 
 		addGameHooks();
@@ -112,6 +148,27 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		client.start();
 	}
 
+	/**
+	 * Sets the cache in which maps received from the server are looked up and
+	 * stored. The cache should outlive this client instance, so that joining
+	 * another game on the same map does not transfer the map again.
+	 *
+	 * @param mapCache
+	 *            The map cache to use.
+	 */
+	public void setMapCache(final MapCache mapCache) {
+		this.mapCache = mapCache;
+	}
+
+	/**
+	 * Gets the round-trip times measured on the connection to the server.
+	 *
+	 * @return The round-trip time estimator of the connection.
+	 */
+	public RttEstimator getRoundTripTimes() {
+		return client.getRoundTripTimes();
+	}
+
 	public boolean isHost() {
 		return client.getClientID() == 0;
 	}
@@ -130,19 +187,44 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 	public void onClientDisconnected(final int clientID) {
 		removeGameHooks();
 		gameUI.onPlayerLeavingGame();
+
+		trafficStatistics.stopLogging();
+		if (trafficCapture != null) {
+			try {
+				trafficCapture.close();
+			} catch (final IOException e) {
+				e.printStackTrace();
+			}
+			trafficCapture = null;
+		}
+	}
+
+	/**
+	 * Gets the packet and byte counts of the traffic between this client and
+	 * the server.
+	 *
+	 * @return The traffic statistics of this client.
+	 */
+	public TrafficStatistics getTrafficStatistics() {
+		return trafficStatistics;
 	}
 
 	/**
 	 * Creates the client object connecting to the server with the specified IP
-	 * address.
+	 * address, or to the local server if this client instance is hosting.
 	 *
 	 * @param ip
 	 *            The IP address of the server to connect to.
 	 * @return The client object which, when started, will connect to the
 	 *         specified server.
 	 */
-	private Client createClient(final String ip) {
+	private ClientSocket createClient(final String ip) {
+		if (localServer != null) {
+			return localServer.connectLocalClient();
+		}
+
 		final Client client = new Client(ip);
+		client.setTrafficStatistics(trafficStatistics);
 
 		return client;
 	}
@@ -309,7 +391,9 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
             triggerPlayerShieldRemoved(p);
         } else if(p.getPacketName().equals("dots-eaten-changed")) {
         	triggerDotsEatenChanged(p);
-        }
+        } else if (p.getPacketName().equals("map-data")) {
+			triggerMapData(p);
+		}
 	}
 
     private void triggerDotsEatenChanged(Packet p) {
@@ -393,7 +477,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		}
 		final Spawner s = new Spawner(p.getInteger("duration"), null, color);
 		s.setID(entityID);
-		s.setPosition(new Position(p.getInteger("row"), p.getInteger("col")));
+		s.setPosition(Position.of(p.getInteger("row"), p.getInteger("col")));
 		addEntityToWorld(s);
 	}
 	
@@ -429,7 +513,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		remoteSkillSet.getOnPlayerAbilityUsed().addListener(this);
 		player.setSkillSet(remoteSkillSet);
 
-		player.setPosition(new Position(row, col));
+		player.setPosition(Position.of(row, col));
 		player.setAngle(angle);
 		addEntityToWorld(player);
 	}
@@ -515,7 +599,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 			final int row = p.getInteger("row"), col = p.getInteger("col");
 			final double angle = p.getDouble("angle");
 
-			player.setPosition(new Position(row, col));
+			player.setPosition(Position.of(row, col));
 			player.setAngle(angle);
 		} else {
 			// received force move packet from server, but the
@@ -533,8 +617,52 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		settings.setInitialPlayerLives(p.getInteger("initial-player-lives"));
 		// reconstruct game settings as needed
 
-		Map m = createMapFromPacket(p);
+		final String mapHash = p.getString("map-hash");
+		final Map m = mapCache.get(p.getString("map-name"), mapHash);
 
+		if (m != null) {
+			startGame(settings, m);
+		} else {
+			// wait for the server to send us the map before starting
+			pendingGameSettings = settings;
+			pendingMapHash = mapHash;
+
+			final Packet request = new Packet("map-request");
+			request.setString("map-hash", mapHash);
+			manager.dispatch(request);
+		}
+	}
+
+	/**
+	 * Handles packets containing the full map of a game which is waiting to
+	 * start, sent by the server because the map was not in the map cache.
+	 *
+	 * @param p
+	 */
+	private void triggerMapData(final Packet p) {
+		final String mapHash = p.getString("map-hash");
+
+		if (pendingGameSettings != null && mapHash.equals(pendingMapHash)) {
+			final String encodedMap = p.getString("map");
+			mapCache.put(mapHash, encodedMap);
+
+			final GameSettings settings = pendingGameSettings;
+			pendingGameSettings = null;
+			pendingMapHash = null;
+			startGame(settings, MapCodec.decode(encodedMap));
+		}
+	}
+
+	/**
+	 * Fires the multiplayer game starting event, once the map of the game is
+	 * available.
+	 *
+	 * @param settings
+	 *            The settings of the game.
+	 * @param m
+	 *            The map the game is played on.
+	 */
+	private void startGame(final GameSettings settings, final Map m) {
 		final MultiplayerGameStartingEventArgs args = new MultiplayerGameStartingEventArgs(settings,
 				client.getClientID(), username, m);
 
@@ -606,7 +734,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		final int ghostID = p.getInteger("ghost-id");
 		final RemoteGhost ghost = new RemoteGhost(ghostID);
 		ghost.setID(ghostID);
-		ghost.setPosition(new Position(p.getInteger("row"), p.getInteger("col")));
+		ghost.setPosition(Position.of(p.getInteger("row"), p.getInteger("col")));
 		addEntityToWorld(ghost);
 	}
 
@@ -622,7 +750,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 
 		final RemotePlayer player = new RemotePlayer(playerID, name);
 		player.setSkillSet(new RemoteSkillSet(player));
-		player.setPosition(new Position(p.getInteger("row"), p.getInteger("col")));
+		player.setPosition(Position.of(p.getInteger("row"), p.getInteger("col")));
 
 		addEntityToWorld(player);
 	}
@@ -641,7 +769,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 
 		if (e instanceof RemotePlayer) {
 			final RemotePlayer player = (RemotePlayer) e;
-			player.setPosition(new Position(row, col));
+			player.setPosition(Position.of(row, col));
 			if (p.hasParameter("angle")) {
 				player.setAngle(p.getDouble("angle"));
 			}
@@ -663,7 +791,7 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 
 		if (e instanceof RemoteGhost) {
 			final RemoteGhost ghost = (RemoteGhost) e;
-			ghost.setPosition(new Position(row, col));
+			ghost.setPosition(Position.of(row, col));
 		} else {
 			// won't happen
 		}
@@ -693,21 +821,6 @@ public class ClientInstance implements Runnable, ClientTrigger, ClientDisconnect
 		}
 	}
 	
-	private Map createMapFromPacket(Packet p) {
-		int size = p.getInteger("map.size");
-		Map map = new Map(p.getInteger("map.size"));
-		
-		for(int i = 0; i < size; i++) {
-			for(int j = 0; j < size; j++) {
-				String enumValue = p.getString("map[" + i + "][" + j + "]");
-				CellState state = CellState.valueOf(enumValue);
-				map.addCell(new Cell(state, new PositionVisualisation(i, j)));
-			}
-		}
-		
-		return map;
-	}
-
 	@Override
 	public void onGameCreated(final GameCreatedEventArgs args) {
 		if (args.getGame().getGameType() == GameType.MULTIPLAYER_CLIENT) {
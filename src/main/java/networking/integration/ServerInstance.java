@@ -1,10 +1,13 @@
 package main.java.networking.integration;
 
+import java.io.IOException;
+
 import main.java.constants.CellState;
 import main.java.constants.GameOutcome;
 import main.java.constants.GameOutcomeType;
 import main.java.constants.GameType;
 import main.java.event.Event;
+import main.java.event.ListenerLeakDetector;
 import main.java.event.arguments.CellStateChangedEventArgs;
 import main.java.event.arguments.EntityChangedEventArgs;
 import main.java.event.arguments.EntityMovedEventArgs;
@@ -53,13 +56,20 @@ import main.java.gamelogic.domain.SkillSet;
 import main.java.gamelogic.domain.Spawner;
 import main.java.gamelogic.domain.Spawner.SpawnerColor;
 import main.java.gamelogic.domain.World;
+import main.java.gamelogic.domain.WorldSnapshot;
 import main.java.graphics.PositionVisualisation;
+import main.java.networking.RttEstimator;
 import main.java.networking.ServerManager;
 import main.java.networking.StandardServerManager;
+import main.java.networking.TrafficCapture;
+import main.java.networking.TrafficStatistics;
+import main.java.networking.data.MapCache;
+import main.java.networking.data.MapCodec;
 import main.java.networking.data.Packet;
 import main.java.networking.event.ClientConnectedListener;
 import main.java.networking.event.ClientDisconnectedListener;
 import main.java.networking.event.ServerTrigger;
+import main.java.networking.socket.LocalSocket;
 import main.java.networking.socket.Server;
 
 public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedListener, ServerEntityUpdatedListener,
@@ -73,6 +83,10 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 	private Event<MultiplayerGameStartingListener, MultiplayerGameStartingEventArgs> multiplayerGameStartingEvent;
 	private GameLogic gameLogic;
 	private GameLogicTimer gameLogicTimer;
+	private String startingMap;
+	private String startingMapHash;
+	private TrafficStatistics trafficStatistics;
+	private TrafficCapture trafficCapture;
 
 	/**
 	 * Creates a new server instance which, when ran, will connect to the server
@@ -92,15 +106,26 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 		gameLogic = null;
 		gameLogicTimer = null;
 		multiplayerGameStartingEvent = new Event<>((l, a) -> l.onMultiplayerGameStarting(a));
+		trafficStatistics = new TrafficStatistics();
+		trafficCapture = null;
 	}
 
 	@Override
 	public void run() {
 		// Create the server socket object
 		server = createServer();
+		server.setTrafficStatistics(trafficStatistics);
 
 		// Create
-		manager = new StandardServerManager(server);
+		final StandardServerManager standardManager = new StandardServerManager(server);
+		standardManager.getTrafficEvent().addListener(trafficStatistics);
+		trafficCapture = TrafficCapture.openIfEnabled("server");
+		if (trafficCapture != null) {
+			standardManager.getTrafficEvent().addListener(trafficCapture);
+		}
+		trafficStatistics.startLoggingIfEnabled("server");
+
+		manager = standardManager;
 		manager.setTrigger(this);
 
 		addGameHooks();
@@ -114,6 +139,51 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 	public void stop() {
 		removeGameHooks();
 		server.die();
+
+		trafficStatistics.stopLogging();
+		if (trafficCapture != null) {
+			try {
+				trafficCapture.close();
+			} catch (final IOException e) {
+				e.printStackTrace();
+			}
+			trafficCapture = null;
+		}
+	}
+
+	/**
+	 * Gets the packet and byte counts of the traffic between this server and
+	 * its clients.
+	 *
+	 * @return The traffic statistics of this server.
+	 */
+	public TrafficStatistics getTrafficStatistics() {
+		return trafficStatistics;
+	}
+
+	/**
+	 * Gets the round-trip times measured on the connection to the given
+	 * client, eg. for adapting how often updates are sent to it.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @return The round-trip time estimator of the client's connection.
+	 * @throws IllegalArgumentException
+	 *             Thrown when no client with the given {@code clientID} is
+	 *             connected.
+	 */
+	public RttEstimator getRoundTripTimes(final int clientID) {
+		return server.getRoundTripTimes(clientID);
+	}
+
+	/**
+	 * Connects a client running in this process (ie. the hosting player) to
+	 * the server, using an in-memory connection instead of the network.
+	 *
+	 * @return The client end of the connection.
+	 */
+	public LocalSocket connectLocalClient() {
+		return server.connectLocalClient();
 	}
 
 	/**
@@ -349,6 +419,24 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 			triggerClientReadyToStart(sender, p);
 		} else if (p.getPacketName().equals("use-ability")) {
 			triggerPlayerUseAbility(sender, p);
+		} else if (p.getPacketName().equals("map-request")) {
+			triggerMapRequest(sender, p);
+		}
+	}
+
+	/**
+	 * Handles packets from clients which do not have the map of the current
+	 * game cached, by sending them the full map.
+	 *
+	 * @param sender
+	 * @param p
+	 */
+	private void triggerMapRequest(final int sender, final Packet p) {
+		if (startingMapHash != null && startingMapHash.equals(p.getString("map-hash"))) {
+			final Packet mapPacket = new Packet("map-data");
+			mapPacket.setString("map-hash", startingMapHash);
+			mapPacket.setString("map", startingMap);
+			manager.dispatch(sender, mapPacket);
 		}
 	}
 
@@ -360,10 +448,10 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 	 * @param p
 	 */
 	private void triggerPlayerUseAbility(final int sender, final Packet p) {
-		final Player player = (Player) game.getWorld().getEntity(sender);
+		final Entity e = getPublishedEntity(sender);
 
-		if (player != null) {
-			final SkillSet skillSet = player.getSkillSet();
+		if (e instanceof Player) {
+			final SkillSet skillSet = ((Player) e).getSkillSet();
 
 			if (skillSet != null) {
 				final char abilityKey = p.getString("ability-key").charAt(0);
@@ -429,19 +517,34 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 	private void triggerPlayerMoved(final int sender, final Packet p) {
 		final int row = p.getInteger("row"), col = p.getInteger("col");
 
-		final Entity e = game.getWorld().getEntity(sender);
+		final Entity e = getPublishedEntity(sender);
 
 		if (e != null && e instanceof Player) {
 			final Player player = (Player) e;
 			if (p.hasParameter("angle")) {
 				player.setAngle(p.getDouble("angle"));
 			}
-			player.setPosition(new Position(row, col));
+			player.setPosition(Position.of(row, col));
 		} else {
 			// ignore
 		}
 	}
 
+	/**
+	 * Fetch an entity of the world as it was at the end of the last game step.
+	 * Packets are handled on the network threads while the game logic changes
+	 * the world, so the handlers which only look entities up read the world's
+	 * published snapshot rather than the world itself.
+	 *
+	 * @param id
+	 *            The ID of the entity.
+	 * @return The entity, or {@code null} if it was not in the world.
+	 */
+	private Entity getPublishedEntity(final int id) {
+		final WorldSnapshot.EntitySnapshot snapshot = game.getWorld().getSnapshot().getEntity(id);
+		return snapshot != null ? snapshot.getEntity() : null;
+	}
+
 	/**
 	 * Handles the packet sent by the client to the server specifying attributes
 	 * of the player.
@@ -575,7 +678,7 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 			} else {
 				final RemotePlayer player = new RemotePlayer(info.getID(), info.getName());
 				player.setSkillSet(LocalSkillSet.createDefaultSkillSet(player));
-				player.setPosition(new Position(row, col));
+				player.setPosition(Position.of(row, col));
 				final Spawner spawner = new Spawner(5, player, SpawnerColor.GREEN);
 				spawner.setPosition(player.getPosition());
 				game.getWorld().addEntity(spawner);
@@ -609,15 +712,23 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 		manager.dispatch(playerID, createLocalPlayerDiedPacket(reason, playerInfo.getRemainingLives() > 0));
 	}
 	
-	private void addMapInfoToPacket(Packet p, Map m) {
-		int size = m.getMapSize();
-		
-		p.setInteger("map.size", size);
-		for(int i = 0; i < size; i++) {
-			for(int j = 0; j < size; j++) {
-				p.setString("map[" + i + "][" + j + "]", m.getCell(i, j).getState().name());
-			}
-		}
+	/**
+	 * Adds the name and content hash of the given map to a packet, so that
+	 * clients can find the map in their {@link MapCache}. The encoded map is
+	 * kept so that it can be sent to any client which does not have it.
+	 *
+	 * @param p
+	 *            The packet to add the map information to.
+	 * @param name
+	 *            The name of the map.
+	 * @param m
+	 *            The map, as it is at the start of the game.
+	 */
+	private void addMapInfoToPacket(Packet p, String name, Map m) {
+		startingMap = MapCodec.encode(m);
+		startingMapHash = MapCodec.hash(startingMap);
+		p.setString("map-name", name);
+		p.setString("map-hash", startingMapHash);
 	}
 
 	/**
@@ -660,6 +771,7 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 
 	@Override
 	public void onClientDisconnected(final int clientID) {
+		trafficStatistics.removeClient(clientID);
 		if(lobby.containsPlayer(clientID)) {
 			lobby.removePlayer(clientID);
 			if (game != null && game.getWorld().getEntity(clientID) != null) {
@@ -706,13 +818,14 @@ public class ServerInstance implements Runnable, ServerTrigger, ClientConnectedL
 				removeWorldGameHooks(game.getWorld(), (LocalGameLogic) gameLogic);
 				gameLogicTimer.stop();
 			}
+			ListenerLeakDetector.getInstance().checkpoint("new server game");
 			game = args.getGame();
 			gameLogic = args.getGameLogic();
 
 			final Packet p = new Packet("game-starting");
 
 			p.setInteger("initial-player-lives", game.getGameSettings().getInitialPlayerLives());
-			addMapInfoToPacket(p, game.getWorld().getMap());
+			addMapInfoToPacket(p, game.getGameSettings().getMapName(), game.getWorld().getMap());
 			// add game configuration stuff into this packet
 
 			manager.dispatchAll(p);
@@ -10,8 +10,10 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 
 import main.java.event.Event;
+import main.java.networking.ClientSocket;
 import main.java.networking.NetworkListener;
-import main.java.networking.NetworkSocket;
+import main.java.networking.RttEstimator;
+import main.java.networking.TrafficStatistics;
 import main.java.networking.event.ClientDisconnectedListener;
 
 /**
@@ -21,7 +23,17 @@ import main.java.networking.event.ClientDisconnectedListener;
  * @author Simeon Kostadinov
  */
 
-public class Client implements NetworkSocket, Runnable {
+public class Client implements ClientSocket, Runnable {
+	/**
+	 * The default interval between heartbeat pings, in milliseconds.
+	 */
+	public static final long DEFAULT_HEARTBEAT_INTERVAL = 1000;
+	/**
+	 * The default time after which a connection which has received nothing is
+	 * killed, in milliseconds.
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT = 5000;
+
 	private Socket socket = null;
 	private DataInputStream in = null;
 	private DataOutputStream out = null;
@@ -33,6 +45,8 @@ public class Client implements NetworkSocket, Runnable {
 	private boolean serverSide;
 	private Event<ClientDisconnectedListener, Integer> disconnectedEvent;
 	private volatile boolean alive = false;
+	private TrafficStatistics statistics = null;
+	private Heartbeat heartbeat;
 
 	/**
 	 * Initialise Client object using a hostname
@@ -59,6 +73,7 @@ public class Client implements NetworkSocket, Runnable {
 	private Client() {
 		receiveEvent = new Event<>((l, b) -> l.receive(b));
 		disconnectedEvent = new Event<>((l, i) -> l.onClientDisconnected(i));
+		heartbeat = new Heartbeat(DEFAULT_HEARTBEAT_INTERVAL, DEFAULT_IDLE_TIMEOUT);
 	}
 
 	/**
@@ -69,6 +84,7 @@ public class Client implements NetworkSocket, Runnable {
 		if (alive) {
 			try {
 				alive = false;
+				heartbeat.stop();
 				sender.die();
 				receiver.die();
 				socket.close();
@@ -104,7 +120,9 @@ public class Client implements NetworkSocket, Runnable {
 
 		// objects ClientSender and ClientReceiver
 		sender = new ClientSender(out);
+		sender.setTrafficStatistics(statistics, serverSide ? clientID : -1);
 		receiver = new ClientReceiver(in, b -> receiveEvent.fire(b));
+		receiver.setHeartbeat(heartbeat, sender);
 
 		alive = true;
 		new Thread(this).start();
@@ -119,6 +137,7 @@ public class Client implements NetworkSocket, Runnable {
 		// Run them in parallel:
 		sender.start();
 		receiver.start();
+		heartbeat.start(sender, this::die);
 
 		// Wait for them to end and close sockets.
 		try {
@@ -135,6 +154,43 @@ public class Client implements NetworkSocket, Runnable {
 		}
 	}
 
+	/**
+	 * Sets how often this client pings the remote end, and how long it waits
+	 * without receiving anything before killing the connection. A killed
+	 * connection fires the disconnected event as usual. This must be called
+	 * before the client is started.
+	 *
+	 * @param intervalMillis
+	 *            The interval between pings, in milliseconds, or {@code 0} to
+	 *            disable pings and idle timeouts.
+	 * @param timeoutMillis
+	 *            The idle timeout, in milliseconds.
+	 * @throws IllegalArgumentException
+	 *             Thrown when the timeout is not longer than the interval.
+	 */
+	public void setHeartbeat(final long intervalMillis, final long timeoutMillis) {
+		if (intervalMillis > 0 && timeoutMillis <= intervalMillis) {
+			throw new IllegalArgumentException("Idle timeout must be longer than the heartbeat interval.");
+		}
+		heartbeat = new Heartbeat(intervalMillis, timeoutMillis);
+	}
+
+	@Override
+	public RttEstimator getRoundTripTimes() {
+		return heartbeat.getRoundTripTimes();
+	}
+
+	/**
+	 * Sets the statistics to report send queue wait times to. This must be
+	 * called before the client is started.
+	 *
+	 * @param statistics
+	 *            The statistics to report to, or {@code null} to not report.
+	 */
+	public void setTrafficStatistics(final TrafficStatistics statistics) {
+		this.statistics = statistics;
+	}
+
 	@Override
 	public void send(final byte[] data) {
 		if (alive) {
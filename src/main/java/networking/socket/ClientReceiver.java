@@ -13,6 +13,8 @@ public class ClientReceiver extends Thread {
 	private boolean alive = true;
 	private DataInputStream in = null;
 	private Consumer<byte[]> onReceive;
+	private Heartbeat heartbeat;
+	private ClientSender sender;
 
 	/**
 	 * Instantiate a new ClientReceiver with the given thread to read data
@@ -24,6 +26,20 @@ public class ClientReceiver extends Thread {
 	public ClientReceiver(final DataInputStream in, final Consumer<byte[]> onReceive) {
 		this.in = in;
 		this.onReceive = onReceive;
+		this.heartbeat = null;
+		this.sender = null;
+	}
+
+	/**
+	 * Sets the heartbeat to report received frames and pongs to, and the
+	 * sender through which pings from the remote end are answered.
+	 * 
+	 * @param heartbeat The heartbeat of this connection.
+	 * @param sender The sender of this connection.
+	 */
+	public void setHeartbeat(final Heartbeat heartbeat, final ClientSender sender) {
+		this.heartbeat = heartbeat;
+		this.sender = sender;
 	}
 
 	@Override
@@ -32,10 +48,24 @@ public class ClientReceiver extends Thread {
 			try {
 				final int length = in.readInt();
 
+				if (heartbeat != null) {
+					heartbeat.onReceived();
+				}
+
 				if (length > 0) {
 					final byte[] message = new byte[length];
-					in.read(message);
+					in.readFully(message);
 					onReceive.accept(message);
+				} else if (length == ClientSender.PING) {
+					final long timestamp = in.readLong();
+					if (sender != null) {
+						sender.sendPong(timestamp);
+					}
+				} else if (length == ClientSender.PONG) {
+					final long timestamp = in.readLong();
+					if (heartbeat != null) {
+						heartbeat.onPong(timestamp);
+					}
 				} else {
 					throw new IllegalStateException("Received packet of zero length.");
 				}
@@ -6,17 +6,33 @@ import java.io.IOException;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import main.java.networking.TrafficStatistics;
+
 /**
  * ClientSender thread is used to send a packet byte array to the server.
  * 
  * Packets are sent first as a big-endian 32-bit integer {@code l} describing
  * the length of the following packet, followed by exactly {@code l} further
  * bytes. 
+ * 
+ * Heartbeat frames are sent as a negative length ({@link #PING} or
+ * {@link #PONG}) followed by a big-endian 64-bit timestamp.
  */
 public class ClientSender extends Thread {
+	/**
+	 * The length written in place of a packet length to mark a ping.
+	 */
+	public static final int PING = -1;
+	/**
+	 * The length written in place of a packet length to mark a pong.
+	 */
+	public static final int PONG = -2;
+
 	private volatile boolean alive = true;
 	private DataOutputStream out = null;
-	private BlockingQueue<byte[]> packets;
+	private BlockingQueue<QueuedPacket> packets;
+	private TrafficStatistics statistics;
+	private int clientID;
 
 	/**
 	 * Initialize a new object used to send data to a socket in a
@@ -26,15 +42,38 @@ public class ClientSender extends Thread {
 	 */
 	public ClientSender(final DataOutputStream out) {
 		this.out = out;
-		packets = new LinkedBlockingQueue<byte[]>();
+		packets = new LinkedBlockingQueue<QueuedPacket>();
+		statistics = null;
+	}
+
+	/**
+	 * Sets the statistics to report the time each packet spends waiting in the
+	 * queue to.
+	 *
+	 * @param statistics
+	 *            The statistics to report to, or {@code null} to not report.
+	 * @param clientID
+	 *            The client ID to report the wait times under.
+	 */
+	public void setTrafficStatistics(final TrafficStatistics statistics, final int clientID) {
+		this.statistics = statistics;
+		this.clientID = clientID;
 	}
 
 	@Override
 	public void run() {
 		try {
 			while (alive) {
-				final byte[] packet = packets.take();
-				if (packet.length > 0) {
+				final QueuedPacket queued = packets.take();
+				final byte[] packet = queued.data;
+				if (queued.control != 0) {
+					out.writeInt(queued.control);
+					out.writeLong(queued.timestamp);
+					out.flush();
+				} else if (packet.length > 0) {
+					if (statistics != null) {
+						statistics.recordQueueWait(clientID, System.nanoTime() - queued.enqueuedAt);
+					}
 					out.writeInt(packet.length);
 					out.write(packet);
 				} else {
@@ -65,7 +104,7 @@ public class ClientSender extends Thread {
 	public void die() {
 		if (alive) {
 			alive = false;
-			packets.add(new byte[0]);
+			packets.add(new QueuedPacket(new byte[0]));
 		}
 	}
 
@@ -77,10 +116,57 @@ public class ClientSender extends Thread {
 	public void send(final byte[] packet) {
 		if (alive) {
 			if(packet.length > 0) {
-				packets.add(packet);
+				packets.add(new QueuedPacket(packet));
 			} else {
 				throw new IllegalArgumentException("Cannot send packet of length zero.");
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Adds a ping to the queue.
+	 * 
+	 * @param timestamp The timestamp to be echoed back in the pong.
+	 */
+	public void sendPing(final long timestamp) {
+		if (alive) {
+			packets.add(new QueuedPacket(PING, timestamp));
+		}
+	}
+
+	/**
+	 * Adds a pong, answering a ping from the remote end, to the queue.
+	 * 
+	 * @param timestamp The timestamp received in the ping.
+	 */
+	public void sendPong(final long timestamp) {
+		if (alive) {
+			packets.add(new QueuedPacket(PONG, timestamp));
+		}
+	}
+
+	/**
+	 * A packet or heartbeat frame waiting in the queue, along with the time
+	 * it was queued.
+	 */
+	private static class QueuedPacket {
+		private final byte[] data;
+		private final int control;
+		private final long timestamp;
+		private final long enqueuedAt;
+
+		public QueuedPacket(final byte[] data) {
+			this.data = data;
+			this.control = 0;
+			this.timestamp = 0;
+			this.enqueuedAt = System.nanoTime();
+		}
+
+		public QueuedPacket(final int control, final long timestamp) {
+			this.data = null;
+			this.control = control;
+			this.timestamp = timestamp;
+			this.enqueuedAt = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package main.java.networking.socket;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import main.java.networking.RttEstimator;
+
+/**
+ * Periodically pings the remote end of a {@link Client} connection, measuring
+ * the round-trip time from the matching pongs, and kills the connection if
+ * nothing at all has been received from the remote end for too long. This
+ * means that a peer which has vanished without closing its connection is
+ * noticed within seconds, rather than whenever the operating system gives up
+ * on it.
+ *
+ * The heartbeats of all connections are run on a single shared background
+ * thread.
+ */
+public class Heartbeat {
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+		final Thread thread = new Thread(r, "heartbeat");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final long intervalMillis;
+	private final long timeoutNanos;
+	private final RttEstimator rtt;
+	private volatile long lastReceived;
+	private ScheduledFuture<?> task;
+
+	/**
+	 * Creates a new heartbeat.
+	 *
+	 * @param intervalMillis
+	 *            The interval between pings, in milliseconds, or {@code 0} to
+	 *            not send pings at all.
+	 * @param timeoutMillis
+	 *            The time after which the connection is killed if nothing has
+	 *            been received, in milliseconds.
+	 */
+	public Heartbeat(final long intervalMillis, final long timeoutMillis) {
+		this.intervalMillis = intervalMillis;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.rtt = new RttEstimator();
+		this.lastReceived = System.nanoTime();
+		this.task = null;
+	}
+
+	/**
+	 * Starts sending pings and checking for timeouts.
+	 *
+	 * @param sender
+	 *            The sender to send pings through.
+	 * @param onTimeout
+	 *            The action to take when the connection times out.
+	 */
+	public synchronized void start(final ClientSender sender, final Runnable onTimeout) {
+		if (intervalMillis > 0 && task == null) {
+			lastReceived = System.nanoTime();
+			task = SCHEDULER.scheduleAtFixedRate(() -> {
+				final long now = System.nanoTime();
+
+				if (now - lastReceived > timeoutNanos) {
+					stop();
+					onTimeout.run();
+				} else {
+					sender.sendPing(now);
+				}
+			}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops sending pings.
+	 */
+	public synchronized void stop() {
+		if (task != null) {
+			task.cancel(false);
+			task = null;
+		}
+	}
+
+	/**
+	 * Records that something was received from the remote end, so the
+	 * connection is still alive.
+	 */
+	public void onReceived() {
+		lastReceived = System.nanoTime();
+	}
+
+	/**
+	 * Records a pong received from the remote end.
+	 *
+	 * @param pingTime
+	 *            The time the ping being answered was sent, as echoed back by
+	 *            the remote end.
+	 */
+	public void onPong(final long pingTime) {
+		rtt.addSample(System.nanoTime() - pingTime);
+	}
+
+	/**
+	 * Gets the round-trip times measured by this heartbeat.
+	 *
+	 * @return The round-trip time estimator.
+	 */
+	public RttEstimator getRoundTripTimes() {
+		return rtt;
+	}
+}
@@ -0,0 +1,188 @@
+package main.java.networking.socket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import main.java.event.Event;
+import main.java.networking.ClientSocket;
+import main.java.networking.NetworkListener;
+import main.java.networking.PacketListener;
+import main.java.networking.PacketSocket;
+import main.java.networking.RttEstimator;
+import main.java.networking.data.Packet;
+import main.java.networking.event.ClientDisconnectedListener;
+
+/**
+ * Represents one end of an in-memory connection between a server and a client
+ * running in the same process (ie. the hosting player). Packets sent through
+ * the socket are placed directly into the queue of the other end, and are
+ * never converted to text or sent through the operating system.
+ *
+ * Each end delivers the packets it receives on its own thread, so that the
+ * sender never runs the receiver's listeners, just as with a {@link Client}.
+ * Packets sent to an end which has not yet been started are held in its queue
+ * until it starts.
+ */
+public class LocalSocket implements ClientSocket, PacketSocket, Runnable {
+	private final BlockingQueue<Packet> inbox;
+	private LocalSocket peer;
+	private int clientID;
+	private final boolean serverSide;
+	private Event<PacketListener, Packet> packetReceiveEvent;
+	private Event<NetworkListener, byte[]> receiveEvent;
+	private Event<ClientDisconnectedListener, Integer> disconnectedEvent;
+	private volatile boolean alive = false;
+	private Thread thread;
+	private final RttEstimator roundTripTimes;
+
+	/**
+	 * Creates the server end of a new in-memory connection. The client end is
+	 * created at the same time, and can be obtained with {@link #getPeer()}.
+	 *
+	 * @param clientID
+	 *            The ID assigned to the client by the server.
+	 */
+	public LocalSocket(final int clientID) {
+		this(clientID, true);
+		this.peer = new LocalSocket(clientID, false);
+		this.peer.peer = this;
+	}
+
+	/**
+	 * Private constructor to initialize events.
+	 */
+	private LocalSocket(final int clientID, final boolean serverSide) {
+		this.inbox = new LinkedBlockingQueue<>();
+		this.clientID = clientID;
+		this.serverSide = serverSide;
+		packetReceiveEvent = new Event<>((l, p) -> l.receivePacket(p));
+		receiveEvent = new Event<>((l, b) -> l.receive(b));
+		disconnectedEvent = new Event<>((l, i) -> l.onClientDisconnected(i));
+		roundTripTimes = new RttEstimator();
+	}
+
+	/**
+	 * Gets the socket at the other end of this connection.
+	 *
+	 * @return The other end of the connection.
+	 */
+	public LocalSocket getPeer() {
+		return peer;
+	}
+
+	/**
+	 * Starts delivering received packets to the listeners of this socket.
+	 */
+	@Override
+	public void start() {
+		if (!alive) {
+			alive = true;
+			thread = new Thread(this);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Takes packets from the queue and fires the receive events until either
+	 * end of the connection is killed.
+	 */
+	@Override
+	public void run() {
+		try {
+			while (alive) {
+				final Packet packet = inbox.take();
+
+				packetReceiveEvent.fire(packet);
+				if (receiveEvent.hasListeners()) {
+					receiveEvent.fire(packet.toString().getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		} catch (final InterruptedException e) {
+			// socket killed, just exit
+		} finally {
+			alive = false;
+			peer.die();
+			disconnectedEvent.fire(clientID);
+			disconnectedEvent.clearListeners();
+			packetReceiveEvent.clearListeners();
+			receiveEvent.clearListeners();
+		}
+	}
+
+	@Override
+	public void die() {
+		if (alive) {
+			alive = false;
+			thread.interrupt();
+			peer.die();
+		}
+	}
+
+	@Override
+	public boolean isAlive() {
+		return alive;
+	}
+
+	@Override
+	public void send(final byte[] data) {
+		sendPacket(Packet.fromString(new String(data, StandardCharsets.UTF_8)));
+	}
+
+	@Override
+	public void sendPacket(final Packet packet) {
+		if (alive) {
+			peer.inbox.add(packet);
+		} else {
+			throw new IllegalStateException("Cannot send data to a closed socket.");
+		}
+	}
+
+	@Override
+	public Event<PacketListener, Packet> getPacketReceiveEvent() {
+		return packetReceiveEvent;
+	}
+
+	@Override
+	public Event<NetworkListener, byte[]> getReceiveEvent() {
+		return receiveEvent;
+	}
+
+	@Override
+	public Event<ClientDisconnectedListener, Integer> getDisconnectedEvent() {
+		return disconnectedEvent;
+	}
+
+	/**
+	 * Gets the round-trip times of this connection. As the connection is in
+	 * memory, no round-trip times are ever measured.
+	 */
+	@Override
+	public RttEstimator getRoundTripTimes() {
+		return roundTripTimes;
+	}
+
+	@Override
+	public int getClientID() {
+		return clientID;
+	}
+
+	/**
+	 * Sets the current client ID, as received on the server, if this is the
+	 * client end of the connection.
+	 *
+	 * @param clientID
+	 *            The ID assigned to this client by the server.
+	 * @throws RuntimeException
+	 *             Thrown when this method is called on the server end of the
+	 *             connection.
+	 */
+	@Override
+	public void setClientID(final int clientID) {
+		if (!serverSide) {
+			this.clientID = clientID;
+		} else {
+			throw new RuntimeException("Cannot set client ID of client on server once initialised.");
+		}
+	}
+}
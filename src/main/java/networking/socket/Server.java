@@ -4,14 +4,17 @@ import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import main.java.event.Event;
+import main.java.networking.ClientSocket;
 import main.java.networking.NetworkServer;
 import main.java.networking.NetworkSocket;
+import main.java.networking.RttEstimator;
+import main.java.networking.TrafficStatistics;
 import main.java.networking.event.ClientConnectedListener;
 import main.java.networking.event.ClientDisconnectedListener;
 
@@ -27,9 +30,12 @@ public class Server implements NetworkServer, ClientDisconnectedListener, Runnab
 	private boolean alive = false;
 	private int serverPort;
 	private int currentClientNumber = 0;
-	private Map<Integer, Client> clients;
+	private Map<Integer, NetworkSocket> clients;
 	private Event<ClientConnectedListener, Integer> clientConnectedEvent;
 	private Event<ClientDisconnectedListener, Integer> clientDisconnectedEvent;
+	private TrafficStatistics statistics;
+	private long heartbeatInterval;
+	private long idleTimeout;
 
 	/**
 	 * Initialise Server object and attaching listeners to the events for
@@ -37,10 +43,12 @@ public class Server implements NetworkServer, ClientDisconnectedListener, Runnab
 	 */
 	public Server() {
 		serverPort = Port.number;
-		clients = new HashMap<Integer, Client>();
+		clients = new ConcurrentHashMap<Integer, NetworkSocket>();
 
 		clientConnectedEvent = new Event<>((l, i) -> l.onClientConnected(i));
 		clientDisconnectedEvent = new Event<>((l, i) -> l.onClientDisconnected(i));
+		heartbeatInterval = Client.DEFAULT_HEARTBEAT_INTERVAL;
+		idleTimeout = Client.DEFAULT_IDLE_TIMEOUT;
 	}
 
 	/**
@@ -67,8 +75,10 @@ public class Server implements NetworkServer, ClientDisconnectedListener, Runnab
 				Socket clientSocket = null;
 				try {
 					clientSocket = serverSocket.accept();
-					final int clientID = currentClientNumber++;
+					final int clientID = nextClientID();
 					final Client client = new Client(clientSocket, clientID);
+					client.setTrafficStatistics(statistics);
+					client.setHeartbeat(heartbeatInterval, idleTimeout);
 					client.start();
 					clients.put(clientID, client);
 					clientConnectedEvent.fire(clientID);
@@ -91,6 +101,85 @@ public class Server implements NetworkServer, ClientDisconnectedListener, Runnab
 		}
 	}
 
+	/**
+	 * Sets how often clients connecting from now on are pinged, and how long
+	 * they may send nothing before being disconnected.
+	 *
+	 * @param intervalMillis
+	 *            The interval between pings, in milliseconds, or {@code 0} to
+	 *            disable pings and idle timeouts.
+	 * @param timeoutMillis
+	 *            The idle timeout, in milliseconds.
+	 * @see Client#setHeartbeat(long, long)
+	 */
+	public void setHeartbeat(final long intervalMillis, final long timeoutMillis) {
+		if (intervalMillis > 0 && timeoutMillis <= intervalMillis) {
+			throw new IllegalArgumentException("Idle timeout must be longer than the heartbeat interval.");
+		}
+		this.heartbeatInterval = intervalMillis;
+		this.idleTimeout = timeoutMillis;
+	}
+
+	/**
+	 * Gets the round-trip times measured on the connection to the client with
+	 * the specified ID.
+	 *
+	 * @param clientID
+	 *            The ID of the client.
+	 * @return The round-trip time estimator of the client's connection.
+	 * @throws IllegalArgumentException
+	 *             Thrown when no client with the given {@code clientID} is
+	 *             connected.
+	 */
+	public RttEstimator getRoundTripTimes(final int clientID) {
+		return ((ClientSocket) getClient(clientID)).getRoundTripTimes();
+	}
+
+	/**
+	 * Sets the statistics which clients connecting from now on report their
+	 * send queue wait times to.
+	 *
+	 * @param statistics
+	 *            The statistics to report to, or {@code null} to not report.
+	 */
+	public void setTrafficStatistics(final TrafficStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Connects a client running in the same process as this server, such as
+	 * the hosting player, using an in-memory {@link LocalSocket} rather than a
+	 * network socket. The client is assigned an ID and announced through the
+	 * client connected event exactly like a remote client.
+	 *
+	 * @return The client end of the connection, which must be started before
+	 *         it will receive any packets.
+	 * @throws IllegalStateException
+	 *             Thrown when the server has not been started.
+	 */
+	public LocalSocket connectLocalClient() {
+		if (alive) {
+			final int clientID = nextClientID();
+			final LocalSocket serverEnd = new LocalSocket(clientID);
+			serverEnd.start();
+			clients.put(clientID, serverEnd);
+			clientConnectedEvent.fire(clientID);
+			serverEnd.getDisconnectedEvent().addOneTimeListener(this);
+			return serverEnd.getPeer();
+		} else {
+			throw new IllegalStateException("Cannot connect a local client before server has started.");
+		}
+	}
+
+	/**
+	 * Assigns the ID for a newly connected client.
+	 *
+	 * @return The next unused client ID.
+	 */
+	private synchronized int nextClientID() {
+		return currentClientNumber++;
+	}
+
 	@Override
 	public boolean isAlive() {
 		return alive;
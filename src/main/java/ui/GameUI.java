@@ -27,6 +27,8 @@ import main.java.audio.Music;
 import main.java.audio.SoundEffects;
 import main.java.constants.GameType;
 import main.java.event.Event;
+import main.java.event.EventProfiler;
+import main.java.event.ListenerLeakDetector;
 import main.java.event.arguments.GameCreatedEventArgs;
 import main.java.event.arguments.LobbyChangedEventArgs;
 import main.java.event.listener.GameClosingListener;
@@ -39,6 +41,7 @@ import main.java.gamelogic.core.MapService;
 import main.java.gamelogic.domain.Game;
 import main.java.graphics.PositionVisualisation;
 import main.java.graphics.Render;
+import main.java.networking.data.MapCache;
 import main.java.networking.integration.ClientInstance;
 import main.java.networking.integration.ServerInstance;
 
@@ -92,6 +95,7 @@ public class GameUI extends Application
 
 	private GameCommandService gameCommandService;
 	private MapService mapService;
+	private MapCache mapCache;
 	
 	public MapService getMapService() {
 		return mapService;
@@ -105,7 +109,11 @@ public class GameUI extends Application
 			audioDisabled = true;
 		}
 
+		EventProfiler.getInstance().registerMBean();
+		EventProfiler.getInstance().startReportingIfEnabled();
+
 		mapService = new MapService();
+		mapCache = new MapCache(mapService, MapCache.getDefaultDirectory());
 		gameCommandService = new GameCommandService(mapService);
 		gameCommandService.getLocalGameCreatedEvent().addListener(this);
 		gameCommandService.getRemoteGameCreatedEvent().addListener(this);
@@ -322,7 +330,8 @@ public class GameUI extends Application
 
 		lobby = new Lobby();
 		final ServerInstance server = new ServerInstance(lobby);
-		final ClientInstance client = new ClientInstance(this, name, "localhost");
+		final ClientInstance client = new ClientInstance(this, name, server);
+		client.setMapCache(mapCache);
 
 		onGameClosing.addOneTimeListener(() -> {
 			server.stop();
@@ -356,16 +365,12 @@ public class GameUI extends Application
 		server.run();
 		
 		gameSettingsScreen.onSettingsChanged();
-		try {
-			Thread.sleep(100);
-		} catch (final InterruptedException e) {
-			e.printStackTrace();
-		}
 		client.run();
 	}
 
 	public void joinGame(final String gameIp) {
 		final ClientInstance client = new ClientInstance(this, name, gameIp);
+		client.setMapCache(mapCache);
 
 		onGameClosing.addOneTimeListener(() -> {
 			client.stop();
@@ -416,6 +421,8 @@ public class GameUI extends Application
 	@Override
 	public void onGameCreated(final GameCreatedEventArgs args) {
 		if (args.getGame().getGameType() != GameType.MULTIPLAYER_SERVER) {
+			ListenerLeakDetector.getInstance()
+					.checkpoint("new " + args.getGame().getGameType().name().toLowerCase() + " game");
 			Platform.runLater(() -> {
 				final Render render = new Render(this, args.getGame(), args.getGameLogic());
 
@@ -0,0 +1,45 @@
+package test.java.event;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import main.java.event.EventArgsPool;
+
+public class EventArgsPoolTest {
+	@Test
+	public void testReused() {
+		final EventArgsPool<StringBuilder> pool = new EventArgsPool<>(StringBuilder::new);
+		final StringBuilder first = pool.acquire();
+		pool.release(first);
+
+		assertSame(first, pool.acquire());
+	}
+
+	@Test
+	public void testNestedAcquire() {
+		final EventArgsPool<StringBuilder> pool = new EventArgsPool<>(StringBuilder::new);
+		final StringBuilder outer = pool.acquire();
+		final StringBuilder inner = pool.acquire();
+		assertNotSame(outer, inner);
+
+		pool.release(inner);
+		assertNotSame(outer, pool.acquire());
+		pool.release(outer);
+		assertSame(outer, pool.acquire());
+	}
+
+	@Test
+	public void testPerThread() throws InterruptedException {
+		final EventArgsPool<StringBuilder> pool = new EventArgsPool<>(StringBuilder::new);
+		final StringBuilder mine = pool.acquire();
+		pool.release(mine);
+
+		final StringBuilder[] theirs = new StringBuilder[1];
+		final Thread thread = new Thread(() -> theirs[0] = pool.acquire());
+		thread.start();
+		thread.join();
+		assertNotSame(mine, theirs[0]);
+	}
+}
@@ -0,0 +1,86 @@
+package test.java.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.event.EventBus;
+import main.java.event.EventChannel;
+import main.java.event.arguments.CellStateChangedEventArgs;
+import main.java.event.listener.CellStateChangedEventListener;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Map;
+
+public class EventBusTest {
+	private interface NameListener {
+		void onName(String name);
+	}
+
+	private static final EventChannel<NameListener, String> NAMES = new EventChannel<>("names", (l, s) -> l.onName(s));
+
+	@Test
+	public void testChannelAndSourceListeners() {
+		final EventBus bus = new EventBus();
+		final List<String> all = new ArrayList<>();
+		final List<String> fromTwo = new ArrayList<>();
+		bus.subscribe(NAMES, all::add);
+		bus.subscribe(NAMES, 2, fromTwo::add);
+
+		bus.fire(NAMES, 1, "a");
+		bus.fire(NAMES, 2, "b");
+
+		assertEquals(2, all.size());
+		assertEquals(1, fromTwo.size());
+		assertEquals("b", fromTwo.get(0));
+	}
+
+	@Test
+	public void testHasListeners() {
+		final EventBus bus = new EventBus();
+		assertFalse(bus.hasListeners(NAMES, 1));
+
+		final NameListener listener = s -> {
+		};
+		bus.subscribe(NAMES, 1, listener);
+		assertTrue(bus.hasListeners(NAMES, 1));
+		assertFalse(bus.hasListeners(NAMES, 2));
+
+		bus.unsubscribe(NAMES, listener);
+		assertFalse(bus.hasListeners(NAMES, 1));
+	}
+
+	@Test
+	public void testSourceEventIsStable() {
+		final EventBus bus = new EventBus();
+		assertSame(bus.getEvent(NAMES, 3), bus.getEvent(NAMES, 3));
+		assertSame(bus.getEvent(NAMES), bus.getEvent(NAMES));
+	}
+
+	@Test
+	public void testCellEventsCarriedByMap() {
+		final Map map = Map.generateMap();
+		final Cell cell = map.getCell(1, 1);
+		final List<CellStateChangedEventArgs> mapChanges = new ArrayList<>();
+		final List<CellStateChangedEventArgs> cellChanges = new ArrayList<>();
+		map.getOnCellStateChanged().addListener(mapChanges::add);
+		final CellStateChangedEventListener cellListener = a -> cellChanges.add(a.copy());
+		cell.getOnCellStateChanged().addListener(cellListener);
+
+		cell.setState(CellState.EMPTY);
+		map.getCell(2, 3).setState(CellState.EMPTY);
+
+		assertEquals(2, mapChanges.size());
+		assertEquals(1, cellChanges.size());
+		assertSame(cell, cellChanges.get(0).getChangeCell());
+		assertTrue(cell.getOnCellStateChanged().isListenedToBy(cellListener));
+		assertSame(map.getEventBus().getEvent(Cell.STATE_CHANGED, map.getCellID(1, 1)),
+				cell.getOnCellStateChanged());
+	}
+}
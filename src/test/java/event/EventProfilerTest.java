@@ -0,0 +1,83 @@
+package test.java.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import main.java.event.Event;
+import main.java.event.EventProfiler;
+
+public class EventProfilerTest {
+	private interface NameListener {
+		void onName(String name);
+	}
+
+	private static class SlowListener implements NameListener {
+		@Override
+		public void onName(final String name) {
+			try {
+				Thread.sleep(2);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		EventProfiler.getInstance().setEnabled(false);
+	}
+
+	@Test
+	public void testReport() {
+		final EventProfiler profiler = EventProfiler.getInstance();
+		profiler.setEnabled(true);
+
+		final Event<NameListener, String> event = new Event<>("test-names", (l, s) -> l.onName(s));
+		event.addListener(new SlowListener());
+		event.fire("a");
+		event.fire("b");
+
+		final String report = profiler.getReport();
+		assertTrue(report, report.contains("test-names"));
+		assertTrue(report, report.contains("SlowListener"));
+	}
+
+	@Test
+	public void testInterval() {
+		final EventProfiler profiler = EventProfiler.getInstance();
+		profiler.setEnabled(true);
+
+		final Event<NameListener, String> event = new Event<>((l, s) -> l.onName(s));
+		event.addListener(new SlowListener());
+
+		profiler.beginInterval();
+		event.fire("a");
+		final List<Map.Entry<String, Long>> times = profiler.endInterval();
+
+		assertEquals(1, times.size());
+		assertTrue(times.get(0).getKey().contains("SlowListener"));
+		assertTrue(times.get(0).getValue() >= 1000000);
+		assertTrue(profiler.getReport().contains("fired by EventProfilerTest.testInterval"));
+	}
+
+	@Test
+	public void testDisabled() {
+		final EventProfiler profiler = EventProfiler.getInstance();
+		profiler.setEnabled(false);
+		profiler.reset();
+
+		final Event<NameListener, String> event = new Event<>("test-disabled", (l, s) -> l.onName(s));
+		event.addListener(s -> {
+		});
+		event.fire("a");
+
+		assertFalse(profiler.getReport().contains("test-disabled"));
+	}
+}
@@ -0,0 +1,171 @@
+package test.java.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import main.java.event.EventFlow;
+import main.java.event.EventPublisher;
+import main.java.event.EventPublisher.OverflowPolicy;
+
+public class EventPublisherTest {
+	/**
+	 * An executor which runs its tasks only when asked to, so the tests can
+	 * control when subscribers receive items.
+	 */
+	private static class ManualExecutor implements Executor {
+		private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public void execute(final Runnable task) {
+			tasks.add(task);
+		}
+
+		public void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.poll().run();
+			}
+		}
+	}
+
+	private static class RecordingSubscriber implements EventFlow.Subscriber<Integer> {
+		private final List<Integer> items = new ArrayList<>();
+		private EventFlow.Subscription subscription;
+		private boolean completed;
+		private Throwable error;
+
+		@Override
+		public void onSubscribe(final EventFlow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(final Integer item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+
+	@Test
+	public void testDeliversOnlyRequestedItems() {
+		final ManualExecutor executor = new ManualExecutor();
+		final EventPublisher<Integer> publisher = new EventPublisher<>(executor, 8, OverflowPolicy.DROP_OLDEST);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		for (int i = 0; i < 5; i++) {
+			publisher.submit(i);
+		}
+		executor.runAll();
+		assertTrue(subscriber.items.isEmpty());
+
+		subscriber.subscription.request(2);
+		executor.runAll();
+		assertEquals(Arrays.asList(0, 1), subscriber.items);
+
+		subscriber.subscription.request(10);
+		executor.runAll();
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4), subscriber.items);
+	}
+
+	@Test
+	public void testDropOldest() {
+		final ManualExecutor executor = new ManualExecutor();
+		final EventPublisher<Integer> publisher = new EventPublisher<>(executor, 3, OverflowPolicy.DROP_OLDEST);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		for (int i = 0; i < 5; i++) {
+			publisher.submit(i);
+		}
+		subscriber.subscription.request(Long.MAX_VALUE);
+		executor.runAll();
+
+		assertEquals(Arrays.asList(2, 3, 4), subscriber.items);
+	}
+
+	@Test
+	public void testConflate() {
+		final ManualExecutor executor = new ManualExecutor();
+		final EventPublisher<Integer> publisher = new EventPublisher<>(executor, 3, OverflowPolicy.CONFLATE);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		for (int i = 0; i < 5; i++) {
+			publisher.submit(i);
+		}
+		subscriber.subscription.request(Long.MAX_VALUE);
+		executor.runAll();
+
+		assertEquals(Arrays.asList(0, 1, 4), subscriber.items);
+	}
+
+	@Test
+	public void testFailRemovesSubscriber() {
+		final ManualExecutor executor = new ManualExecutor();
+		final EventPublisher<Integer> publisher = new EventPublisher<>(executor, 2, OverflowPolicy.FAIL);
+		final RecordingSubscriber slow = new RecordingSubscriber();
+		final RecordingSubscriber fast = new RecordingSubscriber();
+		publisher.subscribe(slow);
+		publisher.subscribe(fast);
+		fast.subscription.request(Long.MAX_VALUE);
+
+		for (int i = 0; i < 3; i++) {
+			publisher.submit(i);
+			executor.runAll();
+		}
+
+		assertTrue(slow.error instanceof IllegalStateException);
+		assertTrue(slow.items.isEmpty());
+		assertEquals(Arrays.asList(0, 1, 2), fast.items);
+		assertEquals(1, publisher.getSubscriberCount());
+	}
+
+	@Test
+	public void testCompletesAfterBufferedItems() {
+		final EventPublisher<Integer> publisher = new EventPublisher<>(Runnable::run, 8, OverflowPolicy.FAIL);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		publisher.submit(1);
+		publisher.close();
+		assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList(1), subscriber.items);
+		assertTrue(subscriber.completed);
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	@Test
+	public void testCancelStopsDelivery() {
+		final EventPublisher<Integer> publisher = new EventPublisher<>(Runnable::run, 8, OverflowPolicy.FAIL);
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		publisher.submit(1);
+		subscriber.subscription.cancel();
+		publisher.submit(2);
+
+		assertEquals(Arrays.asList(1), subscriber.items);
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+}
@@ -0,0 +1,152 @@
+package test.java.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import main.java.event.Event;
+
+public class EventTest {
+	private interface CountListener {
+		void onCount(int count);
+	}
+
+	private static Event<CountListener, Integer> newEvent() {
+		return new Event<>((l, i) -> l.onCount(i));
+	}
+
+	@Test
+	public void testFire() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addListener(total::addAndGet);
+		event.addListener(total::addAndGet);
+
+		event.fire(3);
+		assertEquals(6, total.get());
+	}
+
+	@Test
+	public void testOneTimeListener() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addOneTimeListener(total::addAndGet);
+		assertTrue(event.hasListeners());
+
+		event.fire(1);
+		event.fire(1);
+		assertEquals(1, total.get());
+		assertFalse(event.hasListeners());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateListener() {
+		final Event<CountListener, Integer> event = newEvent();
+		final CountListener listener = i -> {
+		};
+		event.addListener(listener);
+		event.addListener(listener);
+	}
+
+	@Test
+	public void testRemoveListener() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		final CountListener listener = total::addAndGet;
+		event.addListener(listener);
+		assertTrue(event.isListenedToBy(listener));
+
+		event.removeListener(listener);
+		assertFalse(event.isListenedToBy(listener));
+		assertFalse(event.hasListeners());
+		event.fire(1);
+		assertEquals(0, total.get());
+	}
+
+	@Test
+	public void testClearListeners() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addListener(total::addAndGet);
+		event.addOneTimeListener(total::addAndGet);
+
+		event.clearListeners();
+		assertFalse(event.hasListeners());
+		event.fire(1);
+		assertEquals(0, total.get());
+	}
+
+	@Test
+	public void testModifyWhileFiring() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addListener(new CountListener() {
+			@Override
+			public void onCount(final int count) {
+				event.removeListener(this);
+				event.addListener(total::addAndGet);
+			}
+		});
+
+		event.fire(1);
+		event.fire(1);
+		assertEquals(1, total.get());
+	}
+
+	@Test
+	public void testListenerExceptionDoesNotStopOthers() {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addListener(i -> {
+			throw new RuntimeException("expected by test");
+		});
+		event.addListener(total::addAndGet);
+
+		event.fire(1);
+		assertEquals(1, total.get());
+	}
+
+	@Test
+	public void testListenerExceptionReportedWithEventName() {
+		final Event<CountListener, Integer> event = new Event<>("count-changed", (l, i) -> l.onCount(i));
+		event.addListener(i -> {
+			throw new IllegalStateException("expected by test");
+		});
+
+		final PrintStream err = System.err;
+		final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(captured, true));
+		try {
+			event.fire(1);
+		} finally {
+			System.setErr(err);
+		}
+
+		final String report = captured.toString();
+		assertTrue(report, report.contains("'count-changed'"));
+		assertTrue(report, report.contains("IllegalStateException: expected by test"));
+	}
+
+	@Test
+	public void testOneTimeListenerFiredOnceAcrossThreads() throws InterruptedException {
+		final Event<CountListener, Integer> event = newEvent();
+		final AtomicInteger total = new AtomicInteger();
+		event.addOneTimeListener(total::addAndGet);
+
+		final Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> event.fire(1));
+			threads[i].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1, total.get());
+	}
+}
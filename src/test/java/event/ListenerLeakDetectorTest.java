@@ -0,0 +1,73 @@
+package test.java.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.java.event.Event;
+import main.java.event.ListenerLeakDetector;
+
+public class ListenerLeakDetectorTest {
+	private interface NameListener {
+		void onName(String name);
+	}
+
+	@Before
+	public void setUp() {
+		ListenerLeakDetector.getInstance().setTracking(true);
+	}
+
+	@After
+	public void tearDown() {
+		ListenerLeakDetector.getInstance().setTracking(false);
+	}
+
+	private static void addLeakyListener(final Event<NameListener, String> event) {
+		event.addListener(new NameListener() {
+			@Override
+			public void onName(final String name) {
+			}
+		});
+	}
+
+	@Test
+	public void testGrowingEventReported() {
+		final ListenerLeakDetector detector = ListenerLeakDetector.getInstance();
+		final Event<NameListener, String> leaky = new Event<>("leaky", (l, s) -> l.onName(s));
+		final Event<NameListener, String> steady = new Event<>("steady", (l, s) -> l.onName(s));
+
+		List<ListenerLeakDetector.Leak> leaks = null;
+		for (int game = 0; game <= ListenerLeakDetector.GROWTH_CHECKPOINTS; game++) {
+			addLeakyListener(leaky);
+
+			final NameListener listener = s -> {
+			};
+			steady.addListener(listener);
+			leaks = detector.checkpoint("game " + game);
+			steady.removeListener(listener);
+		}
+
+		assertEquals(1, leaks.size());
+		assertEquals("leaky", leaks.get(0).getEventName());
+		assertEquals(ListenerLeakDetector.GROWTH_CHECKPOINTS + 1, (int) leaks.get(0).getSites().values().iterator()
+				.next());
+		assertTrue(leaks.get(0).getSites().keySet().iterator().next()
+				.startsWith("ListenerLeakDetectorTest.addLeakyListener"));
+	}
+
+	@Test
+	public void testNotTracking() {
+		final ListenerLeakDetector detector = ListenerLeakDetector.getInstance();
+		detector.setTracking(false);
+		final Event<NameListener, String> leaky = new Event<>("leaky", (l, s) -> l.onName(s));
+		for (int game = 0; game <= ListenerLeakDetector.GROWTH_CHECKPOINTS; game++) {
+			addLeakyListener(leaky);
+			assertTrue(detector.checkpoint("game " + game).isEmpty());
+		}
+	}
+}
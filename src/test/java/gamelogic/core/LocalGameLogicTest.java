@@ -0,0 +1,256 @@
+package test.java.gamelogic.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import main.java.ai.AIGhost;
+import main.java.ai.AIPlayer;
+import main.java.ai.DefaultBehaviour;
+import main.java.ai.GhostBehaviour;
+import main.java.constants.CellState;
+import main.java.constants.GameType;
+import main.java.gamelogic.core.AllocationMeter;
+import main.java.gamelogic.core.GameLogic;
+import main.java.gamelogic.core.LocalGameLogic;
+import main.java.gamelogic.domain.Behaviour;
+import main.java.gamelogic.domain.Game;
+import main.java.gamelogic.domain.GameSettings;
+import main.java.gamelogic.domain.LocalGhost;
+import main.java.gamelogic.domain.LocalPlayer;
+import main.java.gamelogic.domain.LocalSkillSet;
+import main.java.gamelogic.domain.Map;
+import main.java.gamelogic.domain.Position;
+import main.java.gamelogic.domain.RuleChecker;
+import main.java.gamelogic.domain.World;
+import test.java.gamelogic.random.TestWorlds;
+
+public class LocalGameLogicTest {
+	/**
+	 * The most a published world snapshot which shares everything with the
+	 * previous one should take up.
+	 */
+	private static final long MAX_SNAPSHOT_BYTES = 96;
+
+	/**
+	 * The most a game step in which every entity moves and each player eats a
+	 * dot should allocate on a small map: the snapshots of the entities which
+	 * moved, the page of cell states holding the eaten dots, and the cells
+	 * fetched for the first time.
+	 */
+	private static final long MAX_MOVING_STEP_BYTES = 1536;
+
+	/**
+	 * An entity which moves to a set position on the next game step.
+	 */
+	private static class SteppingGhost extends LocalGhost {
+		private Position next;
+
+		@Override
+		public void gameStep(final Game game) {
+			if (next != null) {
+				setPosition(next);
+			}
+		}
+	}
+
+	private static class SteppingPlayer extends LocalPlayer {
+		private Position next;
+
+		public SteppingPlayer() {
+			super("Player");
+			setSkillSet(LocalSkillSet.createDefaultSkillSet(this));
+		}
+
+		@Override
+		public void gameStep(final Game game) {
+			if (next != null) {
+				setPosition(next);
+			}
+		}
+	}
+
+	/**
+	 * Creates a started game on an empty map, with one food cell so that it
+	 * does not end straight away.
+	 */
+	private static Game emptyGame() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		world.getMap().getCell(9, 9).setState(CellState.FOOD);
+		final Game game = new Game(world, new GameSettings(), GameType.SINGLEPLAYER);
+		game.setStarted();
+		return game;
+	}
+
+	/**
+	 * Plays a seeded game between AI ghosts and an AI player, and gets the
+	 * state hash after each game step.
+	 */
+	private static List<Long> playSeededGame(final long seed, final int steps) {
+		final GameSettings settings = new GameSettings();
+		settings.setSeed(seed);
+		final World world = new World(new RuleChecker(), Map.generateMap(), false);
+		world.setSeed(settings.getSeed());
+		final Game game = new Game(world, settings, GameType.SINGLEPLAYER);
+		final LocalGameLogic logic = new LocalGameLogic(game);
+
+		for (int i = 0; i < 4; i++) {
+			final AIGhost ghost = new AIGhost();
+			ghost.setPosition(world.getCandidateSpawnPosition());
+			ghost.setBehaviour(new GhostBehaviour(world, ghost, Behaviour.Type.GHOST));
+			world.addEntity(ghost);
+		}
+		final AIPlayer player = new AIPlayer();
+		player.setPosition(world.getCandidateSpawnPosition());
+		player.setBehaviour(new DefaultBehaviour(world, player, Behaviour.Type.DEFAULT));
+		player.setSkillSet(LocalSkillSet.createDefaultSkillSet(player));
+		world.addEntity(player);
+
+		game.setStarted();
+		final List<Long> hashes = new ArrayList<>();
+		for (int i = 0; i < steps && !game.hasEnded(); i++) {
+			logic.gameStep(GameLogic.GAME_STEP_DURATION);
+			hashes.add(world.getSnapshot().getStateHash());
+		}
+		return hashes;
+	}
+
+	@Test
+	public void testSeededGamesAreIdentical() {
+		final List<Long> first = playSeededGame(42, 60);
+		final List<Long> second = playSeededGame(42, 60);
+
+		assertEquals(first, second);
+		assertNotEquals(first.get(0), first.get(first.size() - 1));
+		assertNotEquals(first, playSeededGame(43, 60));
+	}
+
+	@Test
+	public void testSwappingCellsEatsPlayer() {
+		final Game game = emptyGame();
+		final LocalGameLogic logic = new LocalGameLogic(game);
+		final SteppingPlayer player = new SteppingPlayer();
+		player.setPosition(Position.of(2, 2));
+		game.getWorld().addEntity(player);
+		final SteppingPlayer bystander = new SteppingPlayer();
+		bystander.setPosition(Position.of(5, 5));
+		game.getWorld().addEntity(bystander);
+		final SteppingGhost ghost = new SteppingGhost();
+		ghost.setPosition(Position.of(2, 3));
+		game.getWorld().addEntity(ghost);
+
+		player.next = Position.of(2, 3);
+		ghost.next = Position.of(2, 2);
+		logic.gameStep(GameLogic.GAME_STEP_DURATION);
+
+		assertNull(game.getWorld().getEntity(player.getID()));
+		assertSame(bystander, game.getWorld().getEntity(bystander.getID()));
+		assertFalse(game.hasEnded());
+	}
+
+	@Test
+	public void testShieldAbsorbsOneCollisionPerStep() {
+		final Game game = emptyGame();
+		final LocalGameLogic logic = new LocalGameLogic(game);
+		final SteppingPlayer player = new SteppingPlayer();
+		player.setPosition(Position.of(4, 4));
+		game.getWorld().addEntity(player);
+		player.getSkillSet().getW().setShieldValue(3);
+		for (int i = 0; i < 2; i++) {
+			final SteppingGhost ghost = new SteppingGhost();
+			ghost.setPosition(Position.of(4, 3 + 2 * i));
+			ghost.next = Position.of(4, 4);
+			game.getWorld().addEntity(ghost);
+		}
+
+		// the player meets two ghosts at once, but is only eaten once, and the
+		// shields of all players also decay on the first step
+		logic.gameStep(GameLogic.GAME_STEP_DURATION);
+		assertSame(player, game.getWorld().getEntity(player.getID()));
+		assertEquals(1, player.getSkillSet().getW().getShieldValue());
+	}
+
+	@Test
+	public void testSteadyStateGameStepOnlyAllocatesSnapshot() {
+		Assume.assumeTrue(AllocationMeter.isSupported());
+		final Game game = emptyGame();
+		final LocalGameLogic logic = new LocalGameLogic(game);
+		for (int i = 0; i < 3; i++) {
+			final SteppingPlayer player = new SteppingPlayer();
+			player.setPosition(Position.of(1, 2 * i));
+			game.getWorld().addEntity(player);
+			final SteppingGhost ghost = new SteppingGhost();
+			ghost.setPosition(Position.of(6, 2 * i));
+			game.getWorld().addEntity(ghost);
+		}
+
+		for (int i = 0; i < 100; i++) {
+			logic.gameStep(GameLogic.GAME_STEP_DURATION);
+		}
+		final AllocationMeter meter = new AllocationMeter();
+		for (int i = 0; i < 100; i++) {
+			meter.begin();
+			logic.gameStep(GameLogic.GAME_STEP_DURATION);
+			meter.end();
+		}
+
+		assertFalse(game.hasEnded());
+		// the average is checked rather than the largest step, as the odd step
+		// can be charged for allocations made by the JVM itself
+		assertTrue("Game steps allocated " + meter.getAverageBytes() + " bytes on average",
+				meter.getAverageBytes() <= MAX_SNAPSHOT_BYTES);
+	}
+
+	@Test
+	public void testGameStepAllocatesForWhatChangedOnly() {
+		Assume.assumeTrue(AllocationMeter.isSupported());
+		final World world = TestWorlds.filledWorld(15, CellState.FOOD);
+		final Game game = new Game(world, new GameSettings(), GameType.SINGLEPLAYER);
+		game.setStarted();
+		final LocalGameLogic logic = new LocalGameLogic(game);
+		final SteppingPlayer[] players = new SteppingPlayer[2];
+		for (int i = 0; i < players.length; i++) {
+			players[i] = new SteppingPlayer();
+			players[i].setPosition(Position.of(7 * i, 0));
+			world.addEntity(players[i]);
+		}
+		final SteppingGhost[] ghosts = new SteppingGhost[3];
+		for (int i = 0; i < ghosts.length; i++) {
+			ghosts[i] = new SteppingGhost();
+			ghosts[i].setPosition(Position.of(14, 2 * i));
+			world.addEntity(ghosts[i]);
+		}
+
+		final AllocationMeter meter = new AllocationMeter();
+		for (int step = 1; step <= 100; step++) {
+			if (step == 31) {
+				meter.reset();
+			}
+			// each player walks along its own rows eating the dots, while the
+			// ghosts pace back and forth out of their way
+			for (int i = 0; i < players.length; i++) {
+				players[i].next = Position.of(7 * i + step / 15, step % 15);
+			}
+			for (int i = 0; i < ghosts.length; i++) {
+				ghosts[i].next = Position.of(14, 2 * i + step % 2);
+			}
+			meter.begin();
+			logic.gameStep(GameLogic.GAME_STEP_DURATION);
+			meter.end();
+		}
+
+		assertFalse(game.hasEnded());
+		assertEquals(225 - 2 * 100, world.getMap().getFoodCount());
+		assertTrue("Game steps allocated " + meter.getAverageBytes() + " bytes on average",
+				meter.getAverageBytes() <= MAX_MOVING_STEP_BYTES);
+	}
+}
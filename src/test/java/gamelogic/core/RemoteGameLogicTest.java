@@ -0,0 +1,52 @@
+package test.java.gamelogic.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.constants.GameType;
+import main.java.gamelogic.core.DisplayChanges;
+import main.java.gamelogic.core.RemoteGameLogic;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Game;
+import main.java.gamelogic.domain.GameSettings;
+import main.java.gamelogic.domain.Map;
+import main.java.gamelogic.domain.Position;
+import main.java.gamelogic.domain.RemoteGhost;
+import main.java.gamelogic.domain.RuleChecker;
+import main.java.gamelogic.domain.World;
+
+public class RemoteGameLogicTest {
+	@Test
+	public void testDisplayInvalidationCoalesced() {
+		final World world = new World(new RuleChecker(), Map.generateMap(), true);
+		final RemoteGameLogic logic = new RemoteGameLogic(new Game(world, new GameSettings(), GameType.MULTIPLAYER_CLIENT));
+		final AtomicInteger invalidations = new AtomicInteger();
+		logic.getOnGameDisplayInvalidated().addListener(a -> invalidations.incrementAndGet());
+
+		final RemoteGhost ghost = new RemoteGhost(5);
+		ghost.setPosition(new Position(1, 1));
+		world.addEntity(ghost);
+		final Cell cell = world.getMap().getCell(1, 1);
+
+		ghost.setPosition(new Position(1, 2));
+		ghost.setPosition(new Position(1, 3));
+		cell.setState(CellState.EMPTY);
+		assertEquals(1, invalidations.get());
+
+		final DisplayChanges changes = logic.takeDisplayChanges();
+		assertTrue(changes.hasEntityChanged(5));
+		assertTrue(changes.getCells().contains(cell));
+
+		ghost.setPosition(new Position(1, 2));
+		assertEquals(2, invalidations.get());
+		final DisplayChanges next = logic.takeDisplayChanges();
+		assertTrue(next.hasEntityChanged(5));
+		assertFalse(next.getCells().contains(cell));
+	}
+}
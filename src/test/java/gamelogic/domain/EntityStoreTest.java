@@ -0,0 +1,102 @@
+package test.java.gamelogic.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.EntityStore;
+import main.java.gamelogic.domain.LocalGhost;
+import main.java.gamelogic.domain.LocalPlayer;
+import main.java.gamelogic.domain.Position;
+import main.java.gamelogic.domain.World;
+import test.java.gamelogic.random.TestWorlds;
+
+public class EntityStoreTest {
+	@Test
+	public void shouldWriteThroughEntityState() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalPlayer player = new LocalPlayer("Player");
+		player.setPosition(new Position(1, 2));
+		player.setAngle(90.0);
+		world.addEntity(player);
+
+		final EntityStore store = world.getEntityStore();
+		final int slot = player.getSlot();
+		assertSame(player, store.getEntity(slot));
+		assertEquals(EntityStore.KIND_PLAYER, store.getKind(slot));
+		assertEquals(1, store.getRow(slot));
+		assertEquals(2, store.getColumn(slot));
+		assertEquals(90.0, store.getAngle(slot), 0);
+		assertTrue(store.hasFlag(slot, EntityStore.FLAG_POSITIONED));
+
+		player.setPosition(new Position(3, 4));
+		player.setAngle(180.0);
+		assertEquals(3, store.getRow(slot));
+		assertEquals(4, store.getColumn(slot));
+		assertEquals(180.0, store.getAngle(slot), 0);
+		assertFalse(store.hasFlag(slot, EntityStore.FLAG_KILLED));
+	}
+
+	@Test
+	public void shouldKeepSlotsDense() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalGhost[] ghosts = new LocalGhost[20];
+		for (int i = 0; i < ghosts.length; i++) {
+			ghosts[i] = new LocalGhost();
+			ghosts[i].setPosition(new Position(i % 10, i / 10));
+			world.addEntity(ghosts[i]);
+		}
+
+		world.removeEntity(ghosts[3].getID());
+		final EntityStore store = world.getEntityStore();
+		assertEquals(19, store.size());
+		assertEquals(-1, ghosts[3].getSlot());
+
+		final LocalGhost last = ghosts[19];
+		assertEquals(3, last.getSlot());
+		assertSame(last, store.getEntity(3));
+		assertEquals(9, store.getRow(3));
+		assertEquals(1, store.getColumn(3));
+		assertEquals(EntityStore.KIND_GHOST, store.getKind(3));
+	}
+
+	@Test
+	public void shouldNotWriteMovesIntoAnotherEntitysSlot() throws InterruptedException {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final EntityStore store = world.getEntityStore();
+		final LocalPlayer moved = new LocalPlayer("Player");
+		moved.setPosition(Position.of(1, 1));
+		final LocalGhost still = new LocalGhost();
+		still.setPosition(Position.of(8, 8));
+
+		world.addEntity(moved);
+		final Thread mover = new Thread(() -> {
+			for (int i = 0; i < 100000; i++) {
+				moved.setPosition(Position.of(1, 1 + (i & 1)));
+				moved.setAngle(90.0);
+			}
+		});
+		mover.start();
+
+		int overwritten = 0;
+		while (mover.isAlive()) {
+			// removing the moving player moves the still ghost into its slot
+			world.addEntity(still);
+			world.removeEntity(moved.getID());
+			synchronized (world.getEntityLock()) {
+				if (store.getRow(still.getSlot()) != 8 || store.getAngle(still.getSlot()) != 0) {
+					overwritten++;
+				}
+			}
+			world.removeEntity(still.getID());
+			world.addEntity(moved);
+		}
+		mover.join();
+
+		assertEquals(0, overwritten);
+	}
+}
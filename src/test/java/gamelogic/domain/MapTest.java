@@ -1,11 +1,15 @@
 package test.java.gamelogic.domain;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import org.hamcrest.core.Is;
 import org.junit.Test;
 
+import main.java.constants.CellState;
 import main.java.gamelogic.domain.Cell;
 import main.java.gamelogic.domain.Map;
 import main.java.gamelogic.domain.Position;
@@ -49,4 +53,66 @@ public class MapTest {
 		assertTrue(map.getMapSize()==map.getCells().length);
 	}
 
+	@Test
+	public void shouldCountFood() {
+		// Given
+		final Map map = new MapStub(3);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				map.addCell(new Cell(j == 0 ? CellState.EMPTY : CellState.FOOD, new Position(i, j)));
+			}
+		}
+		assertEquals(6, map.getFoodCount());
+
+		// When
+		map.getCell(0, 1).setState(CellState.EMPTY);
+		map.getCell(0, 2).setState(CellState.EMPTY);
+		map.getCell(1, 0).setState(CellState.FOOD);
+		map.addCell(new Cell(CellState.OBSTACLE, new Position(2, 2)));
+
+		// Then
+		assertEquals(4, map.getFoodCount());
+	}
+
+	@Test
+	public void shouldTrackCellStates() {
+		// Given
+		final Map map = new MapStub(4);
+		map.addCell(new Cell(CellState.OBSTACLE, new Position(1, 1)));
+		map.addCell(new Cell(CellState.FOOD, new Position(2, 3)));
+
+		// Then
+		assertTrue(map.isObstacle(1, 1));
+		assertTrue(map.isObstacle(-1, 0));
+		assertFalse(map.isObstacle(0, 0));
+		assertTrue(map.hasFood(2, 3));
+		assertEquals(CellState.EMPTY, map.getState(3, 3));
+
+		// When
+		map.getCell(2, 3).setState(CellState.EMPTY);
+		map.getCell(0, 2).setState(CellState.FOOD);
+
+		// Then
+		assertFalse(map.hasFood(2, 3));
+		assertTrue(map.hasFood(0, 2));
+		assertEquals(1, map.getFoodCount());
+		assertSame(map.getCell(0, 2), map.getCells()[0][2]);
+	}
+
+	@Test
+	public void shouldCopyStatesWithoutSharingCells() {
+		// Given
+		final Map map = new MapStub(3);
+		map.getCell(1, 1).setState(CellState.FOOD);
+
+		// When
+		final Map copy = map.copy();
+		copy.getCell(1, 1).setState(CellState.EMPTY);
+
+		// Then
+		assertEquals(CellState.FOOD, map.getCell(1, 1).getState());
+		assertTrue(map.hasFood(1, 1));
+		assertEquals(0, copy.getFoodCount());
+	}
+
 }
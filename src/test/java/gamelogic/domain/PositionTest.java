@@ -1,5 +1,7 @@
 package test.java.gamelogic.domain;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import org.hamcrest.core.Is;
@@ -24,4 +26,30 @@ public class PositionTest {
 		assertThat(position.getColumn(), Is.is(y));
 	}
 
+	@Test
+	public void shouldHashConsistentlyWithEquals() {
+		final Position position = new Position(3, 7);
+		final Position same = new Position(3, 7);
+
+		assertEquals(position, same);
+		assertEquals(position.hashCode(), same.hashCode());
+		assertEquals(position, Position.of(3, 7));
+	}
+
+	@Test
+	public void shouldShareMapPositions() {
+		assertSame(Position.of(4, 5), Position.of(4, 5));
+		assertSame(Position.of(4, 5), Position.of(4, 4).add(0, 1));
+		assertEquals(new Position(-1, 500), Position.of(-1, 500));
+	}
+
+	@Test
+	public void shouldPack() {
+		final int packed = Position.pack(-3, 12);
+
+		assertEquals(-3, Position.unpackRow(packed));
+		assertEquals(12, Position.unpackColumn(packed));
+		assertEquals(new Position(-3, 12), Position.unpack(packed));
+		assertEquals(Position.pack(9, -4), new Position(9, -4).pack());
+	}
 }
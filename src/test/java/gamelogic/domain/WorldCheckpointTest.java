@@ -0,0 +1,130 @@
+package test.java.gamelogic.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.LocalGhost;
+import main.java.gamelogic.domain.LocalPlayer;
+import main.java.gamelogic.domain.Map;
+import main.java.gamelogic.domain.Position;
+import main.java.gamelogic.domain.World;
+import main.java.gamelogic.domain.WorldCheckpoint;
+import test.java.gamelogic.random.TestWorlds;
+
+public class WorldCheckpointTest {
+	@Test
+	public void shouldRollBackEntitiesAndCells() {
+		final World world = TestWorlds.filledWorld(5, CellState.FOOD);
+		final LocalGhost ghost = new LocalGhost();
+		ghost.setPosition(Position.of(1, 1));
+		world.addEntity(ghost);
+		final LocalPlayer player = new LocalPlayer("Player");
+		player.setPosition(Position.of(3, 3));
+		world.addEntity(player);
+
+		final WorldCheckpoint checkpoint = world.checkpoint();
+
+		ghost.setPosition(Position.of(1, 2));
+		player.setAngle(90.0);
+		world.getMap().getCell(3, 3).setState(CellState.EMPTY);
+		world.removeEntity(player.getID());
+		final LocalGhost spawned = new LocalGhost();
+		spawned.setPosition(Position.of(4, 4));
+		world.addEntity(spawned);
+
+		world.rollback(checkpoint);
+
+		assertEquals(Position.of(1, 1), ghost.getPosition());
+		assertTrue(world.isGhostAt(Position.of(1, 1)));
+		assertFalse(world.isGhostAt(Position.of(1, 2)));
+		assertSame(player, world.getEntity(player.getID()));
+		assertEquals(0.0, player.getAngle(), 0);
+		assertNull(world.getEntity(spawned.getID()));
+		assertEquals(CellState.FOOD, world.getMap().getCell(3, 3).getState());
+		assertEquals(25, world.getMap().getFoodCount());
+	}
+
+	@Test
+	public void shouldRollBackRepeatedly() {
+		final World world = TestWorlds.filledWorld(5, CellState.FOOD);
+		final WorldCheckpoint checkpoint = world.checkpoint();
+
+		for (int i = 0; i < 3; i++) {
+			world.getMap().getCell(i, i).setState(CellState.EMPTY);
+			assertFalse(world.getMap().hasFood(i, i));
+			world.rollback(checkpoint);
+			assertTrue(world.getMap().hasFood(i, i));
+		}
+	}
+
+	@Test
+	public void shouldOnlyResetChangedCells() {
+		final World world = TestWorlds.filledWorld(5, CellState.FOOD);
+		final WorldCheckpoint checkpoint = world.checkpoint();
+		for (int i = 0; i < 3; i++) {
+			world.getMap().getCell(0, 0).setState(CellState.EMPTY);
+			world.getMap().getCell(0, 0).setState(CellState.FOOD);
+		}
+		world.getMap().getCell(1, 1).setState(CellState.EMPTY);
+		world.getMap().getCell(2, 2).setState(CellState.EMPTY);
+
+		final int[] changes = { 0 };
+		world.getMap().getOnCellStateChanged().addListener(a -> changes[0]++);
+		world.rollback(checkpoint);
+
+		assertEquals(2, changes[0]);
+		assertEquals(25, world.getMap().getFoodCount());
+	}
+
+	@Test
+	public void shouldRollBackAfterMoreChangesThanTheJournalHolds() {
+		final World world = TestWorlds.filledWorld(5, CellState.FOOD);
+		final WorldCheckpoint checkpoint = world.checkpoint();
+		for (int i = 0; i < 1000; i++) {
+			world.getMap().getCell(0, 0).setState(CellState.EMPTY);
+			world.getMap().getCell(0, 0).setState(CellState.FOOD);
+		}
+		world.getMap().getCell(4, 4).setState(CellState.EMPTY);
+
+		world.rollback(checkpoint);
+
+		assertTrue(world.getMap().hasFood(4, 4));
+		assertEquals(25, world.getMap().getFoodCount());
+	}
+
+	@Test
+	public void shouldRollBackNestedCheckpoints() {
+		final World world = TestWorlds.filledWorld(5, CellState.FOOD);
+		final Map map = world.getMap();
+		final WorldCheckpoint outer = world.checkpoint();
+		map.getCell(1, 1).setState(CellState.EMPTY);
+		final WorldCheckpoint inner = world.checkpoint();
+		map.getCell(1, 1).setState(CellState.OBSTACLE);
+		map.getCell(2, 2).setState(CellState.EMPTY);
+
+		world.rollback(inner);
+		assertEquals(CellState.EMPTY, map.getState(1, 1));
+		assertTrue(map.hasFood(2, 2));
+
+		// changes which the journal forgets before the outer checkpoint is
+		// rolled back to
+		for (int i = 0; i < 1000; i++) {
+			map.getCell(0, 0).setState(CellState.EMPTY);
+			map.getCell(0, 0).setState(CellState.FOOD);
+		}
+		world.rollback(outer);
+		assertEquals(CellState.FOOD, map.getState(1, 1));
+		assertEquals(25, map.getFoodCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectOtherWorldsCheckpoints() {
+		TestWorlds.filledWorld(5, CellState.FOOD).rollback(TestWorlds.filledWorld(5, CellState.FOOD).checkpoint());
+	}
+}
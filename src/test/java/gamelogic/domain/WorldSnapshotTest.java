@@ -0,0 +1,94 @@
+package test.java.gamelogic.domain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.LocalGhost;
+import main.java.gamelogic.domain.LocalPlayer;
+import main.java.gamelogic.domain.Position;
+import main.java.gamelogic.domain.World;
+import main.java.gamelogic.domain.WorldSnapshot;
+import test.java.gamelogic.random.TestWorlds;
+
+public class WorldSnapshotTest {
+	@Test
+	public void shouldBeEmptyBeforePublishing() {
+		final World world = TestWorlds.filledWorld(5, CellState.EMPTY);
+
+		assertEquals(0, world.getSnapshot().getStep());
+		assertEquals(0, world.getSnapshot().getEntities().size());
+	}
+
+	@Test
+	public void shouldNotChangeOnceTaken() {
+		final World world = TestWorlds.filledWorld(5, CellState.EMPTY);
+		final LocalGhost ghost = new LocalGhost();
+		ghost.setPosition(Position.of(1, 1));
+		world.addEntity(ghost);
+
+		final WorldSnapshot snapshot = world.publishSnapshot();
+		ghost.setPosition(Position.of(1, 2));
+		world.getMap().getCell(3, 3).setState(CellState.FOOD);
+
+		assertSame(snapshot, world.getSnapshot());
+		assertEquals(Position.of(1, 1), snapshot.getEntity(ghost.getID()).getPosition());
+		assertEquals(CellState.EMPTY, snapshot.getCellState(3, 3));
+
+		final WorldSnapshot next = world.publishSnapshot();
+		assertEquals(snapshot.getStep() + 1, next.getStep());
+		assertEquals(Position.of(1, 2), next.getEntity(ghost.getID()).getPosition());
+		assertEquals(CellState.FOOD, next.getCellState(3, 3));
+		assertArrayEquals(new int[] { Position.pack(3, 3) }, next.getChangedCells());
+	}
+
+	@Test
+	public void shouldShareUnchangedParts() {
+		final World world = TestWorlds.filledWorld(5, CellState.EMPTY);
+		final LocalGhost ghost = new LocalGhost();
+		ghost.setPosition(Position.of(1, 1));
+		world.addEntity(ghost);
+		final LocalPlayer player = new LocalPlayer("Player");
+		player.setPosition(Position.of(2, 2));
+		world.addEntity(player);
+
+		final WorldSnapshot first = world.publishSnapshot();
+		final WorldSnapshot second = world.publishSnapshot();
+		assertSame(first.getEntities(), second.getEntities());
+		assertEquals(0, second.getChangedCells().length);
+
+		player.setAngle(90.0);
+		final WorldSnapshot third = world.publishSnapshot();
+		assertSame(second.getEntity(ghost.getID()), third.getEntity(ghost.getID()));
+		assertNotSame(second.getEntity(player.getID()), third.getEntity(player.getID()));
+		assertEquals(90.0, third.getEntity(player.getID()).getAngle(), 0);
+
+		world.removeEntity(ghost.getID());
+		assertNull(world.publishSnapshot().getEntity(ghost.getID()));
+	}
+
+	@Test
+	public void shouldKeepCellStatesAcrossPages() {
+		// 64 by 64 cells span four pages of states
+		final World world = TestWorlds.filledWorld(64, CellState.FOOD);
+		final WorldSnapshot first = world.publishSnapshot();
+
+		world.getMap().getCell(0, 0).setState(CellState.EMPTY);
+		final WorldSnapshot second = world.publishSnapshot();
+		world.getMap().getCell(63, 63).setState(CellState.EMPTY);
+		final WorldSnapshot third = world.publishSnapshot();
+
+		assertEquals(CellState.FOOD, first.getCellState(0, 0));
+		assertEquals(CellState.FOOD, first.getCellState(63, 63));
+		assertEquals(CellState.EMPTY, second.getCellState(0, 0));
+		assertEquals(CellState.FOOD, second.getCellState(63, 63));
+		assertEquals(CellState.EMPTY, third.getCellState(0, 0));
+		assertEquals(CellState.EMPTY, third.getCellState(63, 63));
+		assertEquals(CellState.FOOD, third.getCellState(32, 32));
+	}
+}
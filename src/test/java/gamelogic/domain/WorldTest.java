@@ -1,18 +1,31 @@
 package test.java.gamelogic.domain;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
 import org.hamcrest.core.Is;
 import org.junit.Test;
 
 import main.java.ai.AIPlayer;
+import main.java.constants.CellState;
 import main.java.gamelogic.domain.Entity;
+import main.java.gamelogic.domain.Ghost;
+import main.java.gamelogic.domain.LocalGhost;
+import main.java.gamelogic.domain.LocalPlayer;
 import main.java.gamelogic.domain.Map;
+import main.java.gamelogic.domain.Player;
 import main.java.gamelogic.domain.Position;
 import main.java.gamelogic.domain.RuleChecker;
 import main.java.gamelogic.domain.World;
 import test.java.gamelogic.random.Randoms;
+import test.java.gamelogic.random.TestWorlds;
 
 public class WorldTest {
 
@@ -35,4 +48,116 @@ public class WorldTest {
 		assertTrue(world.getEntitiesAt(new Position(0,0)).size()==1);
 	}
 
+
+	private static <T extends Entity> T place(final World world, final T entity, final int row, final int column) {
+		entity.setPosition(new Position(row, column));
+		world.addEntity(entity);
+		return entity;
+	}
+
+	@Test
+	public void shouldIndexMovedEntities() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalGhost ghost = place(world, new LocalGhost(), 2, 3);
+		assertTrue(world.isGhostAt(new Position(2, 3)));
+
+		ghost.setPosition(new Position(2, 4));
+		assertFalse(world.isGhostAt(new Position(2, 3)));
+		assertTrue(world.isGhostAt(new Position(2, 4)));
+
+		world.removeEntity(ghost.getID());
+		assertFalse(world.isGhostAt(new Position(2, 4)));
+
+		// a removed entity still knows its world, but must not be indexed
+		ghost.setPosition(new Position(5, 5));
+		assertTrue(world.getEntitiesAt(new Position(5, 5)).isEmpty());
+	}
+
+	@Test
+	public void shouldIndexEntitiesMovedFromTwoThreads() throws InterruptedException {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalGhost ghost = place(world, new LocalGhost(), 1, 1);
+		final LocalPlayer player = place(world, new LocalPlayer("Player"), 1, 2);
+
+		final Thread mover = new Thread(() -> {
+			for (int i = 0; i < 100000; i++) {
+				player.setPosition(Position.of(1, 1 + (i & 1)));
+			}
+		});
+		mover.start();
+		for (int i = 0; i < 100000; i++) {
+			ghost.setPosition(Position.of(1, 2 - (i & 1)));
+		}
+		mover.join();
+
+		assertEquals(2, world.getEntitiesInArea(0, 0, 9, 9, Entity.class).size());
+		assertEquals(Arrays.asList(ghost), world.getEntitiesAt(ghost.getPosition(), Ghost.class));
+		assertEquals(Arrays.asList(player), world.getEntitiesAt(player.getPosition(), Player.class));
+	}
+
+	@Test
+	public void shouldQueryAreas() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalGhost near = place(world, new LocalGhost(), 4, 5);
+		final LocalGhost far = place(world, new LocalGhost(), 9, 9);
+		final LocalPlayer player = place(world, new LocalPlayer("Player"), 4, 4);
+
+		assertEquals(Arrays.asList(near), world.getEntitiesInArea(3, 3, 5, 5, Ghost.class));
+		assertEquals(new HashSet<Entity>(Arrays.asList(near, player)),
+				new HashSet<Entity>(world.getEntitiesInRow(4, 0, 9, Entity.class)));
+		assertEquals(Arrays.asList(far), world.getEntitiesInColumn(9, 5, 20, Ghost.class));
+		assertEquals(Arrays.asList(player), world.getEntitiesAt(new Position(4, 4), Player.class));
+
+		assertEquals(new HashSet<Entity>(Arrays.asList(near, player)),
+				new HashSet<Entity>(world.getEntitiesWithin(new Position(4, 4), 1, Entity.class)));
+		assertTrue(world.getEntitiesWithin(new Position(8, 8), 1, Ghost.class).isEmpty());
+		assertEquals(Arrays.asList(far), world.getEntitiesWithin(new Position(8, 8), 2, Ghost.class));
+	}
+
+	@Test
+	public void shouldKeepEntityKindsSeparately() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		final LocalGhost ghost = place(world, new LocalGhost(), 1, 1);
+		final LocalPlayer player = place(world, new LocalPlayer("Player"), 2, 2);
+
+		assertEquals(Arrays.asList(player), new ArrayList<>(world.getPlayers()));
+		assertEquals(Arrays.asList(ghost), new ArrayList<>(world.getEntities(Ghost.class)));
+		assertTrue(world.getSpawners().isEmpty());
+		assertSame(world.getPlayers(), world.getEntities(Player.class));
+		assertTrue(world.hasEntityInArea(0, 0, 1, 1, Ghost.class));
+		assertFalse(world.hasEntityInArea(2, 2, 3, 3, Ghost.class));
+
+		world.removeEntity(ghost.getID());
+		assertTrue(world.getGhosts().isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldNotModifyEntityViews() {
+		TestWorlds.filledWorld(10, CellState.EMPTY).getGhosts().add(new LocalGhost());
+	}
+
+	@Test
+	public void shouldSpawnAwayFromEntities() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		assertEquals(Position.of(0, 0), world.getCandidateSpawnPosition());
+
+		final LocalGhost ghost = place(world, new LocalGhost(), 0, 0);
+		assertEquals(Position.of(9, 9), world.getCandidateSpawnPosition());
+		assertFalse(world.getSpawnPositionRating(Position.of(0, 0)) > 0);
+
+		ghost.setPosition(Position.of(9, 9));
+		assertEquals(Position.of(0, 0), world.getCandidateSpawnPosition());
+	}
+
+	@Test
+	public void shouldNotSpawnBehindWalls() {
+		final World world = TestWorlds.filledWorld(10, CellState.EMPTY);
+		for (int i = 0; i < 10; i++) {
+			world.getMap().getCell(i, 8).setState(CellState.OBSTACLE);
+		}
+		place(world, new LocalGhost(), 0, 0);
+
+		assertEquals(0, world.getSpawnPositionRating(Position.of(9, 9)), 0);
+		assertEquals(Position.of(9, 7), world.getCandidateSpawnPosition());
+	}
 }
@@ -0,0 +1,46 @@
+package test.java.gamelogic.random;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Map;
+import main.java.gamelogic.domain.RuleChecker;
+import main.java.gamelogic.domain.World;
+import main.java.graphics.PositionVisualisation;
+
+/**
+ * Builds maps and worlds with known contents for tests.
+ */
+public class TestWorlds {
+	/**
+	 * Creates a square map whose cells all have the same state.
+	 *
+	 * @param size
+	 *            The number of rows and columns.
+	 * @param state
+	 *            The state of every cell.
+	 * @return The map.
+	 */
+	public static Map filledMap(final int size, final CellState state) {
+		final Map map = new Map(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				map.addCell(new Cell(state, new PositionVisualisation(i, j)));
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Creates a local world on a square map whose cells all have the same
+	 * state.
+	 *
+	 * @param size
+	 *            The number of rows and columns.
+	 * @param state
+	 *            The state of every cell.
+	 * @return The world.
+	 */
+	public static World filledWorld(final int size, final CellState state) {
+		return new World(new RuleChecker(), filledMap(size, state), false);
+	}
+}
@@ -0,0 +1,95 @@
+package test.java.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import main.java.networking.InboundRateLimiter;
+
+public class InboundRateLimiterTest {
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	public void testBurstThenDrop() {
+		final long[] now = { 0 };
+		final InboundRateLimiter limiter = new InboundRateLimiter(10, 5, 100, () -> now[0]);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.allow(1, "player-moved"));
+		}
+		assertFalse(limiter.allow(1, "player-moved"));
+		assertEquals(1, limiter.getDroppedPacketCount(1));
+
+		// 10 packets per second means one token every 100ms
+		now[0] += SECOND / 10;
+		assertTrue(limiter.allow(1, "player-moved"));
+		assertFalse(limiter.allow(1, "player-moved"));
+		assertEquals(2, limiter.getDroppedPacketCount(1));
+	}
+
+	@Test
+	public void testLimitsAreSeparatePerClientAndType() {
+		final long[] now = { 0 };
+		final InboundRateLimiter limiter = new InboundRateLimiter(10, 1, 100, () -> now[0]);
+		limiter.setLimit("player-moved", 10, 1);
+		limiter.setLimit("use-ability", 1, 2);
+
+		assertTrue(limiter.allow(1, "player-moved"));
+		assertFalse(limiter.allow(1, "player-moved"));
+
+		assertTrue(limiter.allow(2, "player-moved"));
+		assertTrue(limiter.allow(1, "use-ability"));
+		assertTrue(limiter.allow(1, "use-ability"));
+		assertFalse(limiter.allow(1, "use-ability"));
+		assertTrue(limiter.allow(1, null));
+
+		assertEquals(2, limiter.getDroppedPacketCount(1));
+		assertEquals(0, limiter.getDroppedPacketCount(2));
+	}
+
+	@Test
+	public void testTypesWithoutLimitsShareOneBucket() {
+		final long[] now = { 0 };
+		final InboundRateLimiter limiter = new InboundRateLimiter(10, 5, 100, () -> now[0]);
+		limiter.setLimit("player-moved", 10, 1);
+
+		int allowed = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (limiter.allow(1, "made-up-" + i)) {
+				allowed++;
+			}
+		}
+		assertEquals(5, allowed);
+		assertTrue(limiter.isOffender(1));
+		assertFalse(limiter.allow(1, null));
+
+		// types with a limit of their own are not affected
+		assertTrue(limiter.allow(1, "player-moved"));
+	}
+
+	@Test
+	public void testPersistentOffender() {
+		final long[] now = { 0 };
+		final InboundRateLimiter limiter = new InboundRateLimiter(1, 1, 3, () -> now[0]);
+
+		limiter.allow(1, "player-moved");
+		for (int i = 0; i < 3; i++) {
+			limiter.allow(1, "player-moved");
+		}
+		assertFalse(limiter.isOffender(1));
+
+		limiter.allow(1, "player-moved");
+		assertTrue(limiter.isOffender(1));
+
+		// a new second starts a new window
+		now[0] += SECOND / 2 * 3;
+		limiter.allow(1, "player-moved");
+		limiter.allow(1, "player-moved");
+		assertFalse(limiter.isOffender(1));
+
+		limiter.removeClient(1);
+		assertEquals(0, limiter.getDroppedPacketCount(1));
+	}
+}
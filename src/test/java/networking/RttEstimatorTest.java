@@ -0,0 +1,41 @@
+package test.java.networking;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import main.java.networking.RttEstimator;
+
+public class RttEstimatorTest {
+	@Test
+	public void testSmoothing() {
+		final RttEstimator rtt = new RttEstimator();
+		assertEquals(0, rtt.getSmoothedNanos());
+
+		rtt.addSample(800);
+		assertEquals(800, rtt.getSmoothedNanos());
+
+		rtt.addSample(1600);
+		assertEquals(900, rtt.getSmoothedNanos());
+		assertEquals(1600, rtt.getLatestNanos());
+		assertEquals(2, rtt.getSampleCount());
+	}
+
+	@Test
+	public void testPercentiles() {
+		final RttEstimator rtt = new RttEstimator();
+		for (int i = 100; i >= 1; i--) {
+			rtt.addSample(i);
+		}
+
+		assertEquals(1, rtt.getPercentileNanos(0));
+		assertEquals(50, rtt.getPercentileNanos(50));
+		assertEquals(99, rtt.getPercentileNanos(99));
+		assertEquals(100, rtt.getPercentileNanos(100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPercentile() {
+		new RttEstimator().getPercentileNanos(101);
+	}
+}
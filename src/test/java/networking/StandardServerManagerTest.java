@@ -1,6 +1,7 @@
 package test.java.networking;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.StandardCharsets;
@@ -8,7 +9,9 @@ import java.util.HashMap;
 
 import org.junit.Test;
 
+import main.java.networking.InboundRateLimiter;
 import main.java.networking.StandardServerManager;
+import main.java.networking.TrafficStatistics;
 import main.java.networking.data.Packet;
 
 public class StandardServerManagerTest {
@@ -46,4 +49,62 @@ public class StandardServerManagerTest {
 		final Packet p1 = new Packet("data");
 		nm.receive(3, p1.toString().getBytes(StandardCharsets.UTF_8));
 	}
+
+	@Test
+	public void testFloodedPacketsDropped() {
+		final int[] triggered = { 0 };
+		final StandardServerManager nm = new StandardServerManager(new MockServer());
+		nm.setRateLimiter(new InboundRateLimiter(1, 3, 100, () -> 0));
+		nm.setTrigger((i, t) -> triggered[0]++);
+
+		final byte[] data = new Packet("player-moved").setInteger("row", 1).toString()
+				.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < 10; i++) {
+			nm.receive(2, data);
+		}
+
+		assertEquals(3, triggered[0]);
+		assertEquals(7, nm.getRateLimiter().getDroppedPacketCount(2));
+	}
+
+	@Test
+	public void testReceivedTrafficCounted() {
+		final StandardServerManager nm = new StandardServerManager(new MockServer());
+		final TrafficStatistics statistics = new TrafficStatistics();
+		nm.getTrafficEvent().addListener(statistics);
+		nm.setTrigger((i, t) -> {
+		});
+
+		final byte[] data = new Packet("player-moved").setInteger("row", 1).toString()
+				.getBytes(StandardCharsets.UTF_8);
+		nm.receive(2, data);
+		nm.receive(2, data);
+		nm.receive(4, data);
+
+		assertEquals(2, statistics.getTotals(2, "player-moved").getReceivedPackets());
+		assertEquals(3, statistics.getTotals("player-moved").getReceivedPackets());
+		assertEquals(3 * data.length, statistics.getTotals("player-moved").getReceivedBytes());
+		assertEquals(0, statistics.getTotals("player-moved").getSentPackets());
+	}
+
+	@Test
+	public void testTrafficForgottenForRemovedClient() {
+		final StandardServerManager nm = new StandardServerManager(new MockServer());
+		final TrafficStatistics statistics = new TrafficStatistics();
+		nm.getTrafficEvent().addListener(statistics);
+		nm.setTrigger((i, t) -> {
+		});
+
+		final byte[] data = new Packet("player-moved").setInteger("row", 1).toString()
+				.getBytes(StandardCharsets.UTF_8);
+		nm.receive(2, data);
+		nm.receive(4, data);
+		statistics.recordQueueWait(2, 1000);
+		statistics.removeClient(2);
+
+		assertEquals(0, statistics.getTotals(2, "player-moved").getReceivedPackets());
+		assertEquals(1, statistics.getTotals("player-moved").getReceivedPackets());
+		assertEquals(0, statistics.getMaxQueueWaitNanos(2));
+		assertFalse(statistics.getClientIDs().contains(2));
+	}
 }
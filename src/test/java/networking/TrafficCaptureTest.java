@@ -0,0 +1,59 @@
+package test.java.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import main.java.networking.TrafficCapture;
+import main.java.networking.TrafficCaptureAnalyzer;
+import main.java.networking.TrafficStatistics;
+import main.java.networking.data.TrafficRecord;
+import main.java.networking.data.TrafficRecord.Direction;
+
+public class TrafficCaptureTest {
+	@Test
+	public void testCaptureAndAnalyze() throws Exception {
+		final StringWriter out = new StringWriter();
+		final TrafficCapture capture = new TrafficCapture(out);
+
+		capture.onTraffic(new TrafficRecord(1, Direction.SENT, 2, "cell-changed", 40, 100));
+		capture.onTraffic(new TrafficRecord(2, Direction.SENT, 2, "cell-changed", 60, 100));
+		capture.onTraffic(new TrafficRecord(3, Direction.RECEIVED, 2, "player-moved", 100, 100));
+		capture.close();
+
+		final String analysis = TrafficCaptureAnalyzer.analyze(new BufferedReader(new StringReader(out.toString())));
+
+		assertTrue(analysis.contains("cell-changed (sent): 2 packets, 100 bytes"));
+		assertTrue(analysis.contains("player-moved (received): 1 packets, 100 bytes"));
+		// 40 falls in [32, 64), 60 too, 100 in [64, 128)
+		assertTrue(analysis.contains("<64       2"));
+		assertTrue(analysis.contains("<128       1"));
+	}
+
+	@Test
+	public void testStatistics() {
+		final TrafficStatistics statistics = new TrafficStatistics();
+
+		statistics.onTraffic(new TrafficRecord(1, Direction.SENT, 1, "game-starting", 500, 2000));
+		statistics.onTraffic(new TrafficRecord(1, Direction.SENT, 2, "game-starting", 500, 0));
+		statistics.onTraffic(new TrafficRecord(1, Direction.RECEIVED, 1, "ready-to-start", 20, 300));
+		statistics.recordQueueWait(1, 1000);
+		statistics.recordQueueWait(1, 3000);
+
+		assertEquals(2, statistics.getTotals("game-starting").getSentPackets());
+		assertEquals(1000, statistics.getTotals("game-starting").getSentBytes());
+		assertEquals(2000, statistics.getTotals("game-starting").getEncodeNanos());
+		assertEquals(300, statistics.getTotals(1, "ready-to-start").getDecodeNanos());
+		assertEquals(0, statistics.getTotals(2, "ready-to-start").getReceivedPackets());
+		assertEquals(2000, statistics.getAverageQueueWaitNanos(1));
+		assertEquals(3000, statistics.getMaxQueueWaitNanos(1));
+
+		final String summary = statistics.getSummary();
+		assertTrue(summary.indexOf("game-starting") < summary.indexOf("ready-to-start"));
+	}
+}
@@ -0,0 +1,66 @@
+package test.java.networking.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.core.MapService;
+import main.java.gamelogic.domain.Map;
+import main.java.networking.data.MapCache;
+import main.java.networking.data.MapCodec;
+
+public class MapCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testMissThenHit() {
+		final MapCache cache = new MapCache(null, null);
+		final String encoded = MapCodec.encode(Map.generateMap());
+		final String hash = MapCodec.hash(encoded);
+
+		assertNull(cache.get("Default Map", hash));
+
+		cache.put(hash, encoded);
+		final Map first = cache.get("Default Map", hash);
+		final Map second = cache.get("Default Map", hash);
+		assertNotNull(first);
+		assertNotSame(first, second);
+
+		// games change their map, which must not change the cached map
+		first.getCell(0, 0).setState(CellState.LASER);
+		assertEquals(Map.generateMap().getCell(0, 0).getState(), second.getCell(0, 0).getState());
+	}
+
+	@Test
+	public void testCachedOnDisk() throws Exception {
+		final String encoded = MapCodec.encode(Map.generateMap());
+		final String hash = MapCodec.hash(encoded);
+
+		new MapCache(null, folder.getRoot()).put(hash, encoded);
+
+		assertNotNull(new MapCache(null, folder.getRoot()).get(null, hash));
+	}
+
+	@Test
+	public void testFoundInMapService() {
+		final MapService mapService = new MapService();
+		final MapCache cache = new MapCache(mapService, null);
+		final String hash = MapCodec.hash(MapCodec.encode(mapService.getMap("Default Map")));
+
+		assertNotNull(cache.get("Default Map", hash));
+		assertNull(cache.get("Default Map", MapCodec.hash("something else")));
+		assertNull(cache.get("No Such Map", hash.substring(1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongHashRejected() {
+		new MapCache(null, null).put(MapCodec.hash("something else"), MapCodec.encode(Map.generateMap()));
+	}
+}
@@ -0,0 +1,56 @@
+package test.java.networking.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import main.java.constants.CellState;
+import main.java.gamelogic.domain.Cell;
+import main.java.gamelogic.domain.Map;
+import main.java.graphics.PositionVisualisation;
+import main.java.networking.data.MapCodec;
+import main.java.networking.data.Packet;
+
+public class MapCodecTest {
+	@Test
+	public void testRoundTrip() {
+		final Map original = Map.generateMap();
+		original.getCell(3, 4).setState(CellState.LASER);
+
+		final Map decoded = MapCodec.decode(MapCodec.encode(original));
+
+		assertEquals(original.getMapSize(), decoded.getMapSize());
+		for (int i = 0; i < original.getMapSize(); i++) {
+			for (int j = 0; j < original.getMapSize(); j++) {
+				assertEquals(original.getCell(i, j).getState(), decoded.getCell(i, j).getState());
+				assertEquals(i, decoded.getCell(i, j).getPosition().getRow());
+				assertEquals(j, decoded.getCell(i, j).getPosition().getColumn());
+			}
+		}
+	}
+
+	@Test
+	public void testLargeUniformMapIsSmall() {
+		final int size = 256;
+		final Map map = new Map(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				map.addCell(new Cell(CellState.FOOD, new PositionVisualisation(i, j)));
+			}
+		}
+
+		final String encoded = MapCodec.encode(map);
+		assertTrue(encoded.length() < 20);
+
+		final Packet p = Packet.fromString(new Packet("game-starting").setString("map", encoded).toString());
+		assertEquals(CellState.FOOD, MapCodec.decode(p.getString("map")).getCell(size - 1, size - 1).getState());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCorruptedMapRejected() {
+		final char[] encoded = MapCodec.encode(Map.generateMap()).toCharArray();
+		encoded[2] = encoded[2] == 'A' ? 'B' : 'A';
+		MapCodec.decode(new String(encoded));
+	}
+}
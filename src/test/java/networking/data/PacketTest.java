@@ -1,6 +1,9 @@
 package test.java.networking.data;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Test;
 
@@ -42,4 +45,14 @@ public class PacketTest {
 		p1.setInteger("param", 123);
 		p1.setFloat("param", 3.2222f);
 	}
+
+	@Test
+	public void testReadPacketName() {
+		final Packet p1 = new Packet("player-moved");
+		p1.setString("name", "£`|x");
+		final byte[] data = p1.toString().getBytes(StandardCharsets.UTF_8);
+
+		assertEquals("player-moved", Packet.readPacketName(data));
+		assertNull(Packet.readPacketName("no-separator".getBytes(StandardCharsets.UTF_8)));
+	}
 }
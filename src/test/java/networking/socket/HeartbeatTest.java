@@ -0,0 +1,63 @@
+package test.java.networking.socket;
+
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.java.networking.socket.Client;
+
+public class HeartbeatTest {
+	private ServerSocket serverSocket;
+	private Socket remote;
+	private Client local;
+
+	@Before
+	public void setUp() throws Exception {
+		serverSocket = new ServerSocket(0);
+		remote = new Socket("localhost", serverSocket.getLocalPort());
+		local = new Client(serverSocket.accept(), 1);
+		local.setHeartbeat(50, 300);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		local.die();
+		remote.close();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testRoundTripTimeMeasured() throws Exception {
+		final Client other = new Client(remote, 2);
+		other.setHeartbeat(0, 0);
+		other.start();
+		local.start();
+
+		final long deadline = System.currentTimeMillis() + 2000;
+		while (local.getRoundTripTimes().getSampleCount() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertTrue(local.getRoundTripTimes().getSampleCount() >= 2);
+		assertTrue(local.getRoundTripTimes().getSmoothedNanos() > 0);
+		assertTrue(local.isAlive());
+		other.die();
+	}
+
+	@Test
+	public void testSilentPeerDisconnected() throws Exception {
+		final CountDownLatch disconnected = new CountDownLatch(1);
+		local.getDisconnectedEvent().addListener(id -> disconnected.countDown());
+		local.start();
+
+		// the remote socket is open but never answers the pings
+		assertTrue(disconnected.await(2, TimeUnit.SECONDS));
+	}
+}
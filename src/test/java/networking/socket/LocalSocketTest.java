@@ -0,0 +1,102 @@
+package test.java.networking.socket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.java.networking.StandardClientManager;
+import main.java.networking.data.Packet;
+import main.java.networking.socket.LocalSocket;
+
+public class LocalSocketTest {
+	private LocalSocket serverEnd;
+	private LocalSocket clientEnd;
+
+	@Before
+	public void setUp() {
+		serverEnd = new LocalSocket(3);
+		clientEnd = serverEnd.getPeer();
+	}
+
+	@After
+	public void tearDown() {
+		serverEnd.die();
+	}
+
+	@Test
+	public void testPacketsPassedWithoutConversion() throws Exception {
+		final BlockingQueue<Packet> received = new ArrayBlockingQueue<>(1);
+		clientEnd.getPacketReceiveEvent().addListener(received::add);
+
+		serverEnd.start();
+		final Packet p = new Packet("test").setInteger("value", 5);
+		serverEnd.sendPacket(p);
+		clientEnd.start();
+
+		assertSame(p, received.poll(1, TimeUnit.SECONDS));
+		assertEquals(3, clientEnd.getClientID());
+	}
+
+	@Test
+	public void testBinaryDataStillSupported() throws Exception {
+		final BlockingQueue<byte[]> received = new ArrayBlockingQueue<>(1);
+		serverEnd.getReceiveEvent().addListener(received::add);
+		serverEnd.start();
+		clientEnd.start();
+
+		clientEnd.send(new Packet("test").setString("name", "pac").toString().getBytes(StandardCharsets.UTF_8));
+
+		final Packet p = Packet.fromString(new String(received.poll(1, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+		assertEquals("pac", p.getString("name"));
+	}
+
+	@Test
+	public void testClientManagerBypassesConversion() throws Exception {
+		final BlockingQueue<Packet> received = new ArrayBlockingQueue<>(1);
+		final StandardClientManager manager = new StandardClientManager(clientEnd);
+		manager.setTrigger(received::add);
+		serverEnd.start();
+		clientEnd.start();
+
+		final Packet p = new Packet("test");
+		serverEnd.sendPacket(p);
+
+		assertSame(p, received.poll(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testDyingDisconnectsBothEnds() throws Exception {
+		final CountDownLatch disconnected = new CountDownLatch(2);
+		serverEnd.getDisconnectedEvent().addListener(id -> disconnected.countDown());
+		clientEnd.getDisconnectedEvent().addListener(id -> disconnected.countDown());
+		serverEnd.start();
+		clientEnd.start();
+
+		clientEnd.die();
+
+		assertTrue(disconnected.await(1, TimeUnit.SECONDS));
+		assertFalse(serverEnd.isAlive());
+		assertFalse(clientEnd.isAlive());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCannotSendBeforeStart() {
+		clientEnd.sendPacket(new Packet("test"));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testCannotSetServerEndClientID() {
+		serverEnd.setClientID(1);
+	}
+}